@@ -1,31 +1,45 @@
 package de.volkerfaas.kafka.cluster.model;
 
+import de.volkerfaas.utils.MemoizingSupplier;
 import org.apache.kafka.common.acl.AclBinding;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.function.Supplier;
 
 public class ClusterConfiguration {
 
     private final Collection<AclBinding> aclBindings;
     private final String clusterId;
+    private final Map<String, TopicConfiguration> topicsByName;
     private final Collection<TopicConfiguration> topics;
-    private final Collection<ConsumerGroupConfiguration> consumerGroups;
+    private final MemoizingSupplier<Collection<ConsumerGroupConfiguration>> consumerGroups;
+    private final MemoizingSupplier<Collection<TopicConfiguration>> topicsWithOffsets;
 
     public ClusterConfiguration(String clusterId) {
         this.aclBindings = new ArrayList<>();
         this.clusterId = clusterId;
-        this.topics = new ArrayList<>();
-        this.consumerGroups = new ArrayList<>();
+        this.topicsByName = new LinkedHashMap<>();
+        this.topics = new Topics();
+        this.consumerGroups = MemoizingSupplier.ofValue(new ArrayList<>());
+        this.topicsWithOffsets = MemoizingSupplier.ofValue(this.topics);
     }
 
     public ClusterConfiguration(String clusterId, List<TopicConfiguration> topics, List<AclBinding> aclBindings, Collection<ConsumerGroupConfiguration> consumerGroups) {
-        this.aclBindings = aclBindings;
+        this.aclBindings = new ArrayList<>(aclBindings);
         this.clusterId = clusterId;
-        this.topics = topics;
-        this.consumerGroups = consumerGroups;
+        this.topicsByName = indexTopicsByName(topics);
+        this.topics = new Topics();
+        this.consumerGroups = MemoizingSupplier.ofValue(consumerGroups);
+        this.topicsWithOffsets = MemoizingSupplier.ofValue(this.topics);
+    }
+
+    public ClusterConfiguration(String clusterId, List<TopicConfiguration> topics, List<AclBinding> aclBindings, Supplier<Collection<ConsumerGroupConfiguration>> consumerGroups, Supplier<Collection<TopicConfiguration>> topicsWithOffsets) {
+        this.aclBindings = new ArrayList<>(aclBindings);
+        this.clusterId = clusterId;
+        this.topicsByName = indexTopicsByName(topics);
+        this.topics = new Topics();
+        this.consumerGroups = MemoizingSupplier.of(consumerGroups);
+        this.topicsWithOffsets = MemoizingSupplier.of(topicsWithOffsets);
     }
 
     public Collection<AclBinding> getAclBindings() {
@@ -40,14 +54,73 @@ public class ClusterConfiguration {
         return topics;
     }
 
+    public TopicConfiguration findTopic(String name) {
+        return topicsByName.get(name);
+    }
+
+    public boolean containsTopic(String name) {
+        return topicsByName.containsKey(name);
+    }
+
+    public Set<String> getTopicNames() {
+        return Collections.unmodifiableSet(topicsByName.keySet());
+    }
+
+    public Collection<TopicConfiguration> getTopicsWithOffsets() {
+        topicsWithOffsets.get();
+        return topics;
+    }
+
     public Collection<ConsumerGroupConfiguration> getConsumerGroups() {
-        return consumerGroups;
+        return consumerGroups.get();
+    }
+
+    public void addAclBindings(Collection<AclBinding> aclBindings) {
+        aclBindings.stream()
+                .filter(aclBinding -> !this.aclBindings.contains(aclBinding))
+                .forEach(this.aclBindings::add);
+    }
+
+    public void removeAclBindings(Collection<AclBinding> aclBindings) {
+        this.aclBindings.removeAll(aclBindings);
+    }
+
+    public void putTopic(TopicConfiguration topic) {
+        topicsByName.put(topic.getName(), topic);
+    }
+
+    public void removeTopics(Collection<String> names) {
+        topicsByName.keySet().removeAll(names);
     }
 
     public Collection<String> listTopicNames() {
-        return topics.stream()
-                .map(TopicConfiguration::getName)
-                .collect(Collectors.toSet());
+        return new HashSet<>(topicsByName.keySet());
+    }
+
+    private static Map<String, TopicConfiguration> indexTopicsByName(Collection<TopicConfiguration> topics) {
+        final Map<String, TopicConfiguration> topicsByName = new LinkedHashMap<>();
+        topics.forEach(topic -> topicsByName.put(topic.getName(), topic));
+
+        return topicsByName;
+    }
+
+    private class Topics extends AbstractCollection<TopicConfiguration> {
+
+        @Override
+        public boolean add(TopicConfiguration topic) {
+            return !Objects.equals(topicsByName.put(topic.getName(), topic), topic);
+        }
+
+        @Override
+        public Iterator<TopicConfiguration> iterator() {
+            return topicsByName.values().iterator();
+        }
+
+        @Override
+        public int size() {
+            return topicsByName.size();
+        }
+
     }
 
     @Override
@@ -0,0 +1,91 @@
+package de.volkerfaas.kafka.cluster.model;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class WriteReport<K> {
+
+    public static class Result<K> {
+
+        private final K resource;
+        private final int attempts;
+        private final Throwable error;
+
+        public Result(K resource, int attempts, Throwable error) {
+            this.resource = resource;
+            this.attempts = attempts;
+            this.error = error;
+        }
+
+        public K getResource() {
+            return resource;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return Objects.isNull(error);
+        }
+
+    }
+
+    private final String operation;
+    private final Map<K, Result<K>> results;
+
+    public WriteReport(String operation) {
+        this.operation = operation;
+        this.results = new LinkedHashMap<>();
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Collection<Result<K>> getResults() {
+        return Collections.unmodifiableCollection(results.values());
+    }
+
+    public void recordSuccess(K resource, int attempts) {
+        results.put(resource, new Result<>(resource, attempts, null));
+    }
+
+    public void recordFailure(K resource, int attempts, Throwable error) {
+        results.put(resource, new Result<>(resource, attempts, error));
+    }
+
+    public Set<K> getSucceeded() {
+        return results.values().stream()
+                .filter(Result::isSuccessful)
+                .map(Result::getResource)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public Map<K, Throwable> getFailures() {
+        final Map<K, Throwable> failures = new LinkedHashMap<>();
+        results.values().stream()
+                .filter(result -> !result.isSuccessful())
+                .forEach(result -> failures.put(result.getResource(), result.getError()));
+
+        return failures;
+    }
+
+    public boolean isSuccessful() {
+        return results.values().stream().allMatch(Result::isSuccessful);
+    }
+
+    public boolean isRetried() {
+        return results.values().stream().anyMatch(result -> result.getAttempts() > 1);
+    }
+
+    @Override
+    public String toString() {
+        return operation + ": " + getSucceeded().size() + " succeeded, " + getFailures().size() + " failed";
+    }
+
+}
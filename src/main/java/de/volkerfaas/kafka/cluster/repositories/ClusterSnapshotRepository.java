@@ -0,0 +1,14 @@
+package de.volkerfaas.kafka.cluster.repositories;
+
+import de.volkerfaas.kafka.cluster.model.ClusterConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+public interface ClusterSnapshotRepository {
+
+    ClusterConfiguration readSnapshot(String pathname, String cluster, Duration maxAge) throws IOException;
+    File writeSnapshot(ClusterConfiguration clusterConfiguration, String cluster, String directory) throws IOException;
+
+}
@@ -22,6 +22,7 @@ public interface KafkaClusterRepository {
     void deleteTopics(Collection<String> topicNames) throws ExecutionException, InterruptedException;
     ClusterConfiguration getClusterConfiguration() throws ExecutionException, InterruptedException;
     Collection<AclBinding> listAccessControlLists(ResourceType resourceType, String name) throws ExecutionException, InterruptedException;
+    ClusterConfiguration refreshClusterConfiguration() throws ExecutionException, InterruptedException;
     void updateConfigs(Map<ConfigResource, Collection<AlterConfigOp>> configs) throws ExecutionException, InterruptedException;
 
 }
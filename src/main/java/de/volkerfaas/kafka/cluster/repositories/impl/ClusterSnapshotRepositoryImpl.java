@@ -0,0 +1,152 @@
+package de.volkerfaas.kafka.cluster.repositories.impl;
+
+import de.volkerfaas.kafka.cluster.model.*;
+import de.volkerfaas.kafka.cluster.repositories.ClusterSnapshotRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.acl.AclBinding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static de.volkerfaas.utils.BinaryCodec.*;
+
+@Repository
+public class ClusterSnapshotRepositoryImpl implements ClusterSnapshotRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterSnapshotRepositoryImpl.class);
+    private static final int MAGIC = 0x4B434D53;
+    private static final int VERSION = 2;
+
+    /**
+     * Reads the snapshot, which must have been created for the given cluster, so that a snapshot of one cluster never
+     * drives the deployment to another one.
+     */
+    @Override
+    public ClusterConfiguration readSnapshot(final String pathname, final String cluster, final Duration maxAge) throws IOException {
+        try (final DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(Path.of(pathname)))))) {
+            if (input.readInt() != MAGIC) {
+                throw new IllegalArgumentException("File '" + pathname + "' is not a cluster snapshot.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("File '" + pathname + "' is a cluster snapshot of version " + version + ", which is not supported anymore. Please create the snapshot again.");
+            }
+            final String clusterId = input.readUTF();
+            final String clusterOfSnapshot = input.readUTF();
+            if (!Objects.equals(cluster, clusterOfSnapshot)) {
+                throw new IllegalStateException("Snapshot '" + pathname + "' of cluster '" + clusterId + "' has been created for cluster '" + clusterOfSnapshot + "' and cannot be used for cluster '" + cluster + "'.");
+            }
+            final Instant createdAt = Instant.ofEpochMilli(input.readLong());
+            final Duration age = Duration.between(createdAt, Instant.now());
+            if (Objects.nonNull(maxAge) && age.compareTo(maxAge) > 0) {
+                throw new IllegalStateException("Snapshot '" + pathname + "' of cluster '" + clusterId + "' is " + age.toMinutes() + " minutes old, which exceeds the maximum age of " + maxAge.toMinutes() + " minutes.");
+            }
+            final Map<TopicPartition, PartitionConfiguration> partitions = new HashMap<>();
+            final List<TopicConfiguration> topics = readTopics(input, partitions);
+            final List<AclBinding> aclBindings = readAclBindings(input);
+            final List<ConsumerGroupConfiguration> consumerGroups = readConsumerGroups(input, partitions);
+            LOGGER.info("Read snapshot of Apache Kafka® cluster '{}' from file '{}' created at {}", clusterId, pathname, createdAt);
+
+            return new ClusterConfiguration(clusterId, topics, aclBindings, consumerGroups);
+        }
+    }
+
+    @Override
+    public File writeSnapshot(final ClusterConfiguration clusterConfiguration, final String cluster, final String directory) throws IOException {
+        final File file = new File(directory, "snapshot-" + clusterConfiguration.getClusterId() + ".bin");
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file.toPath()))))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(clusterConfiguration.getClusterId());
+            output.writeUTF(cluster);
+            output.writeLong(Instant.now().toEpochMilli());
+            writeTopics(output, clusterConfiguration.getTopicsWithOffsets());
+            writeAclBindings(output, clusterConfiguration.getAclBindings());
+            writeConsumerGroups(output, clusterConfiguration.getConsumerGroups());
+        }
+        LOGGER.info("Snapshot of Apache Kafka® cluster '{}' written to file '{}'", clusterConfiguration.getClusterId(), file);
+
+        return file;
+    }
+
+    public List<TopicConfiguration> readTopics(final DataInputStream input, final Map<TopicPartition, PartitionConfiguration> partitionsByTopicPartition) throws IOException {
+        final int size = input.readInt();
+        final List<TopicConfiguration> topics = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String name = input.readUTF();
+            final short replicationFactor = input.readShort();
+            final Map<String, String> config = readStringMap(input);
+            final int partitionSize = input.readInt();
+            final List<PartitionConfiguration> partitions = new ArrayList<>(partitionSize);
+            for (int j = 0; j < partitionSize; j++) {
+                final PartitionConfiguration partition = new PartitionConfiguration(name, input.readInt());
+                partition.setOffset(input.readLong());
+                partition.setTimestamp(input.readLong());
+                partitions.add(partition);
+                partitionsByTopicPartition.put(new TopicPartition(name, partition.getIndex()), partition);
+            }
+            topics.add(new TopicConfiguration(name, partitions, replicationFactor, config));
+        }
+
+        return topics;
+    }
+
+    public void writeTopics(final DataOutputStream output, final Collection<TopicConfiguration> topics) throws IOException {
+        output.writeInt(topics.size());
+        for (final TopicConfiguration topic : topics) {
+            output.writeUTF(topic.getName());
+            output.writeShort(topic.getReplicationFactor());
+            writeStringMap(output, topic.getConfig());
+            output.writeInt(topic.getPartitions().size());
+            for (final PartitionConfiguration partition : topic.getPartitions()) {
+                output.writeInt(partition.getIndex());
+                output.writeLong(partition.getOffset());
+                output.writeLong(partition.getTimestamp());
+            }
+        }
+    }
+
+    public List<ConsumerGroupConfiguration> readConsumerGroups(final DataInputStream input, final Map<TopicPartition, PartitionConfiguration> partitions) throws IOException {
+        final int size = input.readInt();
+        final List<ConsumerGroupConfiguration> consumerGroups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ConsumerGroupConfiguration consumerGroup = new ConsumerGroupConfiguration(input.readUTF(), ConsumerGroupConfiguration.State.findByValue(input.readUTF()));
+            final int consumerSize = input.readInt();
+            for (int j = 0; j < consumerSize; j++) {
+                final PartitionConfiguration partition = input.readBoolean() ? partitions.get(new TopicPartition(input.readUTF(), input.readInt())) : null;
+                consumerGroup.getConsumers().add(new ConsumerConfiguration(partition, input.readLong()));
+            }
+            consumerGroups.add(consumerGroup);
+        }
+
+        return consumerGroups;
+    }
+
+    public void writeConsumerGroups(final DataOutputStream output, final Collection<ConsumerGroupConfiguration> consumerGroups) throws IOException {
+        output.writeInt(consumerGroups.size());
+        for (final ConsumerGroupConfiguration consumerGroup : consumerGroups) {
+            output.writeUTF(consumerGroup.getGroupId());
+            output.writeUTF(consumerGroup.getState().getValue());
+            output.writeInt(consumerGroup.getConsumers().size());
+            for (final ConsumerConfiguration consumer : consumerGroup.getConsumers()) {
+                final PartitionConfiguration partition = consumer.getPartition();
+                output.writeBoolean(Objects.nonNull(partition));
+                if (Objects.nonNull(partition)) {
+                    output.writeUTF(partition.getTopicName());
+                    output.writeInt(partition.getIndex());
+                }
+                output.writeLong(consumer.getOffset());
+            }
+        }
+    }
+
+}
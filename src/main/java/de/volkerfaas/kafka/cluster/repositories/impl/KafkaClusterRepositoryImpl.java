@@ -2,15 +2,34 @@ package de.volkerfaas.kafka.cluster.repositories.impl;
 
 import com.github.freva.asciitable.Column;
 import de.volkerfaas.kafka.cluster.model.*;
+import de.volkerfaas.kafka.cluster.repositories.ClusterSnapshotRepository;
 import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.SnapshotProperties;
+import de.volkerfaas.kafka.topology.model.Visibility;
 import de.volkerfaas.kafka.topology.utils.ConfigEntryUtils;
+import de.volkerfaas.utils.AdaptiveLimiter;
+import de.volkerfaas.utils.MemoizingSupplier;
+import de.volkerfaas.utils.OperationLog;
+import de.volkerfaas.utils.OperationLog.Outcome;
+import de.volkerfaas.utils.StageTimings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.admin.*;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.acl.AccessControlEntryFilter;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.InvalidPartitionsException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.errors.TopicExistsException;
 import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
@@ -18,32 +37,83 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import static com.github.freva.asciitable.AsciiTable.getTable;
 import static com.github.freva.asciitable.HorizontalAlign.LEFT;
 import static de.volkerfaas.utils.ExceptionUtils.handleException;
+import static de.volkerfaas.utils.FutureUtils.mapChunked;
+import static de.volkerfaas.utils.FutureUtils.toCompletableFuture;
 
 @Repository
 public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaClusterRepositoryImpl.class);
 
+    private final AdaptiveLimiter adminRequestLimiter;
+    private final ObjectName adminRequestLimiterName;
+
     private final AdminClient adminClient;
+    private final CacheManager cacheManager;
+    private final String cluster;
+    private final ClusterSnapshotRepository clusterSnapshotRepository;
+    private final DeployProperties deployProperties;
     private final boolean dryRun;
     private final boolean local;
+    private final Set<String> domainPrefixes;
+    private final AtomicBoolean firstAdminCallCompleted;
+    private final String fromSnapshot;
+    private final MeterRegistry meterRegistry;
+    private final OperationLog operationLog;
+    private final SnapshotProperties snapshotProperties;
 
     @Autowired
-    public KafkaClusterRepositoryImpl(@Lazy AdminClient adminClient, @Value("${cluster:local}") String cluster, @Value("${dry-run:@null}") String dryRun) {
+    public KafkaClusterRepositoryImpl(@Lazy AdminClient adminClient, ClusterSnapshotRepository clusterSnapshotRepository, @Value("${cluster:local}") String cluster, @Value("${dry-run:@null}") String dryRun, @Value("${domain:@null}") String domain, @Value("${from-snapshot:@null}") String fromSnapshot, SnapshotProperties snapshotProperties, DeployProperties deployProperties, CacheManager cacheManager, OperationLog operationLog, MeterRegistry meterRegistry) {
         this.adminClient = adminClient;
+        this.adminRequestLimiter = new AdaptiveLimiter(deployProperties.getChunkSize(), deployProperties.getLimit().getMinChunkSize(), deployProperties.getLimit().getMaxChunkSize(), deployProperties.getLimit().getChunkSizeIncrement(),
+                deployProperties.getMaxInFlight(), deployProperties.getLimit().getMaxInFlight(), deployProperties.getLimit().getLatencyTarget(), deployProperties.getLimit().getDecreaseFactor());
+        this.adminRequestLimiterName = handleException(() -> new ObjectName("de.volkerfaas.kafka:type=AdaptiveLimiter,name=admin-requests,cluster=" + ObjectName.quote(String.valueOf(cluster))));
+        this.cacheManager = cacheManager;
+        this.cluster = cluster;
+        this.clusterSnapshotRepository = clusterSnapshotRepository;
+        this.deployProperties = deployProperties;
         this.dryRun = Objects.nonNull(dryRun);
         this.local = Objects.equals("local", cluster);
+        this.domainPrefixes = Objects.isNull(domain) ? Collections.emptySet() : Arrays.stream(domain.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> name + ".")
+                .collect(Collectors.toUnmodifiableSet());
+        this.firstAdminCallCompleted = new AtomicBoolean();
+        this.fromSnapshot = fromSnapshot;
+        this.meterRegistry = Objects.requireNonNullElseGet(meterRegistry, SimpleMeterRegistry::new);
+        this.operationLog = Objects.requireNonNullElseGet(operationLog, OperationLog::new);
+        this.snapshotProperties = snapshotProperties;
     }
 
     @Override
@@ -53,8 +123,13 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
             return;
         } else if (dryRun) {
             LOGGER.info("New ACLs to be created in cluster");
+            operationLog.recordAll("create ACLs", aclBindings, Outcome.DRY_RUN, 0, null);
         } else {
-            adminClient.createAcls(aclBindings).all().get();
+            final Map<AclBinding, AclBinding> resources = aclBindings.stream()
+                    .collect(Collectors.toMap(aclBinding -> aclBinding, aclBinding -> aclBinding, (a, b) -> a, LinkedHashMap::new));
+            final WriteReport<AclBinding> report = write("create ACLs", resources, chunk -> adminClient.createAcls(chunk.values()).values());
+            updateCachedClusterConfiguration(clusterConfiguration -> clusterConfiguration.addAclBindings(report.getSucceeded()));
+            handleWriteReport(report, AclBinding::toString);
             LOGGER.info("New ACLs created in cluster");
         }
         printAclBindings(aclBindings);
@@ -66,8 +141,18 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
             LOGGER.info("No new partitions to be created in cluster");
         } else if (dryRun) {
             LOGGER.info("New partitions to be created in cluster");
+            operationLog.recordAll("create partitions", newPartitions.keySet(), Outcome.DRY_RUN, 0, null);
         } else {
-            adminClient.createPartitions(newPartitions).all().get();
+            final WriteReport<String> report = write("create partitions", newPartitions, chunk -> adminClient.createPartitions(chunk).values(),
+                    name -> toAdminFuture(adminClient.describeTopics(Set.of(name)).all())
+                            .thenApply(descriptions -> descriptions.get(name).partitions().size() == newPartitions.get(name).totalCount()));
+            updateCachedClusterConfiguration(clusterConfiguration -> report.getSucceeded().forEach(name -> {
+                final TopicConfiguration topic = clusterConfiguration.findTopic(name);
+                if (Objects.nonNull(topic)) {
+                    clusterConfiguration.putTopic(getTopicWithNewPartitions(topic, newPartitions.get(name)));
+                }
+            }));
+            handleWriteReport(report, String::toString);
             LOGGER.info("New partitions created in cluster");
         }
         printNewPartitions(newPartitions);
@@ -79,8 +164,16 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
             LOGGER.info("No new topics to be created in cluster");
         } else if (dryRun) {
             LOGGER.info("New topics to be created in cluster");
+            operationLog.recordAll("create topics", newTopics.stream().map(NewTopic::name).collect(Collectors.toList()), Outcome.DRY_RUN, 0, null);
         } else {
-            adminClient.createTopics(newTopics).all().get();
+            final Map<String, NewTopic> resources = newTopics.stream()
+                    .collect(Collectors.toMap(NewTopic::name, newTopic -> newTopic, (a, b) -> a, LinkedHashMap::new));
+            final WriteReport<String> report = write("create topics", resources, chunk -> adminClient.createTopics(chunk.values()).values());
+            updateCachedClusterConfiguration(clusterConfiguration -> report.getSucceeded().stream()
+                    .map(resources::get)
+                    .map(this::getTopicByNewTopic)
+                    .forEach(clusterConfiguration::putTopic));
+            handleWriteReport(report, String::toString);
             LOGGER.info("New topics created in cluster");
         }
         printNewTopics(newTopics);
@@ -93,9 +186,19 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
             LOGGER.info("No  ACLs to be removed from cluster");
         } else if (dryRun) {
             LOGGER.info("ACLs to be removed from cluster");
+            operationLog.recordAll("delete ACLs", aclBindingFilters, Outcome.DRY_RUN, 0, null);
             printAclBindingFilters(aclBindingFilters);
         } else {
-            aclBindings = adminClient.deleteAcls(aclBindingFilters).all().get();
+            final long startedAt = System.nanoTime();
+            try {
+                aclBindings = adminClient.deleteAcls(aclBindingFilters).all().get();
+            } catch (ExecutionException e) {
+                operationLog.recordAll("delete ACLs", aclBindingFilters, Outcome.FAILURE, getLatency(startedAt), e.getCause());
+                throw e;
+            }
+            operationLog.recordAll("delete ACLs", aclBindings, Outcome.SUCCESS, getLatency(startedAt), null);
+            final Collection<AclBinding> deletedAclBindings = aclBindings;
+            updateCachedClusterConfiguration(clusterConfiguration -> clusterConfiguration.removeAclBindings(deletedAclBindings));
             LOGGER.info("ACLs removed from cluster");
             printAclBindings(aclBindings);
         }
@@ -109,41 +212,75 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
             LOGGER.info("No topics to be removed from cluster");
         } else if (dryRun) {
             LOGGER.info("Topics to be removed from cluster");
+            operationLog.recordAll("delete topics", topicNames, Outcome.DRY_RUN, 0, null);
         } else {
-            adminClient.deleteTopics(topicNames).all().get();
+            final long startedAt = System.nanoTime();
+            try {
+                adminClient.deleteTopics(topicNames).all().get();
+            } catch (ExecutionException e) {
+                operationLog.recordAll("delete topics", topicNames, Outcome.FAILURE, getLatency(startedAt), e.getCause());
+                throw e;
+            }
+            operationLog.recordAll("delete topics", topicNames, Outcome.SUCCESS, getLatency(startedAt), null);
+            updateCachedClusterConfiguration(clusterConfiguration -> clusterConfiguration.removeTopics(topicNames));
             LOGGER.info("Topics removed from cluster");
         }
         printTopicsNames(topicNames);
     }
 
     @Override
-    @Cacheable("cluster")
+    @Cacheable(value = "cluster", sync = true)
     public ClusterConfiguration getClusterConfiguration() throws ExecutionException, InterruptedException {
-        final String clusterId = adminClient.describeCluster().clusterId().get();
-        LOGGER.info("Connected to Apache Kafka® cluster '{}'", clusterId);
-
-        final Set<String> topicNames = listTopicNames();
-        final List<TopicConfiguration> topics = listTopicsByNames(topicNames);
-        final List<AclBinding> aclBindings = local ? Collections.emptyList() : listAccessControlLists(ResourceType.ANY, null);
-        final Collection<ConsumerGroupConfiguration> consumerGroups = listConsumerGroups(topics);
-
-        return new ClusterConfiguration(clusterId, topics, aclBindings, consumerGroups);
+        return loadClusterConfiguration();
     }
 
     @Override
-    public List<AclBinding> listAccessControlLists(ResourceType resourceType, String name) throws ExecutionException, InterruptedException {
-        final ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(resourceType, name, PatternType.ANY);
-        final AclBindingFilter aclBindingFilter = new AclBindingFilter(resourcePatternFilter, AccessControlEntryFilter.ANY);
-        final Collection<AclBinding> aclBindings = adminClient
-                .describeAcls(aclBindingFilter)
-                .values()
+    @CachePut(value = "cluster")
+    public ClusterConfiguration refreshClusterConfiguration() throws ExecutionException, InterruptedException {
+        return loadClusterConfiguration();
+    }
+
+    private ClusterConfiguration loadClusterConfiguration() throws ExecutionException, InterruptedException {
+        if (Objects.nonNull(fromSnapshot)) {
+            return readSnapshot();
+        }
+        final StageTimings timings = new StageTimings();
+        final CompletableFuture<String> clusterId = timings.record("describeCluster", () -> toAdminFuture(adminClient.describeCluster().clusterId()));
+        final CompletableFuture<Set<String>> topicNames = timings.record("listTopics", this::listTopicNames)
+                .thenApply(names -> names.stream()
+                        .filter(this::isInScope)
+                        .collect(Collectors.toSet()));
+        final CompletableFuture<List<AclBinding>> aclBindings;
+        if (local) {
+            aclBindings = CompletableFuture.completedFuture(Collections.emptyList());
+        } else if (domainPrefixes.isEmpty()) {
+            aclBindings = timings.record("describeAcls", () -> listAccessControlListsAsync(ResourceType.ANY, null));
+        } else {
+            aclBindings = timings.record("describeAcls", this::listAccessControlListsInScope);
+        }
+        final CompletableFuture<List<TopicConfiguration>> topics = topicNames.thenCompose(names -> listTopicsByNames(names, timings));
+
+        final ClusterConfiguration clusterConfiguration = CompletableFuture.allOf(clusterId, aclBindings, topics)
+                .thenApply(v -> {
+                    final MemoizingSupplier<Map<TopicPartition, PartitionConfiguration>> partitions = MemoizingSupplier.of(() -> indexPartitions(topics.join()));
+                    return new ClusterConfiguration(clusterId.join(), topics.join(), aclBindings.join(),
+                            () -> loadConsumerGroups(partitions.get()),
+                            () -> loadOffsetsOfPartitions(topics.join(), partitions.get()));
+                })
                 .get();
+        LOGGER.info("Connected to Apache Kafka® cluster '{}'", clusterConfiguration.getClusterId());
+        if (!domainPrefixes.isEmpty()) {
+            LOGGER.info("Cluster configuration is scoped to domains {}", domainPrefixes);
+        }
+        LOGGER.info("Received cluster configuration in {} ms", timings.elapsed());
+        LOGGER.debug("Stages of cluster configuration: {}", timings);
 
-        LOGGER.debug("Received access control lists from Apache Kafka® cluster for resource '{}': {}", name != null ? name : "any", aclBindings);
+        return clusterConfiguration;
+    }
 
-        return aclBindings.stream()
-                .filter(aclBinding -> name == null || Objects.equals(name, aclBinding.pattern().name()))
-                .collect(Collectors.toList());
+    @Override
+    public List<AclBinding> listAccessControlLists(ResourceType resourceType, String name) throws ExecutionException, InterruptedException {
+        return listAccessControlListsAsync(resourceType, name).get();
     }
 
     @Override
@@ -152,25 +289,29 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
             LOGGER.info("No config items to be updated in cluster");
         } else if (dryRun) {
             LOGGER.info("Config items to be updated in cluster");
+            operationLog.recordAll("update configs", configs.keySet().stream().map(ConfigResource::name).collect(Collectors.toList()), Outcome.DRY_RUN, 0, null);
         } else {
-            adminClient.incrementalAlterConfigs(configs).all().get();
+            final WriteReport<ConfigResource> report = write("update configs", configs, chunk -> adminClient.incrementalAlterConfigs(chunk).values());
+            updateCachedClusterConfiguration(clusterConfiguration -> report.getSucceeded().forEach(configResource -> {
+                final TopicConfiguration topic = clusterConfiguration.findTopic(configResource.name());
+                if (Objects.equals(ConfigResource.Type.TOPIC, configResource.type()) && Objects.nonNull(topic)) {
+                    clusterConfiguration.putTopic(getTopicWithAlteredConfig(topic, configs.get(configResource)));
+                }
+            }));
+            handleWriteReport(report, ConfigResource::name);
             LOGGER.info("Config items updated in cluster");
         }
         printConfigs(configs);
     }
 
-    public void addOffsetOfPartitionsToTopics(List<TopicConfiguration> topics, Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> topicPartitionListOffsetsResultInfos) {
-        topics.stream()
-                .map(TopicConfiguration::getPartitions)
-                .flatMap(List::stream)
-                .forEach(partition -> {
-                    final TopicPartition topicPartition = new TopicPartition(partition.getTopicName(), partition.getIndex());
-                    final ListOffsetsResult.ListOffsetsResultInfo listOffsetsResultInfo = topicPartitionListOffsetsResultInfos.get(topicPartition);
-                    if (Objects.nonNull(listOffsetsResultInfo)) {
-                        partition.setOffset(listOffsetsResultInfo.offset());
-                        partition.setTimestamp(listOffsetsResultInfo.timestamp());
-                    }
-                });
+    public void addOffsetOfPartitionsToTopics(Map<TopicPartition, PartitionConfiguration> partitions, Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> topicPartitionListOffsetsResultInfos) {
+        topicPartitionListOffsetsResultInfos.forEach((topicPartition, listOffsetsResultInfo) -> {
+            final PartitionConfiguration partition = partitions.get(topicPartition);
+            if (Objects.nonNull(partition)) {
+                partition.setOffset(listOffsetsResultInfo.offset());
+                partition.setTimestamp(listOffsetsResultInfo.timestamp());
+            }
+        });
     }
 
     public Map<String, String> getConfig(Config config) {
@@ -179,20 +320,25 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
                 .collect(Collectors.toMap(ConfigEntryUtils::getCamelCase, ConfigEntry::value));
     }
 
-    public ConsumerConfiguration getConsumer(Map.Entry<TopicPartition, OffsetAndMetadata> topicPartitionOffsetAndMetadata, Collection<TopicConfiguration> topics) {
-        final String topicName = topicPartitionOffsetAndMetadata.getKey().topic();
-        final int index = topicPartitionOffsetAndMetadata.getKey().partition();
+    public ConsumerConfiguration getConsumer(Map.Entry<TopicPartition, OffsetAndMetadata> topicPartitionOffsetAndMetadata, Map<TopicPartition, PartitionConfiguration> partitions) {
+        final PartitionConfiguration partition = partitions.get(topicPartitionOffsetAndMetadata.getKey());
         final long offset = topicPartitionOffsetAndMetadata.getValue().offset();
-        final PartitionConfiguration partition = topics.stream()
-                .map(TopicConfiguration::getPartitions)
-                .flatMap(List::stream)
-                .filter(p -> Objects.equals(p.getTopicName(), topicName) && Objects.equals(p.getIndex(), index))
-                .findFirst()
-                .orElse(null);
 
         return new ConsumerConfiguration(partition, offset);
     }
 
+    public ConsumerGroupConfiguration getConsumerGroup(ConsumerGroupDescription description, Map<TopicPartition, OffsetAndMetadata> topicPartitionOffsetAndMetadata, Map<TopicPartition, PartitionConfiguration> partitions) {
+        final ConsumerGroupConfiguration consumerGroup = new ConsumerGroupConfiguration(description.groupId(), ConsumerGroupConfiguration.State.findByValue(description.state().toString()));
+        if (Objects.nonNull(topicPartitionOffsetAndMetadata)) {
+            topicPartitionOffsetAndMetadata.entrySet().stream()
+                    .filter(t -> partitions.containsKey(t.getKey()))
+                    .map(t -> getConsumer(t, partitions))
+                    .forEach(consumerGroup.getConsumers()::add);
+        }
+
+        return consumerGroup;
+    }
+
     public List<PartitionConfiguration> getPartitions(TopicDescription description) {
         return description.partitions().stream()
                 .map(partition -> new PartitionConfiguration(description.name(), partition.partition()))
@@ -211,86 +357,228 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
         return new TopicConfiguration(description.name(), getPartitions(description), getReplicationFactor(description), getConfig(config));
     }
 
-    public Map<TopicPartition, OffsetSpec> getTopicPartitionOffsetSpecs(List<TopicConfiguration> topics) {
+    public TopicConfiguration getTopicByNewTopic(NewTopic newTopic) {
+        final List<PartitionConfiguration> partitions = IntStream.range(0, Math.max(newTopic.numPartitions(), 0))
+                .mapToObj(index -> new PartitionConfiguration(newTopic.name(), index))
+                .collect(Collectors.toList());
+        final Map<String, String> config = Objects.isNull(newTopic.configs()) ? new HashMap<>() : newTopic.configs().entrySet().stream()
+                .collect(Collectors.toMap(ConfigEntryUtils::getCamelCase, Map.Entry::getValue));
+
+        return new TopicConfiguration(newTopic.name(), partitions, newTopic.replicationFactor(), config);
+    }
+
+    public TopicConfiguration getTopicWithAlteredConfig(TopicConfiguration topic, Collection<AlterConfigOp> alterConfigOps) {
+        final Map<String, String> config = new HashMap<>(topic.getConfig());
+        alterConfigOps.forEach(alterConfigOp -> {
+            final String name = ConfigEntryUtils.getCamelCase(alterConfigOp.configEntry());
+            final String value = alterConfigOp.configEntry().value();
+            switch (alterConfigOp.opType()) {
+                case SET:
+                    config.put(name, value);
+                    break;
+                case DELETE:
+                    config.remove(name);
+                    break;
+                case APPEND:
+                    config.merge(name, value, (previous, appended) -> previous.isEmpty() ? appended : previous + "," + appended);
+                    break;
+                case SUBTRACT:
+                    config.computeIfPresent(name, (key, previous) -> Arrays.stream(previous.split(","))
+                            .filter(item -> !Objects.equals(item, value))
+                            .collect(Collectors.joining(",")));
+                    break;
+            }
+        });
+
+        return new TopicConfiguration(topic.getName(), topic.getPartitions(), topic.getReplicationFactor(), config);
+    }
+
+    public TopicConfiguration getTopicWithNewPartitions(TopicConfiguration topic, NewPartitions newPartitions) {
+        final List<PartitionConfiguration> partitions = new ArrayList<>(topic.getPartitions());
+        IntStream.range(partitions.size(), newPartitions.totalCount())
+                .mapToObj(index -> new PartitionConfiguration(topic.getName(), index))
+                .forEach(partitions::add);
+
+        return new TopicConfiguration(topic.getName(), partitions, topic.getReplicationFactor(), topic.getConfig());
+    }
+
+    public Map<TopicPartition, OffsetSpec> getTopicPartitionOffsetSpecs(Collection<TopicConfiguration> topics) {
         return topics.stream()
                 .map(TopicConfiguration::getPartitions)
                 .flatMap(List::stream)
-                .collect(Collectors.toMap(p -> new TopicPartition(p.getTopicName(), p.getIndex()), p -> OffsetSpec.latest()));
+                .map(partition -> new TopicPartition(partition.getTopicName(), partition.getIndex()))
+                .collect(Collectors.toMap(topicPartition -> topicPartition, topicPartition -> OffsetSpec.latest()));
+    }
+
+    public Map<TopicPartition, PartitionConfiguration> indexPartitions(Collection<TopicConfiguration> topics) {
+        return topics.stream()
+                .map(TopicConfiguration::getPartitions)
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(partition -> new TopicPartition(partition.getTopicName(), partition.getIndex()), partition -> partition));
     }
 
     public boolean isDynamicTopicConfig(ConfigEntry configEntry) {
         return configEntry.source().equals(ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG);
     }
 
-    public Map<String, Config> listConfigsByNames(Set<String> names) throws ExecutionException, InterruptedException {
+    public CompletableFuture<List<AclBinding>> listAccessControlListsAsync(ResourceType resourceType, String name) {
+        final ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(resourceType, name, PatternType.ANY);
+        final AclBindingFilter aclBindingFilter = new AclBindingFilter(resourcePatternFilter, AccessControlEntryFilter.ANY);
+
+        return toAdminFuture(adminClient.describeAcls(aclBindingFilter).values())
+                .thenApply(aclBindings -> {
+                    LOGGER.debug("Received access control lists from Apache Kafka® cluster for resource '{}': {}", name != null ? name : "any", aclBindings);
+                    return aclBindings.stream()
+                            .filter(aclBinding -> name == null || Objects.equals(name, aclBinding.pattern().name()))
+                            .collect(Collectors.toList());
+                });
+    }
+
+    public CompletableFuture<List<AclBinding>> listAccessControlListsInScope() {
+        final SnapshotProperties.Batch batch = snapshotProperties.getAcls();
+
+        return mapChunked(listResourcePatternFiltersInScope(), batch.getChunkSize(), batch.getMaxInFlight(), this::listAccessControlListsByFilters)
+                .thenApply(chunks -> chunks.stream()
+                        .flatMap(Collection::stream)
+                        .filter(aclBinding -> Objects.equals(ResourceType.CLUSTER, aclBinding.pattern().resourceType()) || isInScope(aclBinding.pattern().name()))
+                        .distinct()
+                        .collect(Collectors.toList()))
+                .whenComplete((aclBindings, throwable) -> LOGGER.debug("Received access control lists from Apache Kafka® cluster for domains {}: {}", domainPrefixes, aclBindings));
+    }
+
+    public CompletableFuture<List<AclBinding>> listAccessControlListsByFilters(List<ResourcePatternFilter> resourcePatternFilters) {
+        final List<CompletableFuture<Collection<AclBinding>>> aclBindings = resourcePatternFilters.stream()
+                .map(resourcePatternFilter -> new AclBindingFilter(resourcePatternFilter, AccessControlEntryFilter.ANY))
+                .map(aclBindingFilter -> toAdminFuture(adminClient.describeAcls(aclBindingFilter).values()))
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(aclBindings.toArray(CompletableFuture[]::new))
+                .thenApply(v -> aclBindings.stream()
+                        .map(CompletableFuture::join)
+                        .flatMap(Collection::stream)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * A PREFIXED filter only returns the ACLs whose pattern is exactly that prefix, so there is one per domain and
+     * visibility prefix. All LITERAL ACLs, including those of the cluster and of single topics, are requested at once
+     * and filtered by scope afterwards, which keeps the number of requests independent of the number of topics.
+     */
+    public List<ResourcePatternFilter> listResourcePatternFiltersInScope() {
+        final List<ResourcePatternFilter> resourcePatternFilters = new ArrayList<>();
+        resourcePatternFilters.add(new ResourcePatternFilter(ResourceType.ANY, null, PatternType.LITERAL));
+        domainPrefixes.forEach(domainPrefix -> {
+            resourcePatternFilters.add(new ResourcePatternFilter(ResourceType.ANY, domainPrefix, PatternType.PREFIXED));
+            Arrays.stream(Visibility.Type.values())
+                    .map(type -> new ResourcePatternFilter(ResourceType.ANY, domainPrefix + type.getValue() + ".", PatternType.PREFIXED))
+                    .forEach(resourcePatternFilters::add);
+        });
+
+        return resourcePatternFilters;
+    }
+
+    public CompletableFuture<Map<String, Config>> listConfigsByNames(Set<String> names) {
         final Set<ConfigResource> resources = names.stream()
                 .map(name -> new ConfigResource(ConfigResource.Type.TOPIC, name))
                 .collect(Collectors.toSet());
-        final Map<ConfigResource, Config> configs = adminClient
-                .describeConfigs(resources)
-                .all()
-                .get();
-        LOGGER.debug("Received topic configs from Apache Kafka® cluster: {}", configs);
 
-        return configs.entrySet().stream()
-                .collect(Collectors.toMap(
-                        e -> e.getKey().name(),
-                        Map.Entry::getValue
-                ));
+        return toAdminFuture(adminClient.describeConfigs(resources).all())
+                .thenApply(configs -> {
+                    LOGGER.debug("Received topic configs from Apache Kafka® cluster: {}", configs);
+                    return configs.entrySet().stream()
+                            .collect(Collectors.toMap(
+                                    e -> e.getKey().name(),
+                                    Map.Entry::getValue
+                            ));
+                });
     }
 
-    public Collection<String> listConsumerGroupIds() throws InterruptedException, ExecutionException {
-        final Collection<ConsumerGroupListing> consumerGroupListings = adminClient.listConsumerGroups()
-                .all()
-                .get();
-        LOGGER.debug("Received consumer group ids from Apache Kafka® cluster: {}", consumerGroupListings);
+    public CompletableFuture<Collection<String>> listConsumerGroupIds() {
+        return toAdminFuture(adminClient.listConsumerGroups().all())
+                .thenApply(consumerGroupListings -> {
+                    LOGGER.debug("Received consumer group ids from Apache Kafka® cluster: {}", consumerGroupListings);
+                    return consumerGroupListings.stream()
+                            .map(ConsumerGroupListing::groupId)
+                            .collect(Collectors.toSet());
+                });
+    }
 
-        return consumerGroupListings
-                .stream()
-                .map(ConsumerGroupListing::groupId)
-                .collect(Collectors.toSet());
+    public CompletableFuture<Map<String, ConsumerGroupDescription>> listConsumerGroupDescriptions(Collection<String> groupIds) {
+        final SnapshotProperties.Batch batch = snapshotProperties.getConsumerGroups();
+
+        return mapChunked(groupIds, batch.getChunkSize(), batch.getMaxInFlight(), chunk -> toAdminFuture(adminClient.describeConsumerGroups(chunk).all()))
+                .thenApply(this::mergeMaps)
+                .whenComplete((consumerGroupDescriptions, throwable) -> LOGGER.debug("Received consumer group descriptions from Apache Kafka® cluster: {}", consumerGroupDescriptions));
     }
 
-    public Collection<ConsumerGroupConfiguration> listConsumerGroups(Collection<TopicConfiguration> topics) throws ExecutionException, InterruptedException {
-        final Collection<String> groupIds = listConsumerGroupIds();
-        if (Objects.isNull(groupIds) || groupIds.isEmpty()) {
-            return Collections.emptySet();
-        }
+    public CompletableFuture<Map<String, Map<TopicPartition, OffsetAndMetadata>>> listConsumerGroupOffsets(Collection<String> groupIds) {
+        final SnapshotProperties.Batch batch = snapshotProperties.getConsumerGroups();
 
-        final Map<String, ConsumerGroupDescription> consumerGroupDescriptions = adminClient.describeConsumerGroups(groupIds)
-                .all()
-                .get();
-        LOGGER.debug("Received consumer group descriptions from Apache Kafka® cluster: {}", consumerGroupDescriptions);
+        return mapChunked(groupIds, batch.getChunkSize(), batch.getMaxInFlight(), this::listConsumerGroupOffsetsOfChunk)
+                .thenApply(this::mergeMaps)
+                .whenComplete((offsets, throwable) -> LOGGER.debug("Received consumer group offsets from Apache Kafka® cluster: {}", offsets));
+    }
 
-        return consumerGroupDescriptions
-                .values()
-                .stream()
-                .map(description -> new ConsumerGroupConfiguration(description.groupId(), ConsumerGroupConfiguration.State.findByValue(description.state().toString())))
-                .peek(consumerGroup -> consumerGroup.getConsumers().addAll(handleException(() -> listConsumersByConsumerGroup(consumerGroup, topics))))
-                .collect(Collectors.toSet());
+    public CompletableFuture<Map<String, Map<TopicPartition, OffsetAndMetadata>>> listConsumerGroupOffsetsOfChunk(List<String> groupIds) {
+        final Map<String, CompletableFuture<Map<TopicPartition, OffsetAndMetadata>>> consumerGroupOffsets = groupIds.stream()
+                .collect(Collectors.toMap(groupId -> groupId, groupId -> toAdminFuture(adminClient.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata())));
+
+        return CompletableFuture.allOf(consumerGroupOffsets.values().toArray(CompletableFuture[]::new))
+                .thenApply(v -> consumerGroupOffsets.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().join())));
     }
 
-    public Collection<ConsumerConfiguration> listConsumersByConsumerGroup(ConsumerGroupConfiguration consumerGroup, Collection<TopicConfiguration> topics) throws ExecutionException, InterruptedException {
-        final Map<TopicPartition, OffsetAndMetadata> topicPartitionOffsetAndMetadata = adminClient.listConsumerGroupOffsets(consumerGroup.getGroupId())
-                .partitionsToOffsetAndMetadata()
-                .get();
-        LOGGER.debug("Received consumer group offsets from Apache Kafka® cluster: {}", topicPartitionOffsetAndMetadata);
+    public CompletableFuture<Collection<ConsumerGroupConfiguration>> listConsumerGroups(Map<TopicPartition, PartitionConfiguration> partitions, StageTimings timings) {
+        final CompletableFuture<Collection<String>> allGroupIds = timings.record("listConsumerGroups", this::listConsumerGroupIds);
+        final CompletableFuture<Map<String, Map<TopicPartition, OffsetAndMetadata>>> offsets = allGroupIds
+                .thenCompose(ids -> ids.isEmpty()
+                        ? CompletableFuture.completedFuture(Collections.<String, Map<TopicPartition, OffsetAndMetadata>>emptyMap())
+                        : timings.record("listConsumerGroupOffsets", () -> listConsumerGroupOffsets(ids)))
+                .thenApply(this::filterConsumerGroupOffsetsInScope);
+        final CompletableFuture<Collection<String>> groupIds = domainPrefixes.isEmpty()
+                ? allGroupIds
+                : offsets.thenApply(Map::keySet);
+        final CompletableFuture<Map<String, ConsumerGroupDescription>> descriptions = groupIds.thenCompose(ids -> ids.isEmpty()
+                ? CompletableFuture.completedFuture(Collections.emptyMap())
+                : timings.record("describeConsumerGroups", () -> listConsumerGroupDescriptions(ids)));
+
+        return CompletableFuture.allOf(descriptions, offsets)
+                .thenApplyAsync(v -> descriptions.join().values().stream()
+                        .map(description -> getConsumerGroup(description, offsets.join().get(description.groupId()), partitions))
+                        .collect(Collectors.toSet()));
+    }
 
-        return topicPartitionOffsetAndMetadata
-                .entrySet()
-                .stream()
-                .map(t -> getConsumer(t, topics))
-                .collect(Collectors.toList());
+    public ClusterConfiguration readSnapshot() {
+        try {
+            return clusterSnapshotRepository.readSnapshot(fromSnapshot, cluster, snapshotProperties.getMaxAge());
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Error reading snapshot '%s': %s", fromSnapshot, e.getMessage()), e);
+        }
     }
 
-    public Set<String> listTopicNames() throws ExecutionException, InterruptedException {
-        final Set<String> topicNames = adminClient
-                .listTopics()
-                .names()
-                .get();
-        LOGGER.debug("Received topic names from Apache Kafka® cluster: {}", topicNames);
+    /**
+     * Groups are selected by their committed offsets, so groups without members still count as consumers of the
+     * topics in scope.
+     */
+    public Map<String, Map<TopicPartition, OffsetAndMetadata>> filterConsumerGroupOffsetsInScope(Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets) {
+        if (domainPrefixes.isEmpty()) {
+            return offsets;
+        }
+
+        return offsets.entrySet().stream()
+                .filter(entry -> Objects.nonNull(entry.getValue()) && entry.getValue().keySet().stream()
+                        .map(TopicPartition::topic)
+                        .anyMatch(this::isInScope))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
 
-        return topicNames;
+    public boolean isInScope(String name) {
+        return domainPrefixes.isEmpty() || domainPrefixes.stream().anyMatch(name::startsWith);
+    }
+
+    public CompletableFuture<Set<String>> listTopicNames() {
+        return toAdminFuture(adminClient.listTopics().names())
+                .whenComplete((topicNames, throwable) -> LOGGER.debug("Received topic names from Apache Kafka® cluster: {}", topicNames));
     }
 
     public List<TopicConfiguration> listTopicsByDescriptionsAndConfigs(Collection<TopicDescription> descriptions, Map<String, Config> configs) {
@@ -299,54 +587,269 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
                 .collect(Collectors.toList());
     }
 
-    public List<TopicConfiguration> listTopicsByNames(Set<String> names) throws ExecutionException, InterruptedException {
-        final Map<String, TopicDescription> topicDescriptions = adminClient.describeTopics(names).all().get();
-        LOGGER.debug("Received topic descriptions from Apache Kafka® cluster: {}", topicDescriptions);
-        final Map<String, Config> configs = listConfigsByNames(names);
-        LOGGER.debug("Received topic configurations from Apache Kafka® cluster: {}", configs);
+    public CompletableFuture<List<TopicConfiguration>> listTopicsByNames(Set<String> names, StageTimings timings) {
+        final SnapshotProperties.Batch batch = snapshotProperties.getTopics();
+
+        return mapChunked(names, batch.getChunkSize(), batch.getMaxInFlight(), page -> listTopicsOfPage(Set.copyOf(page), timings))
+                .thenApply(pages -> pages.stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()));
+    }
+
+    public CompletableFuture<List<TopicConfiguration>> listTopicsOfPage(Set<String> names, StageTimings timings) {
+        final CompletableFuture<Map<String, TopicDescription>> topicDescriptions = timings.record("describeTopics", () -> toAdminFuture(adminClient.describeTopics(names).all()))
+                .whenComplete((descriptions, throwable) -> LOGGER.debug("Received topic descriptions from Apache Kafka® cluster: {}", descriptions));
+        final CompletableFuture<Map<String, Config>> configs = timings.record("describeConfigs", () -> listConfigsByNames(names));
+
+        return CompletableFuture.allOf(topicDescriptions, configs)
+                .thenApplyAsync(v -> listTopicsByDescriptionsAndConfigs(topicDescriptions.join().values(), configs.join()));
+    }
+
+    public CompletableFuture<List<TopicConfiguration>> listOffsetsOfPartitions(List<TopicConfiguration> topics, Map<TopicPartition, PartitionConfiguration> partitions, StageTimings timings) {
+        final SnapshotProperties.Batch batch = snapshotProperties.getTopics();
+
+        return mapChunked(topics, batch.getChunkSize(), batch.getMaxInFlight(), page -> timings.record("listOffsets", () -> toAdminFuture(adminClient.listOffsets(getTopicPartitionOffsetSpecs(page)).all()))
+                        .whenComplete((offsets, throwable) -> LOGGER.debug("Received topic partition offsets from Apache Kafka® cluster: {}", offsets))
+                        .thenApply(offsets -> {
+                            addOffsetOfPartitionsToTopics(partitions, offsets);
+                            return page;
+                        }))
+                .thenApply(pages -> topics);
+    }
+
+    public Collection<ConsumerGroupConfiguration> loadConsumerGroups(Map<TopicPartition, PartitionConfiguration> partitions) {
+        final StageTimings timings = new StageTimings();
+        final Collection<ConsumerGroupConfiguration> consumerGroups = handleException(() -> listConsumerGroups(partitions, timings).get());
+        LOGGER.info("Received consumer groups in {} ms", timings.elapsed());
+        LOGGER.debug("Stages of consumer groups: {}", timings);
 
-        final List<TopicConfiguration> topics = listTopicsByDescriptionsAndConfigs(topicDescriptions.values(), configs);
-        final Map<TopicPartition, OffsetSpec> topicPartitionOffsetSpecs = getTopicPartitionOffsetSpecs(topics);
-        final Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> topicPartitionListOffsetsResultInfos = adminClient.listOffsets(topicPartitionOffsetSpecs).all().get();
-        LOGGER.debug("Received topic partition offsets from Apache Kafka® cluster: {}", configs);
-        addOffsetOfPartitionsToTopics(topics, topicPartitionListOffsetsResultInfos);
+        return consumerGroups;
+    }
 
-        return topics;
+    public <K, V> WriteReport<K> write(String operation, Map<K, V> resources, Function<Map<K, V>, Map<K, KafkaFuture<Void>>> request) throws ExecutionException, InterruptedException {
+        return write(operation, resources, request, resource -> CompletableFuture.completedFuture(false));
+    }
+
+    /**
+     * Resources rejected on a retry as already changed are asked with isApplied whether a previous attempt that timed
+     * out has applied the change after all.
+     */
+    public <K, V> WriteReport<K> write(String operation, Map<K, V> resources, Function<Map<K, V>, Map<K, KafkaFuture<Void>>> request, Function<K, CompletableFuture<Boolean>> isApplied) throws ExecutionException, InterruptedException {
+        final DeployProperties.Retry retry = deployProperties.getRetry();
+        final WriteReport<K> report = new WriteReport<>(operation);
+        Map<K, V> pending = new LinkedHashMap<>(resources);
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                final long backoff = getBackoff(attempt - 1);
+                LOGGER.warn("Retrying to {} for {} resources in {} ms (attempt {} of {})", operation, pending.size(), backoff, attempt, retry.getMaxAttempts());
+                Thread.sleep(backoff);
+            }
+            final Map<K, V> resourcesOfAttempt = pending;
+            final Map<K, Throwable> failures = writeChunked(operation, attempt, resourcesOfAttempt, request, isApplied);
+            pending = new LinkedHashMap<>();
+            for (final Map.Entry<K, V> resource : resourcesOfAttempt.entrySet()) {
+                final Throwable error = failures.get(resource.getKey());
+                if (isSucceeded(attempt, error)) {
+                    report.recordSuccess(resource.getKey(), attempt);
+                } else if (error instanceof RetriableException && attempt < retry.getMaxAttempts()) {
+                    pending.put(resource.getKey(), resource.getValue());
+                } else {
+                    report.recordFailure(resource.getKey(), attempt, error);
+                }
+            }
+        }
+        LOGGER.debug("Write report: {}", report);
+        LOGGER.debug("Limits of admin requests: {}", adminRequestLimiter);
+
+        return report;
+    }
+
+    public <K, V> Map<K, Throwable> writeChunked(String operation, int attempt, Map<K, V> resources, Function<Map<K, V>, Map<K, KafkaFuture<Void>>> request, Function<K, CompletableFuture<Boolean>> isApplied) throws ExecutionException, InterruptedException {
+        final List<K> keys = new ArrayList<>(resources.keySet());
+        final List<CompletableFuture<Map<K, Throwable>>> chunks = new ArrayList<>();
+        int index = 0;
+        while (index < keys.size()) {
+            final long startedAt = adminRequestLimiter.acquire();
+            final List<K> chunk = keys.subList(index, Math.min(index + adminRequestLimiter.getChunkSize(), keys.size()));
+            index += chunk.size();
+            final CompletableFuture<Map<K, Throwable>> failures;
+            try {
+                failures = listFailures(request.apply(chunk.stream()
+                        .collect(Collectors.toMap(resource -> resource, resources::get, (a, b) -> a, LinkedHashMap::new))), (resource, error) -> {
+                    if (!isAppliedBefore(attempt, error)) {
+                        return CompletableFuture.completedFuture(error);
+                    }
+                    return CompletableFuture.completedFuture(resource)
+                            .thenCompose(isApplied)
+                            .handle((applied, throwable) -> Boolean.TRUE.equals(applied) ? null : error);
+                }, (resource, error) -> {
+                    final Outcome outcome = isSucceeded(attempt, error) ? Outcome.SUCCESS : Outcome.FAILURE;
+                    operationLog.record(operation, getResourceName(resource), outcome, getLatency(startedAt), attempt, outcome == Outcome.SUCCESS ? null : error);
+                });
+            } catch (RuntimeException e) {
+                adminRequestLimiter.release(startedAt, false);
+                throw e;
+            }
+            chunks.add(failures.whenComplete((value, throwable) -> adminRequestLimiter.release(startedAt, Objects.nonNull(throwable) || value.values().stream().anyMatch(TimeoutException.class::isInstance))));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(v -> mergeMaps(chunks.stream().map(CompletableFuture::join).collect(Collectors.toList())))
+                .get();
+    }
+
+    public AdaptiveLimiter getAdminRequestLimiter() {
+        return adminRequestLimiter;
+    }
+
+    /**
+     * Exposes the limits of admin requests as MXBean and as meters, so that they are part of the metrics reports.
+     */
+    @PostConstruct
+    public void registerAdminRequestLimiter() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(adminRequestLimiterName)) {
+                server.unregisterMBean(adminRequestLimiterName);
+            }
+            server.registerMBean(adminRequestLimiter, adminRequestLimiterName);
+        } catch (JMException e) {
+            LOGGER.warn("Limits of admin requests could not be exposed: {}", e.getMessage());
+        }
+        final Tags tags = Tags.of("limiter", "admin-requests", "cluster", String.valueOf(cluster));
+        Gauge.builder("kcm.limiter.chunk.size", adminRequestLimiter, AdaptiveLimiter::getChunkSize).tags(tags).register(meterRegistry);
+        Gauge.builder("kcm.limiter.in.flight.max", adminRequestLimiter, AdaptiveLimiter::getMaxInFlight).tags(tags).register(meterRegistry);
+        Gauge.builder("kcm.limiter.in.flight", adminRequestLimiter, AdaptiveLimiter::getInFlight).tags(tags).register(meterRegistry);
+        FunctionCounter.builder("kcm.limiter.increases", adminRequestLimiter, AdaptiveLimiter::getIncreases).tags(tags).register(meterRegistry);
+        FunctionCounter.builder("kcm.limiter.decreases", adminRequestLimiter, AdaptiveLimiter::getDecreases).tags(tags).register(meterRegistry);
+    }
+
+    public long getBackoff(int retries) {
+        final DeployProperties.Retry retry = deployProperties.getRetry();
+        final long maxBackoff = retry.getMaxBackoff().toMillis();
+        final long backoff = Math.min(maxBackoff, retry.getInitialBackoff().toMillis() << Math.min(retries - 1, 30));
+
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    public Collection<TopicConfiguration> loadOffsetsOfPartitions(List<TopicConfiguration> topics, Map<TopicPartition, PartitionConfiguration> partitions) {
+        final StageTimings timings = new StageTimings();
+        final Collection<TopicConfiguration> topicsWithOffsets = handleException(() -> listOffsetsOfPartitions(topics, partitions, timings).get());
+        LOGGER.info("Received partition offsets in {} ms", timings.elapsed());
+
+        return topicsWithOffsets;
+    }
+
+    private <K, V> Map<K, V> mergeMaps(List<Map<K, V>> maps) {
+        final Map<K, V> merged = new HashMap<>();
+        maps.forEach(merged::putAll);
+
+        return merged;
+    }
+
+    private <K> void handleWriteReport(WriteReport<K> report, Function<K, String> name) throws ExecutionException {
+        if (report.isRetried() || !report.isSuccessful()) {
+            printWriteReport(report, name);
+        }
+        if (!report.isSuccessful()) {
+            final Map<K, Throwable> failures = report.getFailures();
+            failures.forEach((resource, error) -> LOGGER.error("Failed to {} for '{}': {}", report.getOperation(), name.apply(resource), error.getMessage()));
+            throw new ExecutionException("Failed to " + report.getOperation() + " for " + failures.size() + " of " + report.getResults().size() + " resources", failures.values().iterator().next());
+        }
+    }
+
+    /**
+     * Records the seconds from the start of the JVM until the first admin request has been answered successfully.
+     */
+    private <T> CompletableFuture<T> toAdminFuture(KafkaFuture<T> kafkaFuture) {
+        return toCompletableFuture(kafkaFuture).whenComplete((value, throwable) -> {
+            if (Objects.isNull(throwable) && firstAdminCallCompleted.compareAndSet(false, true)) {
+                final double uptime = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+                Gauge.builder("kcm.startup.seconds", () -> uptime)
+                        .tag("phase", "first-admin-call")
+                        .strongReference(true)
+                        .register(meterRegistry);
+                LOGGER.debug("First admin call completed after {} seconds", uptime);
+            }
+        });
+    }
+
+    private <K> CompletableFuture<Map<K, Throwable>> listFailures(Map<K, KafkaFuture<Void>> futures, BiFunction<K, Throwable, CompletableFuture<Throwable>> verify, BiConsumer<K, Throwable> completed) {
+        final Map<K, CompletableFuture<Throwable>> errors = new LinkedHashMap<>();
+        futures.forEach((resource, future) -> errors.put(resource, toAdminFuture(future).handle((value, throwable) -> {
+            Throwable cause = throwable;
+            while (cause instanceof CompletionException && Objects.nonNull(cause.getCause())) {
+                cause = cause.getCause();
+            }
+            return cause;
+        }).thenCompose(cause -> verify.apply(resource, cause)).thenApply(cause -> {
+            completed.accept(resource, cause);
+            return cause;
+        })));
+
+        return CompletableFuture.allOf(errors.values().toArray(CompletableFuture[]::new))
+                .thenApply(v -> {
+                    final Map<K, Throwable> failures = new HashMap<>();
+                    errors.forEach((resource, error) -> {
+                        if (Objects.nonNull(error.join())) {
+                            failures.put(resource, error.join());
+                        }
+                    });
+                    return failures;
+                });
+    }
+
+    private static boolean isSucceeded(int attempt, Throwable error) {
+        // a topic reported as existing on retry has been created by a previous attempt that timed out
+        return Objects.isNull(error) || (attempt > 1 && error instanceof TopicExistsException);
+    }
+
+    private static boolean isAppliedBefore(int attempt, Throwable error) {
+        // partitions reported as invalid on retry may have been created by a previous attempt that timed out
+        return attempt > 1 && error instanceof InvalidPartitionsException;
+    }
+
+    private static String getResourceName(Object resource) {
+        return resource instanceof ConfigResource ? ((ConfigResource) resource).name() : String.valueOf(resource);
+    }
+
+    private static long getLatency(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
     }
 
     private void printAclBindings(Collection<AclBinding> aclBindings) {
         if (Objects.isNull(aclBindings) || aclBindings.isEmpty()) {
             return;
         }
-        System.out.println(getTable(aclBindings, Arrays.asList(
+        operationLog.printTable(aclBindings, Arrays.asList(
                 new Column().header("Principal").dataAlign(LEFT).with(aclBinding -> aclBinding.entry().principal()),
                 new Column().header("Permission").dataAlign(LEFT).with(aclBinding -> aclBinding.entry().permissionType().toString()),
                 new Column().header("Operation").dataAlign(LEFT).with(aclBinding -> aclBinding.entry().operation().toString()),
                 new Column().header("Resource").dataAlign(LEFT).with(aclBinding -> aclBinding.pattern().resourceType().toString()),
                 new Column().header("Name").dataAlign(LEFT).with(aclBinding -> aclBinding.pattern().name()),
                 new Column().header("Type").dataAlign(LEFT).with(aclBinding -> aclBinding.pattern().patternType().toString())
-        )));
+        ));
     }
 
     private void printAclBindingFilters(Collection<AclBindingFilter> aclBindingFilters) {
         if (Objects.isNull(aclBindingFilters) || aclBindingFilters.isEmpty()) {
             return;
         }
-        System.out.println(getTable(aclBindingFilters, Arrays.asList(
+        operationLog.printTable(aclBindingFilters, Arrays.asList(
                 new Column().header("Principal").dataAlign(LEFT).with(aclBinding -> aclBinding.entryFilter().principal()),
                 new Column().header("Permission").dataAlign(LEFT).with(aclBinding -> aclBinding.entryFilter().permissionType().toString()),
                 new Column().header("Operation").dataAlign(LEFT).with(aclBinding -> aclBinding.entryFilter().operation().toString()),
                 new Column().header("Resource").dataAlign(LEFT).with(aclBinding -> aclBinding.patternFilter().resourceType().toString()),
                 new Column().header("Name").dataAlign(LEFT).with(aclBinding -> aclBinding.patternFilter().name()),
                 new Column().header("Type").dataAlign(LEFT).with(aclBinding -> aclBinding.patternFilter().patternType().toString())
-        )));
+        ));
     }
 
     private void printConfigs(Map<ConfigResource, Collection<AlterConfigOp>> configs) {
         if (Objects.isNull(configs) || configs.isEmpty()) {
             return;
         }
-        System.out.println(getTable(configs.entrySet(), Arrays.asList(
+        operationLog.printTable(configs.entrySet(), Arrays.asList(
                 new Column().header("Topic").dataAlign(LEFT).with(entry -> entry.getKey().name()),
                 new Column().header("Config").dataAlign(LEFT).with(entry -> entry.getValue()
                         .stream()
@@ -354,25 +857,25 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
                         .collect(Collectors.joining(System.lineSeparator())
                         ))
 
-        )));
+        ));
     }
 
     private void printNewPartitions(Map<String, NewPartitions> newPartitions) {
         if (Objects.isNull(newPartitions) || newPartitions.isEmpty()) {
             return;
         }
-        System.out.println(getTable(newPartitions.entrySet(), Arrays.asList(
+        operationLog.printTable(newPartitions.entrySet(), Arrays.asList(
                 new Column().header("Topic").dataAlign(LEFT).with(Map.Entry::getKey),
                 new Column().header("Partitions").dataAlign(LEFT).with(entry -> String.valueOf(entry.getValue().totalCount()))
 
-        )));
+        ));
     }
 
     private void printNewTopics(Collection<NewTopic> newTopics) {
         if (Objects.isNull(newTopics) || newTopics.isEmpty()) {
             return;
         }
-        System.out.println(getTable(newTopics, Arrays.asList(
+        operationLog.printTable(newTopics, Arrays.asList(
                 new Column().header("Name").dataAlign(LEFT).with(NewTopic::name),
                 new Column().header("Partitions").dataAlign(LEFT).with(newTopic -> String.valueOf(newTopic.numPartitions())),
                 new Column().header("Replication Factor").dataAlign(LEFT).with(newTopic -> String.valueOf(newTopic.replicationFactor())),
@@ -382,16 +885,35 @@ public class KafkaClusterRepositoryImpl implements KafkaClusterRepository {
                         .map(entry -> entry.getKey() + "=" + entry.getValue())
                         .collect(Collectors.joining(System.lineSeparator())
                         ))
-        )));
+        ));
+    }
+
+    private <K> void printWriteReport(WriteReport<K> report, Function<K, String> name) {
+        operationLog.printTable(report.getResults(), Arrays.asList(
+                new Column().header("Resource").dataAlign(LEFT).with(result -> name.apply(result.getResource())),
+                new Column().header("Result").dataAlign(LEFT).with(result -> result.isSuccessful() ? "SUCCESS" : "FAILURE"),
+                new Column().header("Attempts").dataAlign(LEFT).with(result -> String.valueOf(result.getAttempts())),
+                new Column().header("Error").dataAlign(LEFT).with(result -> result.isSuccessful() ? "" : result.getError().getClass().getSimpleName() + ": " + result.getError().getMessage())
+        ));
     }
 
     private void printTopicsNames(Collection<String> topicNames) {
         if (Objects.isNull(topicNames) || topicNames.isEmpty()) {
             return;
         }
-        System.out.println(getTable(topicNames, Collections.singletonList(
+        operationLog.printTable(topicNames, Collections.singletonList(
                 new Column().header("Name").dataAlign(LEFT).with(String::toString)
-        )));
+        ));
+    }
+
+    private void updateCachedClusterConfiguration(Consumer<ClusterConfiguration> update) {
+        final Cache cache = Objects.isNull(cacheManager) ? null : cacheManager.getCache("cluster");
+        final ClusterConfiguration clusterConfiguration = Objects.isNull(cache) ? null : cache.get(SimpleKey.EMPTY, ClusterConfiguration.class);
+        if (Objects.nonNull(clusterConfiguration)) {
+            synchronized (clusterConfiguration) {
+                update.accept(clusterConfiguration);
+            }
+        }
     }
 
 }
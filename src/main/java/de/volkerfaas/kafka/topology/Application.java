@@ -4,20 +4,40 @@ import de.volkerfaas.kafka.topology.listener.ApplicationContextInitializedEventL
 import de.volkerfaas.kafka.topology.listener.ContextRefreshedEventListener;
 import de.volkerfaas.utils.CommandLineArguments;
 import de.volkerfaas.utils.DefaultCommandLineArguments;
+import de.volkerfaas.utils.OperationLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
 
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static de.volkerfaas.kafka.topology.KafkaClusterManagerCommandLineOption.*;
 
 @SpringBootApplication
 public class Application {
 
-    public static void main(final String[] args) {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Application.class);
+    private static final String PREFIX_CLUSTER = "--" + KafkaClusterManagerCommandLineProperty.CLUSTER.getName() + "=";
+
+    public static void main(final String[] args) throws InterruptedException {
         Locale.setDefault(Locale.ENGLISH);
+        if (isJsonOutput(args)) {
+            OperationLog.reserveStandardOutput();
+        }
+        final List<String> clusters = getClusters(args);
+        if (clusters.size() > 1) {
+            new KafkaClusterManagerBanner().printBanner(null, Application.class, System.out);
+            System.exit(runClusterGroup(args, clusters));
+        }
         final SpringApplication springApplication = new SpringApplicationBuilder(Application.class)
                 .listeners(new ApplicationContextInitializedEventListener())
                 .listeners(new ContextRefreshedEventListener())
@@ -30,10 +50,102 @@ public class Application {
 
     public static String getProfile(final String[] args) {
         final CommandLineArguments arguments = new DefaultCommandLineArguments(args);
-        if (arguments.containsOption(DELETE) || arguments.containsOption(DEPLOY) || arguments.containsOption(RESTORE)) {
+        if (arguments.containsOption(DELETE) || arguments.containsOption(DEPLOY) || arguments.containsOption(DRIFT) || arguments.containsOption(RESTORE) || arguments.containsOption(SERVE) || arguments.containsOption(SNAPSHOT) || arguments.containsOption(WATCH) || arguments.containsOption(PLAN) || arguments.containsOption(APPLY)) {
             return arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
         }
         return "default";
     }
 
+    public static boolean isJsonOutput(final String[] args) {
+        final CommandLineArguments arguments = new DefaultCommandLineArguments(args);
+
+        return OperationLog.Format.JSON.name().equalsIgnoreCase(arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.OUTPUT));
+    }
+
+    public static List<String> getClusters(final String[] args) {
+        final CommandLineArguments arguments = new DefaultCommandLineArguments(args);
+        final String cluster = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
+        if (Objects.isNull(cluster)) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(cluster.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public static String[] getClusterArgs(final String[] args, final String cluster) {
+        return Arrays.stream(args)
+                .map(arg -> arg.startsWith(PREFIX_CLUSTER) ? PREFIX_CLUSTER + cluster : arg)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Runs deploy or plan for each cluster of the group concurrently in an application context of its own, so every
+     * cluster reads the topology with its own configuration files and has its own admin and schema registry clients.
+     * A failing cluster does not stop the others, the highest exit code of all clusters is returned.
+     */
+    public static int runClusterGroup(final String[] args, final List<String> clusters) throws InterruptedException {
+        final CommandLineArguments arguments = new DefaultCommandLineArguments(args);
+        if (!arguments.containsOption(DEPLOY) && !arguments.containsOption(PLAN)) {
+            LOGGER.error("Multiple clusters are supported by deploy and plan only");
+            return 3;
+        }
+        final String clusterGroup = String.join(",", clusters);
+        final ExecutorService executorService = Executors.newFixedThreadPool(clusters.size());
+        try {
+            final Map<String, Future<Integer>> exitCodes = new LinkedHashMap<>();
+            for (final String cluster : clusters) {
+                exitCodes.put(cluster, executorService.submit(() -> {
+                    Thread.currentThread().setName(cluster);
+                    return runCluster(getClusterArgs(args, cluster), cluster, clusterGroup);
+                }));
+            }
+            int exitCode = 0;
+            for (final Map.Entry<String, Future<Integer>> entry : exitCodes.entrySet()) {
+                int exitCodeOfCluster;
+                try {
+                    exitCodeOfCluster = entry.getValue().get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("{}", e.getCause().getMessage());
+                    exitCodeOfCluster = 1;
+                }
+                if (exitCodeOfCluster == 0) {
+                    LOGGER.info("Cluster '{}' has been finished successfully", entry.getKey());
+                } else {
+                    LOGGER.error("Cluster '{}' has been finished with exit code {}", entry.getKey(), exitCodeOfCluster);
+                }
+                exitCode = Math.max(exitCode, exitCodeOfCluster);
+            }
+
+            return exitCode;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static int runCluster(final String[] args, final String cluster, final String clusterGroup) {
+        final ConfigurableApplicationContext context;
+        try {
+            context = new SpringApplicationBuilder(Application.class)
+                    .listeners(new ApplicationContextInitializedEventListener())
+                    .listeners(new ContextRefreshedEventListener())
+                    .bannerMode(Banner.Mode.OFF)
+                    .profiles(cluster)
+                    .properties("cluster-group=" + clusterGroup)
+                    .run(args);
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+                if (cause instanceof ApplicationExitException) {
+                    return ((ApplicationExitException) cause).getExitCode();
+                }
+            }
+            throw e;
+        }
+
+        return SpringApplication.exit(context);
+    }
+
 }
@@ -5,6 +5,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import com.ulisesbocchio.jasyptspringboot.annotation.EnableEncryptableProperties;
+import de.volkerfaas.kafka.cluster.repositories.ClusterSnapshotRepository;
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
+import de.volkerfaas.utils.InstrumentedCache;
+import de.volkerfaas.utils.InstrumentedCacheManager;
+import de.volkerfaas.utils.MetricsInterceptor;
+import de.volkerfaas.utils.OperationLog;
 import io.confluent.kafka.schemaregistry.SchemaProvider;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
@@ -12,23 +19,35 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.RestService;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.jasypt.encryption.StringEncryptor;
 import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
 import org.jasypt.encryption.pbe.config.SimpleStringPBEConfig;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Role;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.stereotype.Component;
 
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +87,417 @@ public class ApplicationConfiguration {
 
     }
 
+    @Component
+    @ConfigurationProperties(prefix = "cache")
+    public static class CacheProperties {
+
+        public static class Spec {
+
+            private Duration ttl;
+            private long maxSize;
+
+            public Spec() {
+                this(Duration.ofHours(1), 100);
+            }
+
+            public Spec(final Duration ttl, final long maxSize) {
+                this.ttl = ttl;
+                this.maxSize = maxSize;
+            }
+
+            public Duration getTtl() {
+                return ttl;
+            }
+
+            public void setTtl(final Duration ttl) {
+                this.ttl = ttl;
+            }
+
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(final long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+        }
+
+        private Spec cluster = new Spec(Duration.ofHours(1), 1);
+        private Spec schemaRegistry = new Spec(Duration.ofMinutes(10), 1000);
+
+        public Spec getCluster() {
+            return cluster;
+        }
+
+        public void setCluster(final Spec cluster) {
+            this.cluster = cluster;
+        }
+
+        public Spec getSchemaRegistry() {
+            return schemaRegistry;
+        }
+
+        public void setSchemaRegistry(final Spec schemaRegistry) {
+            this.schemaRegistry = schemaRegistry;
+        }
+
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "deploy")
+    public static class DeployProperties {
+
+        public static class Retry {
+
+            private int maxAttempts = 5;
+            private Duration initialBackoff = Duration.ofMillis(200);
+            private Duration maxBackoff = Duration.ofSeconds(10);
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(final int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(final Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(final Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+
+        }
+
+        public static class Limit {
+
+            private int minChunkSize = 10;
+            private int maxChunkSize = 1000;
+            private int chunkSizeIncrement = 10;
+            private int maxInFlight = 16;
+            private Duration latencyTarget = Duration.ofSeconds(5);
+            private double decreaseFactor = 0.5;
+
+            public int getMinChunkSize() {
+                return minChunkSize;
+            }
+
+            public void setMinChunkSize(final int minChunkSize) {
+                this.minChunkSize = minChunkSize;
+            }
+
+            public int getMaxChunkSize() {
+                return maxChunkSize;
+            }
+
+            public void setMaxChunkSize(final int maxChunkSize) {
+                this.maxChunkSize = maxChunkSize;
+            }
+
+            public int getChunkSizeIncrement() {
+                return chunkSizeIncrement;
+            }
+
+            public void setChunkSizeIncrement(final int chunkSizeIncrement) {
+                this.chunkSizeIncrement = chunkSizeIncrement;
+            }
+
+            public int getMaxInFlight() {
+                return maxInFlight;
+            }
+
+            public void setMaxInFlight(final int maxInFlight) {
+                this.maxInFlight = maxInFlight;
+            }
+
+            public Duration getLatencyTarget() {
+                return latencyTarget;
+            }
+
+            public void setLatencyTarget(final Duration latencyTarget) {
+                this.latencyTarget = latencyTarget;
+            }
+
+            public double getDecreaseFactor() {
+                return decreaseFactor;
+            }
+
+            public void setDecreaseFactor(final double decreaseFactor) {
+                this.decreaseFactor = decreaseFactor;
+            }
+
+        }
+
+        private int parallelism = 4;
+        private int schemaParallelism = 8;
+        private Duration schemaVerificationInterval = Duration.ofDays(7);
+        private int chunkSize = 100;
+        private int maxInFlight = 4;
+        private Limit limit = new Limit();
+        private Retry retry = new Retry();
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(final int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getSchemaParallelism() {
+            return schemaParallelism;
+        }
+
+        public void setSchemaParallelism(final int schemaParallelism) {
+            this.schemaParallelism = schemaParallelism;
+        }
+
+        public Duration getSchemaVerificationInterval() {
+            return schemaVerificationInterval;
+        }
+
+        public void setSchemaVerificationInterval(final Duration schemaVerificationInterval) {
+            this.schemaVerificationInterval = schemaVerificationInterval;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public Limit getLimit() {
+            return limit;
+        }
+
+        public void setLimit(final Limit limit) {
+            this.limit = limit;
+        }
+
+        public Retry getRetry() {
+            return retry;
+        }
+
+        public void setRetry(final Retry retry) {
+            this.retry = retry;
+        }
+
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "metrics")
+    public static class MetricsProperties {
+
+        private boolean enabled = true;
+        private String directory;
+        private String jsonFilename;
+        private String prometheusFilename;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(final String directory) {
+            this.directory = directory;
+        }
+
+        public String getJsonFilename() {
+            return jsonFilename;
+        }
+
+        public void setJsonFilename(final String jsonFilename) {
+            this.jsonFilename = jsonFilename;
+        }
+
+        public String getPrometheusFilename() {
+            return prometheusFilename;
+        }
+
+        public void setPrometheusFilename(final String prometheusFilename) {
+            this.prometheusFilename = prometheusFilename;
+        }
+
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "operation-log")
+    public static class OperationLogProperties {
+
+        private int maxTableRows = 100;
+        private String file;
+
+        public int getMaxTableRows() {
+            return maxTableRows;
+        }
+
+        public void setMaxTableRows(final int maxTableRows) {
+            this.maxTableRows = maxTableRows;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(final String file) {
+            this.file = file;
+        }
+
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "serve")
+    public static class ServeProperties {
+
+        private String host = "127.0.0.1";
+        private int port = 8642;
+        private int threads = 4;
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(final String host) {
+            this.host = host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(final int port) {
+            this.port = port;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "snapshot")
+    public static class SnapshotProperties {
+
+        public static class Batch {
+
+            private int chunkSize;
+            private int maxInFlight;
+
+            public Batch() {
+                this(100, 4);
+            }
+
+            public Batch(final int chunkSize, final int maxInFlight) {
+                this.chunkSize = chunkSize;
+                this.maxInFlight = maxInFlight;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(final int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getMaxInFlight() {
+                return maxInFlight;
+            }
+
+            public void setMaxInFlight(final int maxInFlight) {
+                this.maxInFlight = maxInFlight;
+            }
+
+        }
+
+        private Duration maxAge = Duration.ofHours(1);
+        private Batch acls = new Batch();
+        private Batch consumerGroups = new Batch();
+        private Batch topics = new Batch(1000, 2);
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(final Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public Batch getAcls() {
+            return acls;
+        }
+
+        public void setAcls(final Batch acls) {
+            this.acls = acls;
+        }
+
+        public Batch getConsumerGroups() {
+            return consumerGroups;
+        }
+
+        public void setConsumerGroups(final Batch consumerGroups) {
+            this.consumerGroups = consumerGroups;
+        }
+
+        public Batch getTopics() {
+            return topics;
+        }
+
+        public void setTopics(final Batch topics) {
+            this.topics = topics;
+        }
+
+    }
+
+    @Component
+    @ConfigurationProperties(prefix = "watch")
+    public static class WatchProperties {
+
+        private Duration debounce = Duration.ofMillis(500);
+
+        public Duration getDebounce() {
+            return debounce;
+        }
+
+        public void setDebounce(final Duration debounce) {
+            this.debounce = debounce;
+        }
+
+    }
+
     public static final String DIRECTORY_DELIMITER = "/";
     public static final String EVENTS_DIRECTORY = "events";
     public static final String REGEX_PRINCIPAL = "^(User)+\\:([0-9]+)*$";
@@ -83,8 +513,40 @@ public class ApplicationConfiguration {
     public static final String TOPIC_CONFIG_KEY_CLEANUP_POLICY = "cleanupPolicy";
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("cluster");
+    public CacheManager cacheManager(@Autowired final CacheProperties properties) {
+        return new InstrumentedCacheManager(List.of(
+                new InstrumentedCache("cluster", properties.getCluster().getTtl(), properties.getCluster().getMaxSize()),
+                new InstrumentedCache("schema-registry", properties.getSchemaRegistry().getTtl(), properties.getSchemaRegistry().getMaxSize())
+        ));
+    }
+
+    @Bean
+    public PrometheusMeterRegistry meterRegistry(@Autowired final CacheManager cacheManager) {
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        if (cacheManager instanceof InstrumentedCacheManager) {
+            ((InstrumentedCacheManager) cacheManager).bindTo(meterRegistry);
+        }
+
+        return meterRegistry;
+    }
+
+    @Bean
+    public OperationLog operationLog(@Value("${output:table}") final String output, @Autowired final OperationLogProperties properties) throws FileNotFoundException {
+        final OperationLog.Format format = OperationLog.Format.valueOfName(output);
+        final PrintStream out;
+        if (Objects.nonNull(properties.getFile())) {
+            out = new PrintStream(new FileOutputStream(properties.getFile(), true), true, StandardCharsets.UTF_8);
+        } else {
+            out = format == OperationLog.Format.JSON ? OperationLog.reserveStandardOutput() : System.out;
+        }
+
+        return new OperationLog(format, properties.getMaxTableRows(), out);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryMetricsAdvisor(final ObjectProvider<MeterRegistry> meterRegistry) {
+        return MetricsInterceptor.advisor(meterRegistry::getObject, "kcm.repository", KafkaClusterRepository.class, ClusterSnapshotRepository.class, SchemaRegistryRepository.class);
     }
 
     @Bean
@@ -0,0 +1,23 @@
+package de.volkerfaas.kafka.topology;
+
+import org.springframework.boot.ExitCodeGenerator;
+
+/**
+ * Stops the start of the application for one cluster of a cluster group instead of exiting the JVM, so the other
+ * clusters are finished and the exit code is collected by the application.
+ */
+public class ApplicationExitException extends RuntimeException implements ExitCodeGenerator {
+
+    private final int exitCode;
+
+    public ApplicationExitException(final int exitCode) {
+        super("Application exited with exit code " + exitCode);
+        this.exitCode = exitCode;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+}
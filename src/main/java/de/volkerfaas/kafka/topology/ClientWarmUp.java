@@ -0,0 +1,75 @@
+package de.volkerfaas.kafka.topology;
+
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.volkerfaas.utils.ExceptionUtils.handleException;
+
+/**
+ * Connects the admin and schema registry clients and loads the cluster configuration and the subjects into their
+ * caches. Whoever needs them while they are still loading waits for the running load instead of starting another.
+ */
+@Component
+public class ClientWarmUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientWarmUp.class);
+
+    private final KafkaClusterRepository kafkaClusterRepository;
+    private final SchemaRegistryRepository schemaRegistryRepository;
+    private final AtomicInteger threadNumber;
+
+    @Autowired
+    public ClientWarmUp(@Lazy final KafkaClusterRepository kafkaClusterRepository, @Lazy final SchemaRegistryRepository schemaRegistryRepository) {
+        this.kafkaClusterRepository = kafkaClusterRepository;
+        this.schemaRegistryRepository = schemaRegistryRepository;
+        this.threadNumber = new AtomicInteger();
+    }
+
+    public void warmUp() {
+        final long startedAt = System.nanoTime();
+        try {
+            warmUpAsync().join();
+            LOGGER.info("Clients and cluster configuration have been warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (CompletionException e) {
+            LOGGER.warn("Clients couldn't be warmed up and will connect on the first request: {}", getRootCause(e).getMessage());
+        }
+    }
+
+    /**
+     * Starts loading the cluster configuration and the subjects on threads of their own, so that reading and parsing
+     * the topology files overlaps with the network round trips.
+     */
+    public CompletableFuture<Void> warmUpAsync() {
+        final Executor executor = runnable -> {
+            final Thread thread = new Thread(runnable, "warm-up-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        };
+        final CompletableFuture<?> clusterConfiguration = CompletableFuture.supplyAsync(() -> handleException(kafkaClusterRepository::getClusterConfiguration), executor);
+        final CompletableFuture<?> subjects = CompletableFuture.supplyAsync(() -> handleException(schemaRegistryRepository::listSubjects), executor);
+
+        return CompletableFuture.allOf(clusterConfiguration, subjects);
+    }
+
+    private static Throwable getRootCause(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (Objects.nonNull(cause.getCause())) {
+            cause = cause.getCause();
+        }
+
+        return cause;
+    }
+
+}
@@ -1,7 +1,9 @@
 package de.volkerfaas.kafka.topology;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
 import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.Manifest;
 import de.volkerfaas.kafka.topology.model.TopologyFile;
 import de.volkerfaas.kafka.topology.services.*;
 import de.volkerfaas.utils.CommandLineArguments;
@@ -10,71 +12,65 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 @Component
-public class KafkaClusterManager implements CommandLineRunner {
+public class KafkaClusterManager implements CommandLineRunner, ExitCodeGenerator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaClusterManager.class);
 
+    private final ClientWarmUp clientWarmUp;
+    private final ClusterSnapshotService clusterSnapshotService;
+    private final String clusterGroup;
     private final DocumentationService documentationService;
+    private final DriftService driftService;
+    private final ManifestService manifestService;
+    private final KafkaClusterManagerServer server;
     private final TopologyCreateService topologyCreateService;
     private final TopologyDeleteService topologyDeleteService;
     private final TopologyDeployService topologyDeployService;
     private final TopologyRestoreService topologyRestoreService;
+    private final TopologyWatcher topologyWatcher;
+    private volatile int exitCode;
 
     @Autowired
-    public KafkaClusterManager(final DocumentationService documentationService, final TopologyDeployService topologyDeployService, final TopologyCreateService topologyCreateService, final TopologyRestoreService topologyRestoreService, final TopologyDeleteService topologyDeleteService) {
+    public KafkaClusterManager(@Lazy final DocumentationService documentationService, @Lazy final TopologyDeployService topologyDeployService, @Lazy final TopologyCreateService topologyCreateService, @Lazy final TopologyRestoreService topologyRestoreService, @Lazy final TopologyDeleteService topologyDeleteService, @Lazy final ClusterSnapshotService clusterSnapshotService, @Lazy final ManifestService manifestService, @Lazy final KafkaClusterManagerServer server, @Lazy final TopologyWatcher topologyWatcher, @Lazy final DriftService driftService, @Lazy final ClientWarmUp clientWarmUp, @Value("${cluster-group:@null}") final String clusterGroup) {
+        this.clientWarmUp = clientWarmUp;
+        this.clusterGroup = clusterGroup;
+        this.clusterSnapshotService = clusterSnapshotService;
         this.documentationService = documentationService;
+        this.driftService = driftService;
+        this.manifestService = manifestService;
+        this.server = server;
         this.topologyCreateService = topologyCreateService;
         this.topologyDeleteService = topologyDeleteService;
         this.topologyDeployService = topologyDeployService;
         this.topologyRestoreService = topologyRestoreService;
+        this.topologyWatcher = topologyWatcher;
     }
 
     @Override
     public void run(String[] args) {
-        final CommandLineArguments arguments = new DefaultCommandLineArguments(args);
-        final String directory = getTopologyDirectory(arguments);
-        final boolean create = arguments.containsOption(KafkaClusterManagerCommandLineOption.CREATE);
-        final boolean delete = arguments.containsOption(KafkaClusterManagerCommandLineOption.DELETE);
-        final boolean deploy = arguments.containsOption(KafkaClusterManagerCommandLineOption.DEPLOY);
-        final boolean restore = arguments.containsOption(KafkaClusterManagerCommandLineOption.RESTORE);
         try {
-            if (create) {
-                final String domainName = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.DOMAIN);
-                final String description = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.DESCRIPTION);
-                final String maintainerName = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.MAINTAINER_NAME);
-                final String maintainerEmail = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.MAINTAINER_EMAIL);
-                final String serviceAccountId = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.SERVICE_ACCOUNT_ID);
-                createTopology(directory, domainName, description, maintainerName, maintainerEmail, serviceAccountId);
-            } else if (delete) {
-                final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
-                deleteTopology(directory, domainNames);
-            } else if (deploy) {
-                final boolean allowDeleteAcl = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_ACL);
-                final boolean allowDeleteSubjects = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_SUBJECTS);
-                final boolean allowDeleteTopics = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_TOPICS);
-                final String cluster = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
-                final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
-                deployTopology(directory, domainNames, allowDeleteAcl, allowDeleteSubjects, allowDeleteTopics, cluster);
-            } else if (restore) {
-                final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
-                restoreTopology(directory, domainNames);
-            } else {
-                LOGGER.error("Please choose one of create, deploy or restore");
-            }
+            execute(new DefaultCommandLineArguments(args));
         } catch (IllegalCommandLineArgumentException e) {
-            System.exit(3);
+            exit(3);
         } catch (IllegalTopologyException e) {
-            System.exit(2);
+            exit(2);
         } catch (AssertionError e) {
             throw e;
         } catch (Throwable e) {
@@ -83,7 +79,104 @@ public class KafkaClusterManager implements CommandLineRunner {
             } else {
                 LOGGER.error("{}", e.getMessage());
             }
-            System.exit(1);
+            exit(1);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Exits immediately, unless the command runs for one cluster of a cluster group: then the other clusters are
+     * finished and the exit code is collected by the application.
+     */
+    private void exit(final int exitCode) {
+        this.exitCode = exitCode;
+        if (Objects.isNull(clusterGroup)) {
+            System.exit(exitCode);
+        }
+    }
+
+    public void execute(final CommandLineArguments arguments) throws Exception {
+        final String directory = getTopologyDirectory(arguments);
+        final boolean apply = arguments.containsOption(KafkaClusterManagerCommandLineOption.APPLY);
+        final boolean create = arguments.containsOption(KafkaClusterManagerCommandLineOption.CREATE);
+        final boolean delete = arguments.containsOption(KafkaClusterManagerCommandLineOption.DELETE);
+        final boolean deploy = arguments.containsOption(KafkaClusterManagerCommandLineOption.DEPLOY);
+        final boolean drift = arguments.containsOption(KafkaClusterManagerCommandLineOption.DRIFT);
+        final boolean plan = arguments.containsOption(KafkaClusterManagerCommandLineOption.PLAN);
+        final boolean restore = arguments.containsOption(KafkaClusterManagerCommandLineOption.RESTORE);
+        final boolean serve = arguments.containsOption(KafkaClusterManagerCommandLineOption.SERVE);
+        final boolean snapshot = arguments.containsOption(KafkaClusterManagerCommandLineOption.SNAPSHOT);
+        final boolean watch = arguments.containsOption(KafkaClusterManagerCommandLineOption.WATCH);
+        checkSnapshotUsage(arguments, drift || plan);
+        if (apply) {
+            final String cluster = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
+            final String planFile = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.PLAN);
+            applyDeploymentPlan(directory, cluster, planFile);
+        } else if (create) {
+            final String domainName = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.DOMAIN);
+            final String description = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.DESCRIPTION);
+            final String maintainerName = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.MAINTAINER_NAME);
+            final String maintainerEmail = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.MAINTAINER_EMAIL);
+            final String serviceAccountId = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.SERVICE_ACCOUNT_ID);
+            createTopology(directory, domainName, description, maintainerName, maintainerEmail, serviceAccountId);
+        } else if (delete) {
+            final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
+            deleteTopology(directory, domainNames);
+        } else if (deploy) {
+            final boolean allowDeleteAcl = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_ACL);
+            final boolean allowDeleteSubjects = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_SUBJECTS);
+            final boolean allowDeleteTopics = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_TOPICS);
+            final String cluster = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
+            final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
+            final boolean full = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.FULL);
+            deployTopology(directory, domainNames, allowDeleteAcl, allowDeleteSubjects, allowDeleteTopics, cluster, full);
+        } else if (drift) {
+            final String cluster = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
+            final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
+            final String interval = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.INTERVAL);
+            detectDrift(directory, domainNames, cluster, interval);
+        } else if (plan) {
+            final boolean allowDeleteAcl = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_ACL);
+            final boolean allowDeleteSubjects = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_SUBJECTS);
+            final boolean allowDeleteTopics = arguments.containsProperty(KafkaClusterManagerCommandLineProperty.ALLOW_DELETE_TOPICS);
+            final String cluster = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
+            final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
+            final String planFile = arguments.getPropertyValue(KafkaClusterManagerCommandLineProperty.PLAN);
+            createDeploymentPlan(directory, domainNames, allowDeleteAcl, allowDeleteSubjects, allowDeleteTopics, cluster, planFile);
+        } else if (restore) {
+            final List<String> domainNames = arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN);
+            restoreTopology(directory, domainNames);
+        } else if (serve) {
+            server.serve(arguments, this::execute);
+        } else if (snapshot) {
+            createSnapshot(directory);
+        } else if (watch) {
+            final String cluster = arguments.getRequiredPropertyValue(KafkaClusterManagerCommandLineProperty.CLUSTER);
+            watchTopology(directory, cluster);
+        } else {
+            LOGGER.error("Please choose one of apply, create, deploy, drift, plan, restore, serve, snapshot or watch");
+        }
+    }
+
+    /**
+     * A snapshot is a point-in-time copy of the cluster, so changes derived from it are only computed, never deployed.
+     * Reading the same snapshot again with each drift check would always find the same drift.
+     */
+    private void checkSnapshotUsage(final CommandLineArguments arguments, final boolean readOnly) throws IllegalCommandLineArgumentException {
+        if (!arguments.containsProperty(KafkaClusterManagerCommandLineProperty.FROM_SNAPSHOT)) {
+            return;
+        }
+        if (!readOnly && !arguments.containsProperty(KafkaClusterManagerCommandLineProperty.DRY_RUN)) {
+            LOGGER.error("Usage of flag --from-snapshot only allowed with command drift or plan or in combination with flag --dry-run");
+            throw new IllegalCommandLineArgumentException();
+        }
+        if (arguments.containsProperty(KafkaClusterManagerCommandLineProperty.INTERVAL)) {
+            LOGGER.error("Usage of flag --from-snapshot not allowed in combination with flag --interval");
+            throw new IllegalCommandLineArgumentException();
         }
     }
 
@@ -96,28 +189,85 @@ public class KafkaClusterManager implements CommandLineRunner {
         return path.getAbsolutePath();
     }
 
+    public void applyDeploymentPlan(final String directory, final String cluster, final String planFile) throws IOException, ExecutionException, InterruptedException, IllegalCommandLineArgumentException, IllegalTopologyException {
+        final DeploymentPlan plan = topologyDeployService.readDeploymentPlan(planFile);
+        if (!Objects.equals(cluster, plan.getCluster())) {
+            LOGGER.error("Deployment plan '{}' has been created for cluster '{}' and cannot be applied to cluster '{}'", planFile, plan.getCluster(), cluster);
+            throw new IllegalCommandLineArgumentException();
+        }
+        final Collection<String> changedSchemas = topologyDeployService.listChangedSchemas(plan, directory);
+        if (!changedSchemas.isEmpty()) {
+            LOGGER.error("Schemas of subjects {} have been changed since deployment plan '{}' has been created and the plan cannot be applied", changedSchemas, planFile);
+            throw new IllegalTopologyException();
+        }
+        topologyDeployService.applyDeploymentPlan(plan, directory);
+    }
+
+    public File createDeploymentPlan(final String directory, final Collection<String> domainNames, final boolean allowDeleteAcl, final boolean allowDeleteSubjects, final boolean allowDeleteTopics, final String cluster, final String planFile) throws InterruptedException, ExecutionException, IOException, IllegalTopologyException, IllegalCommandLineArgumentException, RestClientException {
+        if ((allowDeleteAcl || allowDeleteTopics) && !domainNames.isEmpty()) {
+            LOGGER.error("Usage of flag --allow-delete-acl or --allow-delete-topics only allowed without flag --domain");
+            throw new IllegalCommandLineArgumentException();
+        }
+        clientWarmUp.warmUpAsync();
+        final Collection<TopologyFile> topologies = topologyDeployService.listTopologies(directory);
+        if (topologies.isEmpty()) {
+            LOGGER.debug("No topologies to build.");
+            return null;
+        }
+        final boolean valid = topologyDeployService.isTopologyValid(topologies, directory);
+        if (!valid) {
+            throw new IllegalTopologyException();
+        }
+        topologyDeployService.removeTopicsNotInCluster(topologies, cluster);
+        final Collection<Domain> domains = topologyDeployService.filterDomainsForUpdate(topologies, domainNames);
+        final DeploymentPlan plan = topologyDeployService.createDeploymentPlan(domains, listDomains(topologies), cluster, directory, allowDeleteAcl, allowDeleteSubjects, allowDeleteTopics);
+        LOGGER.info("{}", plan);
+        final String pathname = Objects.nonNull(planFile) ? planFile : new File(directory, "plan-" + cluster + ".bin").getPath();
+
+        return topologyDeployService.writeDeploymentPlan(plan, pathname);
+    }
+
     public void createTopology(final String directory, final String domainName, final String description, final String maintainerName, final String maintainerEmail, final String serviceAccountId) throws JsonProcessingException {
         topologyCreateService.createTopology(directory, domainName, description, maintainerName, maintainerEmail, serviceAccountId);
     }
 
+    public void createSnapshot(final String directory) throws ExecutionException, InterruptedException, IOException {
+        clusterSnapshotService.createSnapshot(directory);
+    }
+
     public void deleteTopology(final String directory, final Collection<String> domainNames) {
         topologyDeleteService.deleteTopology(directory, domainNames);
     }
 
-    public void deployTopology(final String directory, final Collection<String> domainNames, final boolean allowDeleteAcl, final boolean allowDeleteSubjects, final boolean allowDeleteTopics, final String cluster) throws InterruptedException, ExecutionException, IOException, IllegalTopologyException, IllegalCommandLineArgumentException, RestClientException {
+    public void deployTopology(final String directory, final Collection<String> domainNames, final boolean allowDeleteAcl, final boolean allowDeleteSubjects, final boolean allowDeleteTopics, final String cluster, final boolean full) throws InterruptedException, ExecutionException, IOException, IllegalTopologyException, IllegalCommandLineArgumentException, RestClientException {
+        clientWarmUp.warmUpAsync();
         final Collection<TopologyFile> topologies = topologyDeployService.listTopologies(directory);
+        deployTopologies(directory, topologies, domainNames, allowDeleteAcl, allowDeleteSubjects, allowDeleteTopics, cluster, full);
+    }
+
+    public void deployTopologies(final String directory, final Collection<TopologyFile> topologies, final Collection<String> domainNames, final boolean allowDeleteAcl, final boolean allowDeleteSubjects, final boolean allowDeleteTopics, final String cluster, final boolean full) throws InterruptedException, ExecutionException, IOException, IllegalTopologyException, IllegalCommandLineArgumentException, RestClientException {
         if (topologies.isEmpty()) {
             LOGGER.debug("No topologies to build.");
             return;
         }
         LOGGER.debug("Topologies have been read from files: {}", topologies);
-        final boolean valid = topologyDeployService.isTopologyValid(topologies, directory);
+        final Manifest manifest = manifestService.createManifest(directory, cluster, topologies);
+        final Manifest previousManifest;
+        final Collection<TopologyFile> changedTopologies;
+        if (full || allowDeleteAcl || allowDeleteSubjects || allowDeleteTopics) {
+            previousManifest = null;
+            changedTopologies = topologies;
+        } else {
+            previousManifest = manifestService.readManifest(directory, cluster);
+            changedTopologies = manifestService.filterChangedTopologies(topologies, previousManifest, manifest);
+        }
+        final boolean valid = topologyDeployService.isTopologyValid(topologies, changedTopologies, directory);
         if (!valid) {
             throw new IllegalTopologyException();
         }
         topologyDeployService.removeTopicsNotInCluster(topologies, cluster);
-        final Collection<Domain> domains = topologyDeployService.filterDomainsForUpdate(topologies, domainNames);
-        topologyDeployService.updateTopology(domains, directory);
+        final Collection<Domain> domains = topologyDeployService.filterDomainsForUpdate(changedTopologies, domainNames);
+        topologyDeployService.updateTopology(domains, listDomains(topologies), directory);
         documentationService.writeTopologyDocumentationFile(topologies, directory);
         documentationService.writeEventsDocumentationFile(topologies, directory);
         if ((allowDeleteAcl || allowDeleteTopics) && !domainNames.isEmpty()) {
@@ -133,6 +283,52 @@ public class KafkaClusterManager implements CommandLineRunner {
         if (allowDeleteSubjects) {
             topologyDeployService.deleteOrphanedSubjects(domains);
         }
+        manifestService.updateManifest(directory, previousManifest, manifest, domains);
+    }
+
+    public void watchTopology(final String directory, final String cluster) throws IOException, InterruptedException {
+        topologyWatcher.watch(directory, (topologies, domainNames) -> deployTopologies(directory, topologies, domainNames, false, false, false, cluster, false));
+    }
+
+    public void detectDrift(final String directory, final Collection<String> domainNames, final String cluster, final String interval) throws InterruptedException, ExecutionException, IOException, IllegalTopologyException, IllegalCommandLineArgumentException {
+        final Duration duration;
+        try {
+            duration = Objects.isNull(interval) ? null : DurationStyle.detectAndParse(interval);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Interval '{}' is invalid, use e.g. 5m or PT5M", interval);
+            throw new IllegalCommandLineArgumentException();
+        }
+        final Collection<TopologyFile> topologies = topologyDeployService.listTopologies(directory);
+        final boolean valid = topologyDeployService.isTopologyValid(topologies, directory);
+        if (!valid) {
+            throw new IllegalTopologyException();
+        }
+        topologyDeployService.removeTopicsNotInCluster(topologies, cluster);
+        final Collection<Domain> allDomains = listDomains(topologies);
+        final Collection<Domain> domains = allDomains.stream()
+                .filter(domain -> domainNames.isEmpty() || domainNames.contains(domain.getName()))
+                .collect(Collectors.toUnmodifiableList());
+        if (Objects.isNull(duration)) {
+            driftService.writeDriftReport(driftService.detectDrift(domains, allDomains, cluster, false), directory);
+            return;
+        }
+        boolean refresh = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                driftService.writeDriftReport(driftService.detectDrift(domains, allDomains, cluster, refresh), directory);
+            } catch (ExecutionException | IOException | RuntimeException e) {
+                LOGGER.error("Drift couldn't be detected: {}", e.getMessage());
+            }
+            refresh = true;
+            Thread.sleep(duration.toMillis());
+        }
+    }
+
+    public Collection<Domain> listDomains(final Collection<TopologyFile> topologies) {
+        return topologies.stream()
+                .map(TopologyFile::getDomain)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableList());
     }
 
     public void restoreTopology(final String directory, final List<String> domainNames) throws ExecutionException, InterruptedException, IOException, RestClientException {
@@ -10,10 +10,16 @@ import static de.volkerfaas.kafka.topology.KafkaClusterManagerCommandLinePropert
 
 public enum KafkaClusterManagerCommandLineOption implements CommandLineOption {
 
+    APPLY("apply", List.of(DIRECTORY, DRY_RUN, CLUSTER, KafkaClusterManagerCommandLineProperty.PLAN, OUTPUT), List.of(KafkaClusterManagerCommandLineProperty.PLAN)),
     CREATE("create", List.of(DIRECTORY, DOMAIN, DESCRIPTION, MAINTAINER_NAME, MAINTAINER_EMAIL, SERVICE_ACCOUNT_ID), List.of(DOMAIN, DESCRIPTION, MAINTAINER_NAME, MAINTAINER_EMAIL, SERVICE_ACCOUNT_ID)),
     DELETE("delete", List.of(DIRECTORY, DOMAIN), List.of(DOMAIN)),
-    DEPLOY("deploy", List.of(DIRECTORY, DOMAIN, DRY_RUN, CLUSTER, ALLOW_DELETE_ACL, ALLOW_DELETE_SUBJECTS, ALLOW_DELETE_TOPICS), Collections.emptyList()),
-    RESTORE("restore", List.of(DIRECTORY, DOMAIN, DRY_RUN, CLUSTER), List.of(DOMAIN));
+    DRIFT("drift", List.of(DIRECTORY, DOMAIN, CLUSTER, FROM_SNAPSHOT, INTERVAL), Collections.emptyList()),
+    DEPLOY("deploy", List.of(DIRECTORY, DOMAIN, DRY_RUN, CLUSTER, FROM_SNAPSHOT, FULL, OUTPUT, ALLOW_DELETE_ACL, ALLOW_DELETE_SUBJECTS, ALLOW_DELETE_TOPICS), Collections.emptyList()),
+    PLAN("plan", List.of(DIRECTORY, DOMAIN, CLUSTER, FROM_SNAPSHOT, KafkaClusterManagerCommandLineProperty.PLAN, ALLOW_DELETE_ACL, ALLOW_DELETE_SUBJECTS, ALLOW_DELETE_TOPICS), Collections.emptyList()),
+    RESTORE("restore", List.of(DIRECTORY, DOMAIN, DRY_RUN, CLUSTER, FROM_SNAPSHOT, OUTPUT), List.of(DOMAIN)),
+    SERVE("serve", List.of(DIRECTORY, DRY_RUN, CLUSTER, FROM_SNAPSHOT, OUTPUT, PORT), Collections.emptyList()),
+    SNAPSHOT("snapshot", List.of(DIRECTORY, CLUSTER), Collections.emptyList()),
+    WATCH("watch", List.of(DIRECTORY, DRY_RUN, CLUSTER, FROM_SNAPSHOT, OUTPUT), Collections.emptyList());
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaClusterManagerCommandLineOption.class);
 
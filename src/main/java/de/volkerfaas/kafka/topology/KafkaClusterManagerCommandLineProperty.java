@@ -19,7 +19,13 @@ public enum KafkaClusterManagerCommandLineProperty implements CommandLinePropert
     ALLOW_DELETE_ACL("allow-delete-acl", Collections.emptyList(), List.of(DOMAIN)),
     ALLOW_DELETE_SUBJECTS("allow-delete-subjects", Collections.emptyList(), List.of(DOMAIN)),
     ALLOW_DELETE_TOPICS("allow-delete-topics", Collections.emptyList(), List.of(DOMAIN)),
-    DRY_RUN("dry-run", Collections.emptyList(), Collections.emptyList())
+    DRY_RUN("dry-run", Collections.emptyList(), Collections.emptyList()),
+    FROM_SNAPSHOT("from-snapshot", Collections.emptyList(), Collections.emptyList()),
+    PLAN("plan", Collections.emptyList(), Collections.emptyList()),
+    FULL("full", Collections.emptyList(), Collections.emptyList()),
+    OUTPUT("output", Collections.emptyList(), Collections.emptyList(), "table"),
+    PORT("port", Collections.emptyList(), Collections.emptyList()),
+    INTERVAL("interval", Collections.emptyList(), Collections.emptyList())
     ;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaClusterManagerCommandLineProperty.class);
@@ -0,0 +1,229 @@
+package de.volkerfaas.kafka.topology;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.ServeProperties;
+import de.volkerfaas.utils.CommandLineArguments;
+import de.volkerfaas.utils.DefaultCommandLineArguments;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static de.volkerfaas.kafka.topology.KafkaClusterManagerCommandLineProperty.*;
+
+/**
+ * Keeps the application context and the clients warm and executes deploy, plan and restore requests received over
+ * HTTP on the loopback interface one after another. The cluster configuration is read again for each request, because
+ * the cluster may have been changed in between.
+ */
+@Component
+public class KafkaClusterManagerServer {
+
+    @FunctionalInterface
+    public interface CommandHandler {
+
+        void execute(CommandLineArguments arguments) throws Exception;
+
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaClusterManagerServer.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Set<KafkaClusterManagerCommandLineOption> COMMANDS = Set.of(KafkaClusterManagerCommandLineOption.DEPLOY, KafkaClusterManagerCommandLineOption.PLAN, KafkaClusterManagerCommandLineOption.RESTORE);
+    private static final List<KafkaClusterManagerCommandLineProperty> SERVER_PROPERTIES = List.of(CLUSTER, DIRECTORY, DRY_RUN, FROM_SNAPSHOT, OUTPUT);
+
+    private final ClientWarmUp clientWarmUp;
+    private final KafkaClusterRepository kafkaClusterRepository;
+    private final ReentrantLock lock;
+    private final PrometheusMeterRegistry meterRegistry;
+    private final ServeProperties properties;
+    private final CountDownLatch stopped;
+    private volatile HttpServer server;
+
+    @Autowired
+    public KafkaClusterManagerServer(final ClientWarmUp clientWarmUp, final KafkaClusterRepository kafkaClusterRepository, final PrometheusMeterRegistry meterRegistry, final ServeProperties properties) {
+        this.clientWarmUp = clientWarmUp;
+        this.kafkaClusterRepository = kafkaClusterRepository;
+        this.lock = new ReentrantLock(true);
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.stopped = new CountDownLatch(1);
+    }
+
+    /**
+     * Blocks until the server is stopped, which happens at the latest when the application context is closed.
+     */
+    public void serve(final CommandLineArguments arguments, final CommandHandler handler) throws IOException, InterruptedException {
+        clientWarmUp.warmUp();
+        final String port = arguments.getPropertyValue(PORT);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            final Thread thread = new Thread(runnable, "serve-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final HttpServer server = HttpServer.create(new InetSocketAddress(properties.getHost(), Objects.nonNull(port) ? Integer.parseInt(port) : properties.getPort()), 0);
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> respond(exchange, 200, Map.of("status", "up")));
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext("/", exchange -> handleCommand(exchange, arguments, handler));
+        server.start();
+        this.server = server;
+        LOGGER.info("Serving deploy, plan and restore requests on http://{}:{}", properties.getHost(), server.getAddress().getPort());
+        try {
+            stopped.await();
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+            LOGGER.info("Server has been stopped");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped.countDown();
+    }
+
+    public InetSocketAddress getAddress() {
+        final HttpServer server = this.server;
+
+        return Objects.isNull(server) ? null : server.getAddress();
+    }
+
+    /**
+     * Builds the arguments of a request from the query parameters, e.g. {@code POST /deploy?domain=de.volkerfaas.arc&full}
+     * becomes {@code deploy --domain=de.volkerfaas.arc --full}. Cluster, directory, dry-run, snapshot and output are
+     * taken from the arguments of the server, because the context has been configured with them.
+     */
+    public List<String> createArguments(final String command, final String query, final CommandLineArguments serverArguments) throws IllegalCommandLineArgumentException {
+        final KafkaClusterManagerCommandLineOption option = KafkaClusterManagerCommandLineOption.valueByName(command);
+        final List<String> args = new ArrayList<>();
+        args.add(command);
+        for (final String parameter : Objects.requireNonNullElse(query, "").split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            final int index = parameter.indexOf('=');
+            final String name = URLDecoder.decode(index < 0 ? parameter : parameter.substring(0, index), StandardCharsets.UTF_8);
+            final String value = index < 0 ? null : URLDecoder.decode(parameter.substring(index + 1), StandardCharsets.UTF_8);
+            final KafkaClusterManagerCommandLineProperty property = KafkaClusterManagerCommandLineProperty.valueByName(name);
+            if (Objects.isNull(property)) {
+                LOGGER.error("Flag '--{}' is unknown", name);
+                throw new IllegalCommandLineArgumentException();
+            }
+            if (SERVER_PROPERTIES.contains(property)) {
+                if (property == CLUSTER && Objects.equals(value, serverArguments.getPropertyValue(CLUSTER))) {
+                    continue;
+                }
+                LOGGER.error("Flag '--{}' is set by the server and cannot be changed per request", name);
+                throw new IllegalCommandLineArgumentException();
+            }
+            args.add(Objects.isNull(value) ? "--" + name : "--" + name + "=" + value);
+        }
+        for (final KafkaClusterManagerCommandLineProperty property : SERVER_PROPERTIES) {
+            if (option.isAllowedProperty(property.getName()) && (serverArguments.containsProperty(property) || Objects.nonNull(property.getDefaultValue()))) {
+                final String value = serverArguments.getPropertyValue(property);
+                args.add(Objects.isNull(value) || value.isEmpty() ? "--" + property.getName() : "--" + property.getName() + "=" + value);
+            }
+        }
+        final Set<String> propertyNames = new DefaultCommandLineArguments(args.toArray(String[]::new)).getPropertyNames();
+        final boolean valid = KafkaClusterManagerCommandLineOption.isValid(command, propertyNames) && propertyNames.stream()
+                .allMatch(propertyName -> KafkaClusterManagerCommandLineProperty.isValid(propertyName, propertyNames));
+        if (!valid) {
+            throw new IllegalCommandLineArgumentException();
+        }
+
+        return args;
+    }
+
+    private void handleCommand(final HttpExchange exchange, final CommandLineArguments serverArguments, final CommandHandler handler) throws IOException {
+        final String command = exchange.getRequestURI().getPath().replaceFirst("^/", "");
+        final KafkaClusterManagerCommandLineOption option = KafkaClusterManagerCommandLineOption.valueByName(command);
+        if (Objects.isNull(option) || !COMMANDS.contains(option)) {
+            respond(exchange, 404, Map.of("command", command, "status", "failure", "error", "Command '" + command + "' is not supported, use one of deploy, plan or restore"));
+            return;
+        }
+        if (!Objects.equals("POST", exchange.getRequestMethod())) {
+            respond(exchange, 405, Map.of("command", command, "status", "failure", "error", "Method " + exchange.getRequestMethod() + " is not allowed"));
+            return;
+        }
+        final long startedAt = System.nanoTime();
+        int status = 200;
+        String error = null;
+        try {
+            final List<String> args = createArguments(command, exchange.getRequestURI().getRawQuery(), serverArguments);
+            LOGGER.info("Executing request '{}'", String.join(" ", args));
+            lock.lockInterruptibly();
+            try {
+                kafkaClusterRepository.refreshClusterConfiguration();
+                handler.execute(new DefaultCommandLineArguments(args.toArray(String[]::new)));
+            } finally {
+                lock.unlock();
+            }
+        } catch (IllegalCommandLineArgumentException e) {
+            status = 400;
+            error = "Invalid flags";
+        } catch (IllegalTopologyException e) {
+            status = 422;
+            error = "Invalid topology";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 503;
+            error = "Server is shutting down";
+        } catch (Exception e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.error("{}", e.getMessage(), e);
+            } else {
+                LOGGER.error("{}", e.getMessage());
+            }
+            status = 500;
+            error = Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName());
+        }
+        final Map<String, Object> response = new LinkedHashMap<>();
+        response.put("command", command);
+        response.put("status", status == 200 ? "success" : "failure");
+        response.put("duration", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        if (Objects.nonNull(error)) {
+            response.put("error", error);
+        }
+        respond(exchange, status, response);
+    }
+
+    private void handleMetrics(final HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", TextFormat.CONTENT_TYPE_004);
+        respond(exchange, 200, meterRegistry.scrape().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final Map<String, ?> body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        respond(exchange, status, OBJECT_MAPPER.writeValueAsBytes(body));
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final byte[] body) throws IOException {
+        try (final OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, body.length);
+            out.write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package de.volkerfaas.kafka.topology;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.MetricsProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Writes all meters as JSON report and in Prometheus text format into the metrics directory, once when the
+ * application is closed and after every drift check.
+ */
+@Component
+public class MetricsWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsWriter.class);
+
+    private final PrometheusMeterRegistry meterRegistry;
+    private final MetricsProperties properties;
+
+    @Autowired
+    public MetricsWriter(final PrometheusMeterRegistry meterRegistry, final MetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    public void writeMetrics() {
+        if (!properties.isEnabled() || Objects.isNull(properties.getDirectory()) || meterRegistry.getMeters().isEmpty()) {
+            return;
+        }
+        final Path directory = Path.of(properties.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            LOGGER.debug("Metrics are not written, because directory '{}' doesn't exist", directory);
+            return;
+        }
+        try {
+            if (Objects.nonNull(properties.getJsonFilename())) {
+                try (final Writer writer = Files.newBufferedWriter(directory.resolve(properties.getJsonFilename()), StandardCharsets.UTF_8)) {
+                    writeJson(writer);
+                }
+            }
+            if (Objects.nonNull(properties.getPrometheusFilename())) {
+                try (final Writer writer = Files.newBufferedWriter(directory.resolve(properties.getPrometheusFilename()), StandardCharsets.UTF_8)) {
+                    meterRegistry.scrape(writer);
+                }
+            }
+            LOGGER.debug("Metrics have been written to '{}'", directory);
+        } catch (IOException e) {
+            LOGGER.warn("Metrics couldn't be written to '{}': {}", directory, e.getMessage());
+        }
+    }
+
+    private void writeJson(final Writer writer) throws IOException {
+        final List<Map<String, Object>> report = meterRegistry.getMeters().stream()
+                .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName()).thenComparing(meter -> meter.getId().getTags().toString()))
+                .map(meter -> {
+                    final Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("name", meter.getId().getName());
+                    entry.put("type", meter.getId().getType().name().toLowerCase(Locale.ROOT));
+                    entry.put("tags", meter.getId().getTags().stream().collect(Collectors.toMap(Tag::getKey, Tag::getValue, (first, second) -> second, TreeMap::new)));
+                    final Map<String, Double> measurements = new LinkedHashMap<>();
+                    meter.measure().forEach(measurement -> measurements.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue()));
+                    entry.put("measurements", measurements);
+                    return entry;
+                })
+                .collect(Collectors.toList());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(writer, Map.of("meters", report));
+    }
+
+}
@@ -0,0 +1,198 @@
+package de.volkerfaas.kafka.topology;
+
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.WatchProperties;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
+import de.volkerfaas.kafka.topology.services.TopologyDeployService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.volkerfaas.kafka.topology.ApplicationConfiguration.*;
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the topology files, their configuration files in "config" and the schema files in "events" and hands the
+ * domains affected by a burst of changes over to the handler together with the parsed topologies, which are kept in
+ * memory and re-read only for the affected domains.
+ */
+@Component
+public class TopologyWatcher {
+
+    @FunctionalInterface
+    public interface ChangeHandler {
+
+        void deploy(Collection<TopologyFile> topologies, Collection<String> domainNames) throws Exception;
+
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TopologyWatcher.class);
+    private static final String CONFIG_DIRECTORY = "config";
+    private static final Pattern PATTERN_CONFIG_FILENAME = Pattern.compile("config\\-" + REGEX_DOMAIN + "\\.yaml");
+    private static final Pattern PATTERN_DOMAIN = Pattern.compile(REGEX_DOMAIN);
+    private static final Pattern PATTERN_TOPOLOGY_FILENAME = Pattern.compile(REGEX_TOPOLOGY_FILENAME);
+
+    private final WatchProperties properties;
+    private final TopologyDeployService topologyDeployService;
+    private final Map<String, TopologyFile> topologies;
+    private volatile boolean stopped;
+    private volatile WatchService watchService;
+
+    @Autowired
+    public TopologyWatcher(final TopologyDeployService topologyDeployService, final WatchProperties properties) {
+        this.properties = properties;
+        this.topologyDeployService = topologyDeployService;
+        this.topologies = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Hands all topologies over once and then every burst of changes, which is complete as soon as no further change
+     * has been seen for the debounce duration. Blocks until the watcher is stopped.
+     */
+    public void watch(final String directory, final ChangeHandler handler) throws IOException, InterruptedException {
+        final Path base = Path.of(directory).toAbsolutePath();
+        try (final WatchService watchService = base.getFileSystem().newWatchService()) {
+            this.watchService = watchService;
+            register(watchService, base);
+            topologyDeployService.listTopologies(base.toString()).stream()
+                    .filter(topology -> Objects.nonNull(topology.getDomain()))
+                    .forEach(topology -> topologies.put(topology.getDomain().getName(), topology));
+            handle(handler, Collections.emptySet());
+            LOGGER.info("Watching directory '{}' for changes", base);
+            while (!stopped) {
+                final Set<String> domainNames = reload(base, awaitChanges(watchService, base));
+                if (!domainNames.isEmpty()) {
+                    handle(handler, domainNames);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.debug("Watch service has been closed");
+        } finally {
+            this.watchService = null;
+        }
+        LOGGER.info("Watcher has been stopped");
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        this.stopped = true;
+        final WatchService watchService = this.watchService;
+        if (Objects.nonNull(watchService)) {
+            watchService.close();
+        }
+    }
+
+    public Collection<TopologyFile> getTopologies() {
+        return List.copyOf(topologies.values());
+    }
+
+    public String getDomainName(final Path base, final Path file) {
+        final Path path = base.relativize(file);
+        final int nameCount = path.getNameCount();
+        final Matcher matcher;
+        if (nameCount == 1) {
+            matcher = PATTERN_TOPOLOGY_FILENAME.matcher(path.toString());
+        } else if (nameCount == 2 && Objects.equals(CONFIG_DIRECTORY, path.getName(0).toString())) {
+            matcher = PATTERN_CONFIG_FILENAME.matcher(path.getName(1).toString());
+        } else if (nameCount >= 2 && Objects.equals(EVENTS_DIRECTORY, path.getName(0).toString())) {
+            matcher = PATTERN_DOMAIN.matcher(path.getName(1).toString());
+        } else {
+            return null;
+        }
+
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private Set<String> awaitChanges(final WatchService watchService, final Path base) throws IOException, InterruptedException {
+        final Set<String> domainNames = new TreeSet<>();
+        WatchKey key = watchService.take();
+        while (Objects.nonNull(key)) {
+            final Path directory = (Path) key.watchable();
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    LOGGER.warn("Changes in directory '{}' have been lost, all domains are reloaded", directory);
+                    domainNames.addAll(topologies.keySet());
+                    topologyDeployService.listTopologies(base.toString()).stream()
+                            .filter(topology -> Objects.nonNull(topology.getDomain()))
+                            .forEach(topology -> domainNames.add(topology.getDomain().getName()));
+                    continue;
+                }
+                final Path file = directory.resolve((Path) event.context());
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(file)) {
+                    register(watchService, file);
+                }
+                final String domainName = getDomainName(base, file);
+                if (Objects.nonNull(domainName)) {
+                    domainNames.add(domainName);
+                }
+            }
+            key.reset();
+            key = watchService.poll(properties.getDebounce().toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return domainNames;
+    }
+
+    private void handle(final ChangeHandler handler, final Set<String> domainNames) throws InterruptedException {
+        try {
+            handler.deploy(getTopologies(), domainNames);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (IllegalTopologyException e) {
+            LOGGER.error("Topology is invalid and is deployed again after the next change");
+        } catch (Exception e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.error("{}", e.getMessage(), e);
+            } else {
+                LOGGER.error("{}", e.getMessage());
+            }
+        }
+    }
+
+    private void register(final WatchService watchService, final Path directory) throws IOException {
+        final List<Path> directories;
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            directories = paths.filter(Files::isDirectory).collect(Collectors.toUnmodifiableList());
+        }
+        for (final Path path : directories) {
+            path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            LOGGER.debug("Directory '{}' is watched", path);
+        }
+    }
+
+    private Set<String> reload(final Path base, final Set<String> domainNames) {
+        final Set<String> reloadedDomainNames = new TreeSet<>();
+        for (final String domainName : domainNames) {
+            final Path file = base.resolve("topology-" + domainName + ".yaml");
+            if (!Files.isRegularFile(file)) {
+                topologies.remove(domainName);
+                LOGGER.info("Domain '{}' has been removed from the topology", domainName);
+                continue;
+            }
+            try {
+                final TopologyFile topology = topologyDeployService.readTopology(file.toString());
+                if (Objects.nonNull(topology)) {
+                    topologies.put(domainName, topology);
+                    reloadedDomainNames.add(domainName);
+                    LOGGER.info("Domain '{}' has been changed", domainName);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Domain '{}' is skipped until the next change: {}", domainName, e.getMessage());
+            }
+        }
+
+        return reloadedDomainNames;
+    }
+
+}
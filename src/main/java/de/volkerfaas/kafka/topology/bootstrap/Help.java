@@ -12,10 +12,21 @@ public class Help {
             "  java -jar kafka-cluster-manager.jar [command] [flags]" + System.lineSeparator() +
             System.lineSeparator() +
             "Available commands:" + System.lineSeparator() +
+            "  apply                      Applies a deployment plan written by command plan to cluster." + System.lineSeparator() +
             "  create                     Create a new domain incl. service account and API keys." + System.lineSeparator() +
             "  deploy                     Deploy entire topology to cluster." + System.lineSeparator() +
+            "  drift                      Writes the differences between cluster and topology into file \"drift-[cluster].json\" without changing anything." + System.lineSeparator() +
+            "  plan                       Writes the changes to deploy the topology into a deployment plan file." + System.lineSeparator() +
             "  restore                    Restores the domains listed with flag --domain into file \"topology-[domain].yaml\"" + System.lineSeparator() +
+            "  serve                      Keeps clients warm and executes deploy, plan and restore requests received over HTTP" + System.lineSeparator() +
+            "  snapshot                   Writes the configuration of the cluster into file \"snapshot-[cluster-id].bin\"" + System.lineSeparator() +
+            "  watch                      Deploys the domains whose topology, configuration or schema files change, until stopped" + System.lineSeparator() +
             System.lineSeparator() +
+            "Available flags for command apply:" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
+            "  --plan=[file]              Deployment plan file to be applied. Refused for another cluster or changed schema files" + System.lineSeparator() +
+            "  --dry-run                  Makes no changes to the remote topology" + System.lineSeparator() +
+            "  --output=[table|json]      Prints tables (default) or streams one JSON line per operation to stdout and logs to stderr" + System.lineSeparator() +
             "Available flags for command create:" + System.lineSeparator() +
             "  --directory=[directory]    Set base directory for topology files. Default is \"topology\"." + System.lineSeparator() +
             "  --domain=[domain]          Domain to be created" + System.lineSeparator() +
@@ -24,16 +35,48 @@ public class Help {
             "  --maintainer-email=[name]  E-Mail of maintainer for given domain" + System.lineSeparator() +
             "  --dry-run                  Makes no changes to the local topology" + System.lineSeparator() +
             "Available flags for command deploy:" + System.lineSeparator() +
-            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration. Processes comma separated clusters concurrently" + System.lineSeparator() +
             "  --domain=[domain]          Processes only a single domain" + System.lineSeparator() +
+            "  --from-snapshot=[file]     Reads the cluster configuration from a snapshot file instead of the cluster. Only with --dry-run" + System.lineSeparator() +
+            "  --full                     Deploys all domains, including those unchanged since the last deploy according to \"manifest-[cluster].yaml\"" + System.lineSeparator() +
             "  --allow-delete-acl         Allow deletion of orphaned ACLs. Cannot be used in combination with flag --domain. (DO NOT USE IN PRODUCTION!)" + System.lineSeparator() +
             "  --allow-delete-topics      Allow deletion of orphaned topics. Cannot be used in combination with flag --domain. (DO NOT USE IN PRODUCTION!)" + System.lineSeparator() +
             "  --allow-delete-subjects    Allow deletion of orphaned subjects. Cannot be used in combination with flag --domain. (DO NOT USE IN PRODUCTION!)" + System.lineSeparator() +
             "  --dry-run                  Makes no changes to the remote topology" + System.lineSeparator() +
+            "  --output=[table|json]      Prints tables (default) or streams one JSON line per operation to stdout and logs to stderr" + System.lineSeparator() +
+            "Available flags for command drift:" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
+            "  --domain=[domain]          Processes only a single domain" + System.lineSeparator() +
+            "  --from-snapshot=[file]     Reads the cluster configuration from a snapshot file instead of the cluster. Not in combination with --interval" + System.lineSeparator() +
+            "  --interval=[duration]      Checks again after each interval, e.g. 5m, until stopped" + System.lineSeparator() +
+            "Available flags for command plan:" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration. Processes comma separated clusters concurrently" + System.lineSeparator() +
+            "  --domain=[domain]          Processes only a single domain" + System.lineSeparator() +
+            "  --from-snapshot=[file]     Reads the cluster configuration from a snapshot file instead of the cluster" + System.lineSeparator() +
+            "  --plan=[file]              Sets the deployment plan file. Default is \"[directory]/plan-[cluster].bin\"." + System.lineSeparator() +
+            "  --allow-delete-acl         Allow deletion of orphaned ACLs. Cannot be used in combination with flag --domain. (DO NOT USE IN PRODUCTION!)" + System.lineSeparator() +
+            "  --allow-delete-topics      Allow deletion of orphaned topics. Cannot be used in combination with flag --domain. (DO NOT USE IN PRODUCTION!)" + System.lineSeparator() +
+            "  --allow-delete-subjects    Allow deletion of orphaned subjects. Cannot be used in combination with flag --domain. (DO NOT USE IN PRODUCTION!)" + System.lineSeparator() +
             "Available flags for command restore:" + System.lineSeparator() +
             "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
             "  --domain=[domain]          Processes only a single domain" + System.lineSeparator() +
+            "  --from-snapshot=[file]     Reads the cluster configuration from a snapshot file instead of the cluster. Only with --dry-run" + System.lineSeparator() +
             "  --dry-run                  Makes no changes to the local topology" + System.lineSeparator() +
+            "  --output=[table|json]      Prints tables (default) or streams one JSON line per operation to stdout and logs to stderr" + System.lineSeparator() +
+            "Available flags for command serve:" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
+            "  --from-snapshot=[file]     Reads the cluster configuration from a snapshot file instead of the cluster. Only with --dry-run" + System.lineSeparator() +
+            "  --port=[port]              Sets the port on the loopback interface. Default is 8642." + System.lineSeparator() +
+            "  --dry-run                  Makes no changes to the remote topology for all requests" + System.lineSeparator() +
+            "  --output=[table|json]      Prints tables (default) or streams one JSON line per operation to stdout and logs to stderr" + System.lineSeparator() +
+            "Available flags for command snapshot:" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
+            "  --directory=[directory]    Set directory for the snapshot file. Default is \"topology\"." + System.lineSeparator() +
+            "Available flags for command watch:" + System.lineSeparator() +
+            "  --cluster=[cluster]        Sets the cluster and uses conf/[cluster].yaml or environment variables as configuration" + System.lineSeparator() +
+            "  --from-snapshot=[file]     Reads the cluster configuration from a snapshot file instead of the cluster. Only with --dry-run" + System.lineSeparator() +
+            "  --dry-run                  Makes no changes to the remote topology" + System.lineSeparator() +
+            "  --output=[table|json]      Prints tables (default) or streams one JSON line per operation to stdout and logs to stderr" + System.lineSeparator() +
             System.lineSeparator() +
             "  --help                     Show help." + System.lineSeparator() +
             System.lineSeparator() +
@@ -48,6 +91,24 @@ public class Help {
             "    → Uploads only domain [domain] of topology to the cluster [cluster]." + System.lineSeparator() +
             "  java -jar kafka-cluster-manager.jar deploy --cluster=[cluster] --dry-run" + System.lineSeparator() +
             "    → Executes without making changes to the cluster [cluster]." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar deploy --cluster=[cluster] --full" + System.lineSeparator() +
+            "    → Uploads entire topology to the cluster [cluster], even domains unchanged since the last deploy." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar deploy --cluster=[cluster],[cluster]" + System.lineSeparator() +
+            "    → Uploads entire topology to all clusters concurrently and reports the result of each cluster." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar snapshot --cluster=[cluster]" + System.lineSeparator() +
+            "    → Writes the configuration of the cluster [cluster] into a snapshot file." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar deploy --cluster=[cluster] --from-snapshot=[file] --dry-run" + System.lineSeparator() +
+            "    → Plans the deployment against the snapshot file without connecting to the cluster [cluster]." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar drift --cluster=[cluster] --interval=15m" + System.lineSeparator() +
+            "    → Reports changes made to the cluster [cluster] outside of the topology every 15 minutes." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar plan --cluster=[cluster] --plan=[file]" + System.lineSeparator() +
+            "    → Writes the changes to deploy the topology to the cluster [cluster] into the plan file [file]." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar apply --cluster=[cluster] --plan=[file]" + System.lineSeparator() +
+            "    → Applies the plan file [file] to the cluster [cluster] without reading the topology again." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar serve --cluster=[cluster]" + System.lineSeparator() +
+            "    → Serves POST http://127.0.0.1:8642/deploy?domain=[domain] and keeps the clients for the cluster [cluster] warm." + System.lineSeparator() +
+            "  java -jar kafka-cluster-manager.jar watch --cluster=[cluster] --dry-run" + System.lineSeparator() +
+            "    → Shows the changes to the cluster [cluster] whenever a file of a domain is saved." + System.lineSeparator() +
             "  java -jar kafka-cluster-manager.jar restore --cluster=[cluster] --domain[domain]" + System.lineSeparator() +
             "    → Downloads domain [domain] from the cluster [cluster] to a local topology file." + System.lineSeparator() +
             "  java -jar kafka-cluster-manager.jar restore --cluster=[cluster] --domain[domain] --dry-run" + System.lineSeparator() +
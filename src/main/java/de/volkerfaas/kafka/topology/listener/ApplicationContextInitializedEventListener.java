@@ -1,10 +1,12 @@
 package de.volkerfaas.kafka.topology.listener;
 
+import de.volkerfaas.kafka.topology.ApplicationExitException;
 import de.volkerfaas.kafka.topology.bootstrap.Bootstrap;
 import de.volkerfaas.kafka.topology.bootstrap.Help;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
 
 public class ApplicationContextInitializedEventListener implements ApplicationListener<ApplicationContextInitializedEvent> {
 
@@ -12,8 +14,9 @@ public class ApplicationContextInitializedEventListener implements ApplicationLi
     public void onApplicationEvent(@NotNull final ApplicationContextInitializedEvent event) {
         final String[] args = event.getArgs();
         final boolean helpResult = Help.init(args).handleArgumentHelp().result();
+        final Environment environment = event.getApplicationContext().getEnvironment();
         if (helpResult) {
-            System.exit(0);
+            exit(environment, 0);
         }
 
         final boolean bootstrapResult = Bootstrap.init(args)
@@ -21,8 +24,15 @@ public class ApplicationContextInitializedEventListener implements ApplicationLi
                 .handleArgumentDirectory()
                 .result();
         if (!bootstrapResult) {
-            System.exit(1);
+            exit(environment, 1);
         }
     }
 
+    private void exit(final Environment environment, final int exitCode) {
+        if (environment.containsProperty("cluster-group")) {
+            throw new ApplicationExitException(exitCode);
+        }
+        System.exit(exitCode);
+    }
+
 }
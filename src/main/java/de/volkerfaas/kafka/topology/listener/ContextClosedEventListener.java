@@ -0,0 +1,25 @@
+package de.volkerfaas.kafka.topology.listener;
+
+import de.volkerfaas.kafka.topology.MetricsWriter;
+import de.volkerfaas.utils.InstrumentedCacheManager;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ContextClosedEventListener implements ApplicationListener<ContextClosedEvent> {
+
+    @Override
+    public void onApplicationEvent(@NotNull final ContextClosedEvent event) {
+        final ApplicationContext context = event.getApplicationContext();
+        final CacheManager cacheManager = context.getBean(CacheManager.class);
+        if (cacheManager instanceof InstrumentedCacheManager) {
+            ((InstrumentedCacheManager) cacheManager).logStatistics();
+        }
+        context.getBean(MetricsWriter.class).writeMetrics();
+    }
+
+}
@@ -1,5 +1,6 @@
 package de.volkerfaas.kafka.topology.listener;
 
+import de.volkerfaas.kafka.topology.ApplicationExitException;
 import de.volkerfaas.kafka.topology.bootstrap.PropertiesValidation;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.boot.SpringApplication;
@@ -22,6 +23,9 @@ public class ContextRefreshedEventListener implements ApplicationListener<Contex
         if (!Objects.equals("local", cluster)) {
             final boolean result = PropertiesValidation.init(environment).validateProperties().result();
             if (!result) {
+                if (environment.containsProperty("cluster-group")) {
+                    throw new ApplicationExitException(1);
+                }
                 System.exit(SpringApplication.exit(context, () -> 1));
             }
         }
@@ -0,0 +1,102 @@
+package de.volkerfaas.kafka.topology.model;
+
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.config.ConfigResource;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+public class DeploymentPlan {
+
+    private final String cluster;
+    private final Instant createdAt;
+    private final Collection<Schema> schemas;
+    private final Map<String, String> schemaFingerprints;
+    private final Collection<NewTopic> newTopics;
+    private final Collection<AclBinding> newAclBindings;
+    private final Map<String, NewPartitions> newPartitions;
+    private final Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOperations;
+    private final Collection<AclBindingFilter> orphanedAclBindings;
+    private final Collection<String> orphanedTopics;
+    private final Collection<String> orphanedSubjects;
+
+    public DeploymentPlan(String cluster, Instant createdAt, Collection<Schema> schemas, Map<String, String> schemaFingerprints, Collection<NewTopic> newTopics, Collection<AclBinding> newAclBindings, Map<String, NewPartitions> newPartitions, Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOperations, Collection<AclBindingFilter> orphanedAclBindings, Collection<String> orphanedTopics, Collection<String> orphanedSubjects) {
+        this.cluster = cluster;
+        this.createdAt = createdAt;
+        this.schemas = schemas;
+        this.schemaFingerprints = schemaFingerprints;
+        this.newTopics = newTopics;
+        this.newAclBindings = newAclBindings;
+        this.newPartitions = newPartitions;
+        this.alterConfigOperations = alterConfigOperations;
+        this.orphanedAclBindings = orphanedAclBindings;
+        this.orphanedTopics = orphanedTopics;
+        this.orphanedSubjects = orphanedSubjects;
+    }
+
+    public String getCluster() {
+        return cluster;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Collection<Schema> getSchemas() {
+        return schemas;
+    }
+
+    public Map<String, String> getSchemaFingerprints() {
+        return schemaFingerprints;
+    }
+
+    public Collection<NewTopic> getNewTopics() {
+        return newTopics;
+    }
+
+    public Collection<AclBinding> getNewAclBindings() {
+        return newAclBindings;
+    }
+
+    public Map<String, NewPartitions> getNewPartitions() {
+        return newPartitions;
+    }
+
+    public Map<ConfigResource, Collection<AlterConfigOp>> getAlterConfigOperations() {
+        return alterConfigOperations;
+    }
+
+    public Collection<AclBindingFilter> getOrphanedAclBindings() {
+        return orphanedAclBindings;
+    }
+
+    public Collection<String> getOrphanedTopics() {
+        return orphanedTopics;
+    }
+
+    public Collection<String> getOrphanedSubjects() {
+        return orphanedSubjects;
+    }
+
+    @Override
+    public String toString() {
+        return "DeploymentPlan{" +
+                "cluster='" + cluster + '\'' +
+                ", createdAt=" + createdAt +
+                ", schemas=" + schemas.size() +
+                ", newTopics=" + newTopics.size() +
+                ", newAclBindings=" + newAclBindings.size() +
+                ", newPartitions=" + newPartitions.size() +
+                ", alterConfigOperations=" + alterConfigOperations.size() +
+                ", orphanedAclBindings=" + orphanedAclBindings.size() +
+                ", orphanedTopics=" + orphanedTopics.size() +
+                ", orphanedSubjects=" + orphanedSubjects.size() +
+                '}';
+    }
+
+}
@@ -0,0 +1,74 @@
+package de.volkerfaas.kafka.topology.model;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class DriftReport {
+
+    private String cluster;
+    private String checkedAt;
+    private Map<String, Map<String, Collection<String>>> domains;
+
+    public DriftReport() {
+        this(null, null, new TreeMap<>());
+    }
+
+    public DriftReport(String cluster, String checkedAt, Map<String, Map<String, Collection<String>>> domains) {
+        this.cluster = cluster;
+        this.checkedAt = checkedAt;
+        this.domains = new TreeMap<>(domains);
+    }
+
+    public String getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(String cluster) {
+        this.cluster = cluster;
+    }
+
+    public String getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(String checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+
+    public Map<String, Map<String, Integer>> getCounts() {
+        final Map<String, Map<String, Integer>> counts = new TreeMap<>();
+        domains.forEach((domainName, resources) -> {
+            final Map<String, Integer> countsOfDomain = new TreeMap<>();
+            resources.forEach((type, names) -> countsOfDomain.put(type, names.size()));
+            counts.put(domainName, countsOfDomain);
+        });
+
+        return counts;
+    }
+
+    public Map<String, Map<String, Collection<String>>> getDomains() {
+        return domains;
+    }
+
+    public void setDomains(Map<String, Map<String, Collection<String>>> domains) {
+        this.domains = new TreeMap<>(domains);
+    }
+
+    public int getTotal() {
+        return domains.values().stream()
+                .flatMap(resources -> resources.values().stream())
+                .mapToInt(Collection::size)
+                .sum();
+    }
+
+    @Override
+    public String toString() {
+        return "DriftReport{" +
+                "cluster='" + cluster + "'," +
+                "checkedAt=" + checkedAt + "," +
+                "total=" + getTotal() +
+                '}';
+    }
+
+}
@@ -0,0 +1,44 @@
+package de.volkerfaas.kafka.topology.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class Manifest {
+
+    private String cluster;
+    private Map<String, Map<String, String>> domains;
+
+    public Manifest() {
+        this(null, new TreeMap<>());
+    }
+
+    public Manifest(String cluster, Map<String, Map<String, String>> domains) {
+        this.cluster = cluster;
+        this.domains = new TreeMap<>(domains);
+    }
+
+    public String getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(String cluster) {
+        this.cluster = cluster;
+    }
+
+    public Map<String, Map<String, String>> getDomains() {
+        return domains;
+    }
+
+    public void setDomains(Map<String, Map<String, String>> domains) {
+        this.domains = new TreeMap<>(domains);
+    }
+
+    @Override
+    public String toString() {
+        return "Manifest{" +
+                "cluster='" + cluster + "'," +
+                "domains=" + domains.keySet() +
+                '}';
+    }
+
+}
@@ -0,0 +1,118 @@
+package de.volkerfaas.kafka.topology.model;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public class SchemaFingerprints {
+
+    public static class Subject {
+
+        private String fingerprint;
+        private Integer version;
+        private String compatibilityMode;
+        private String verifiedAt;
+
+        public Subject() {
+            this(null, null, null);
+        }
+
+        public Subject(String fingerprint, Integer version, String compatibilityMode) {
+            this(fingerprint, version, compatibilityMode, null);
+        }
+
+        public Subject(String fingerprint, Integer version, String compatibilityMode, String verifiedAt) {
+            this.fingerprint = fingerprint;
+            this.version = version;
+            this.compatibilityMode = compatibilityMode;
+            this.verifiedAt = verifiedAt;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public Integer getVersion() {
+            return version;
+        }
+
+        public void setVersion(Integer version) {
+            this.version = version;
+        }
+
+        public String getCompatibilityMode() {
+            return compatibilityMode;
+        }
+
+        public void setCompatibilityMode(String compatibilityMode) {
+            this.compatibilityMode = compatibilityMode;
+        }
+
+        public String getVerifiedAt() {
+            return verifiedAt;
+        }
+
+        public void setVerifiedAt(String verifiedAt) {
+            this.verifiedAt = verifiedAt;
+        }
+
+        public boolean matches(String fingerprint, String compatibilityMode) {
+            return Objects.nonNull(fingerprint)
+                    && Objects.equals(this.fingerprint, fingerprint)
+                    && Objects.equals(this.compatibilityMode, compatibilityMode);
+        }
+
+    }
+
+    private String cluster;
+    private String verifiedAt;
+    private Map<String, Subject> subjects;
+
+    public SchemaFingerprints() {
+        this(null, null, new TreeMap<>());
+    }
+
+    public SchemaFingerprints(String cluster, String verifiedAt, Map<String, Subject> subjects) {
+        this.cluster = cluster;
+        this.verifiedAt = verifiedAt;
+        this.subjects = new TreeMap<>(subjects);
+    }
+
+    public String getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(String cluster) {
+        this.cluster = cluster;
+    }
+
+    public String getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(String verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+
+    public Map<String, Subject> getSubjects() {
+        return subjects;
+    }
+
+    public void setSubjects(Map<String, Subject> subjects) {
+        this.subjects = new TreeMap<>(subjects);
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaFingerprints{" +
+                "cluster='" + cluster + "'," +
+                "verifiedAt='" + verifiedAt + "'," +
+                "subjects=" + subjects.keySet() +
+                '}';
+    }
+
+}
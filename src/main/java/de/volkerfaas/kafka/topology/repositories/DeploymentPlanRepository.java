@@ -0,0 +1,13 @@
+package de.volkerfaas.kafka.topology.repositories;
+
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface DeploymentPlanRepository {
+
+    DeploymentPlan readPlan(String pathname) throws IOException;
+    File writePlan(DeploymentPlan plan, String pathname) throws IOException;
+
+}
@@ -0,0 +1,12 @@
+package de.volkerfaas.kafka.topology.repositories;
+
+import de.volkerfaas.kafka.topology.model.DriftReport;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface DriftReportRepository {
+
+    File writeReport(DriftReport report, String pathname) throws IOException;
+
+}
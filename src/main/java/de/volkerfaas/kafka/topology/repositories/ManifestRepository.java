@@ -0,0 +1,13 @@
+package de.volkerfaas.kafka.topology.repositories;
+
+import de.volkerfaas.kafka.topology.model.Manifest;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface ManifestRepository {
+
+    Manifest readManifest(String pathname) throws IOException;
+    File writeManifest(Manifest manifest, String pathname) throws IOException;
+
+}
@@ -0,0 +1,13 @@
+package de.volkerfaas.kafka.topology.repositories;
+
+import de.volkerfaas.kafka.topology.model.SchemaFingerprints;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface SchemaFingerprintRepository {
+
+    SchemaFingerprints readFingerprints(String pathname) throws IOException;
+    File writeFingerprints(SchemaFingerprints fingerprints, String pathname) throws IOException;
+
+}
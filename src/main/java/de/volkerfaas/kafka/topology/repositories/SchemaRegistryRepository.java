@@ -5,14 +5,16 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 
 public interface SchemaRegistryRepository {
 
     void deleteSubjects(Collection<String> subjects);
     void downloadSchemas(final Collection<Schema> schemas, final String directory);
     String getCompatibilityMode(String subject) throws IOException, RestClientException;
+    String getFingerprint(Schema schema, String directory) throws IOException, SchemaRegistryException;
     String getSchemaType(String subject) throws IOException, RestClientException;
     Collection<String> listSubjects() throws IOException, RestClientException;
-    void registerSchemas(Collection<Schema> schemaFiles, String directory);
+    Map<String, Integer> registerSchemas(Collection<Schema> schemaFiles, String directory);
 
 }
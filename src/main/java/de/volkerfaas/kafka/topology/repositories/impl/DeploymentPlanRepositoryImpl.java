@@ -0,0 +1,219 @@
+package de.volkerfaas.kafka.topology.repositories.impl;
+
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
+import de.volkerfaas.kafka.topology.model.Schema;
+import de.volkerfaas.kafka.topology.repositories.DeploymentPlanRepository;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.*;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.resource.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static de.volkerfaas.utils.BinaryCodec.*;
+
+@Repository
+public class DeploymentPlanRepositoryImpl implements DeploymentPlanRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeploymentPlanRepositoryImpl.class);
+    private static final int MAGIC = 0x4B434D50;
+    private static final int VERSION = 3;
+
+    @Override
+    public DeploymentPlan readPlan(final String pathname) throws IOException {
+        try (final DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(Path.of(pathname)))))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IllegalArgumentException("File '" + pathname + "' is not a deployment plan.");
+            }
+            final String cluster = input.readUTF();
+            final Instant createdAt = Instant.ofEpochMilli(input.readLong());
+            final DeploymentPlan plan = new DeploymentPlan(cluster, createdAt,
+                    readSchemas(input),
+                    readStringMap(input),
+                    readNewTopics(input),
+                    readAclBindings(input),
+                    readNewPartitions(input),
+                    readAlterConfigOperations(input),
+                    readAclBindingFilters(input),
+                    readStrings(input),
+                    readStrings(input));
+            LOGGER.info("Read deployment plan for cluster '{}' from file '{}' created at {}", cluster, pathname, createdAt);
+
+            return plan;
+        }
+    }
+
+    @Override
+    public File writePlan(final DeploymentPlan plan, final String pathname) throws IOException {
+        final File file = new File(pathname);
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file.toPath()))))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(plan.getCluster());
+            output.writeLong(plan.getCreatedAt().toEpochMilli());
+            writeSchemas(output, plan.getSchemas());
+            writeStringMap(output, plan.getSchemaFingerprints());
+            writeNewTopics(output, plan.getNewTopics());
+            writeAclBindings(output, plan.getNewAclBindings());
+            writeNewPartitions(output, plan.getNewPartitions());
+            writeAlterConfigOperations(output, plan.getAlterConfigOperations());
+            writeAclBindingFilters(output, plan.getOrphanedAclBindings());
+            writeStrings(output, plan.getOrphanedTopics());
+            writeStrings(output, plan.getOrphanedSubjects());
+        }
+        LOGGER.info("Deployment plan for cluster '{}' written to file '{}'", plan.getCluster(), file);
+
+        return file;
+    }
+
+    public List<Schema> readSchemas(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final List<Schema> schemas = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String subject = input.readUTF();
+            final String type = readNullableUTF(input);
+            final String compatibilityMode = readNullableUTF(input);
+            schemas.add(new Schema(subject,
+                    Objects.isNull(type) ? null : Schema.Type.valueOf(type),
+                    Objects.isNull(compatibilityMode) ? null : Schema.CompatibilityMode.valueOf(compatibilityMode)));
+        }
+
+        return schemas;
+    }
+
+    public void writeSchemas(final DataOutputStream output, final Collection<Schema> schemas) throws IOException {
+        output.writeInt(schemas.size());
+        for (final Schema schema : schemas) {
+            output.writeUTF(schema.getSubject());
+            writeNullableUTF(output, Objects.isNull(schema.getType()) ? null : schema.getType().name());
+            writeNullableUTF(output, Objects.isNull(schema.getCompatibilityMode()) ? null : schema.getCompatibilityMode().name());
+        }
+    }
+
+    public List<NewTopic> readNewTopics(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final List<NewTopic> newTopics = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final NewTopic newTopic = new NewTopic(input.readUTF(), input.readInt(), input.readShort());
+            newTopics.add(newTopic.configs(readStringMap(input)));
+        }
+
+        return newTopics;
+    }
+
+    public void writeNewTopics(final DataOutputStream output, final Collection<NewTopic> newTopics) throws IOException {
+        output.writeInt(newTopics.size());
+        for (final NewTopic newTopic : newTopics) {
+            output.writeUTF(newTopic.name());
+            output.writeInt(newTopic.numPartitions());
+            output.writeShort(newTopic.replicationFactor());
+            writeStringMap(output, Objects.isNull(newTopic.configs()) ? Collections.emptyMap() : newTopic.configs());
+        }
+    }
+
+    public List<AclBindingFilter> readAclBindingFilters(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final List<AclBindingFilter> aclBindingFilters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ResourcePatternFilter resourcePatternFilter = new ResourcePatternFilter(ResourceType.fromCode(input.readByte()), readNullableUTF(input), PatternType.fromCode(input.readByte()));
+            final AccessControlEntryFilter accessControlEntryFilter = new AccessControlEntryFilter(readNullableUTF(input), readNullableUTF(input), AclOperation.fromCode(input.readByte()), AclPermissionType.fromCode(input.readByte()));
+            aclBindingFilters.add(new AclBindingFilter(resourcePatternFilter, accessControlEntryFilter));
+        }
+
+        return aclBindingFilters;
+    }
+
+    public void writeAclBindingFilters(final DataOutputStream output, final Collection<AclBindingFilter> aclBindingFilters) throws IOException {
+        output.writeInt(aclBindingFilters.size());
+        for (final AclBindingFilter aclBindingFilter : aclBindingFilters) {
+            output.writeByte(aclBindingFilter.patternFilter().resourceType().code());
+            writeNullableUTF(output, aclBindingFilter.patternFilter().name());
+            output.writeByte(aclBindingFilter.patternFilter().patternType().code());
+            writeNullableUTF(output, aclBindingFilter.entryFilter().principal());
+            writeNullableUTF(output, aclBindingFilter.entryFilter().host());
+            output.writeByte(aclBindingFilter.entryFilter().operation().code());
+            output.writeByte(aclBindingFilter.entryFilter().permissionType().code());
+        }
+    }
+
+    public Map<String, NewPartitions> readNewPartitions(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final Map<String, NewPartitions> newPartitions = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            newPartitions.put(input.readUTF(), NewPartitions.increaseTo(input.readInt()));
+        }
+
+        return newPartitions;
+    }
+
+    public void writeNewPartitions(final DataOutputStream output, final Map<String, NewPartitions> newPartitions) throws IOException {
+        output.writeInt(newPartitions.size());
+        for (final Map.Entry<String, NewPartitions> entry : newPartitions.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeInt(entry.getValue().totalCount());
+        }
+    }
+
+    public Map<ConfigResource, Collection<AlterConfigOp>> readAlterConfigOperations(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOperations = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            final ConfigResource configResource = new ConfigResource(ConfigResource.Type.forId(input.readByte()), input.readUTF());
+            final int operationSize = input.readInt();
+            final List<AlterConfigOp> alterConfigOps = new ArrayList<>(operationSize);
+            for (int j = 0; j < operationSize; j++) {
+                final ConfigEntry configEntry = new ConfigEntry(input.readUTF(), readNullableUTF(input));
+                alterConfigOps.add(new AlterConfigOp(configEntry, AlterConfigOp.OpType.forId(input.readByte())));
+            }
+            alterConfigOperations.put(configResource, alterConfigOps);
+        }
+
+        return alterConfigOperations;
+    }
+
+    public void writeAlterConfigOperations(final DataOutputStream output, final Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOperations) throws IOException {
+        output.writeInt(alterConfigOperations.size());
+        for (final Map.Entry<ConfigResource, Collection<AlterConfigOp>> entry : alterConfigOperations.entrySet()) {
+            output.writeByte(entry.getKey().type().id());
+            output.writeUTF(entry.getKey().name());
+            output.writeInt(entry.getValue().size());
+            for (final AlterConfigOp alterConfigOp : entry.getValue()) {
+                output.writeUTF(alterConfigOp.configEntry().name());
+                writeNullableUTF(output, alterConfigOp.configEntry().value());
+                output.writeByte(alterConfigOp.opType().id());
+            }
+        }
+    }
+
+    public List<String> readStrings(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(input.readUTF());
+        }
+
+        return strings;
+    }
+
+    public void writeStrings(final DataOutputStream output, final Collection<String> strings) throws IOException {
+        output.writeInt(strings.size());
+        for (final String string : strings) {
+            output.writeUTF(string);
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package de.volkerfaas.kafka.topology.repositories.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.volkerfaas.kafka.topology.model.DriftReport;
+import de.volkerfaas.kafka.topology.repositories.DriftReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.io.File;
+import java.io.IOException;
+
+@Repository
+public class DriftReportRepositoryImpl implements DriftReportRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriftReportRepositoryImpl.class);
+
+    private final ObjectMapper objectMapper;
+
+    public DriftReportRepositoryImpl() {
+        this.objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public File writeReport(final DriftReport report, final String pathname) throws IOException {
+        final File file = new File(pathname);
+        objectMapper.writeValue(file, report);
+        LOGGER.info("Drift report written to {}", file.getAbsolutePath());
+
+        return file;
+    }
+
+}
@@ -0,0 +1,46 @@
+package de.volkerfaas.kafka.topology.repositories.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.volkerfaas.kafka.topology.model.Manifest;
+import de.volkerfaas.kafka.topology.repositories.ManifestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.io.File;
+import java.io.IOException;
+
+@Repository
+public class ManifestRepositoryImpl implements ManifestRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManifestRepositoryImpl.class);
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ManifestRepositoryImpl(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Manifest readManifest(final String pathname) throws IOException {
+        final File file = new File(pathname);
+        if (!file.exists()) {
+            LOGGER.debug("No manifest file '{}'", pathname);
+            return null;
+        }
+
+        return objectMapper.readValue(file, Manifest.class);
+    }
+
+    @Override
+    public File writeManifest(final Manifest manifest, final String pathname) throws IOException {
+        final File file = new File(pathname);
+        objectMapper.writeValue(file, manifest);
+        LOGGER.info("Manifest written to {}", file.getAbsolutePath());
+
+        return file;
+    }
+
+}
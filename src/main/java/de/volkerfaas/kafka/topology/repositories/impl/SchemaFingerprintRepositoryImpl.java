@@ -0,0 +1,46 @@
+package de.volkerfaas.kafka.topology.repositories.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.volkerfaas.kafka.topology.model.SchemaFingerprints;
+import de.volkerfaas.kafka.topology.repositories.SchemaFingerprintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.io.File;
+import java.io.IOException;
+
+@Repository
+public class SchemaFingerprintRepositoryImpl implements SchemaFingerprintRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaFingerprintRepositoryImpl.class);
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SchemaFingerprintRepositoryImpl(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public SchemaFingerprints readFingerprints(final String pathname) throws IOException {
+        final File file = new File(pathname);
+        if (!file.exists()) {
+            LOGGER.debug("No schema fingerprint file '{}'", pathname);
+            return null;
+        }
+
+        return objectMapper.readValue(file, SchemaFingerprints.class);
+    }
+
+    @Override
+    public File writeFingerprints(final SchemaFingerprints fingerprints, final String pathname) throws IOException {
+        final File file = new File(pathname);
+        objectMapper.writeValue(file, fingerprints);
+        LOGGER.info("Schema fingerprints written to {}", file.getAbsolutePath());
+
+        return file;
+    }
+
+}
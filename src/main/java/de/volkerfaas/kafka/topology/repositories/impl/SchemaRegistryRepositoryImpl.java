@@ -1,27 +1,36 @@
 package de.volkerfaas.kafka.topology.repositories.impl;
 
 import com.github.freva.asciitable.Column;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
 import de.volkerfaas.kafka.topology.model.Schema;
 import de.volkerfaas.kafka.topology.repositories.SchemaRegistryException;
 import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
+import de.volkerfaas.utils.HashUtils;
+import de.volkerfaas.utils.OperationLog;
+import de.volkerfaas.utils.OperationLog.Outcome;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
-import static com.github.freva.asciitable.AsciiTable.getTable;
 import static com.github.freva.asciitable.HorizontalAlign.LEFT;
 import static de.volkerfaas.kafka.topology.utils.SchemaUtils.getSchemaPath;
 import static de.volkerfaas.utils.ExceptionUtils.handleException;
@@ -33,12 +42,20 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SchemaRegistryRepositoryImpl.class);
 
+    private final Cache cache;
     private final boolean dryRun;
+    private final MeterRegistry meterRegistry;
+    private final OperationLog operationLog;
+    private final int parallelism;
     private final SchemaRegistryClient schemaRegistryClient;
 
     @Autowired
-    public SchemaRegistryRepositoryImpl(@Lazy final SchemaRegistryClient schemaRegistryClient, @Value("${dry-run:@null}") final String dryRun) {
+    public SchemaRegistryRepositoryImpl(@Lazy final SchemaRegistryClient schemaRegistryClient, @Value("${dry-run:@null}") final String dryRun, final CacheManager cacheManager, final OperationLog operationLog, final DeployProperties deployProperties, final MeterRegistry meterRegistry) {
+        this.cache = Objects.isNull(cacheManager) ? null : cacheManager.getCache("schema-registry");
         this.dryRun = Objects.nonNull(dryRun);
+        this.meterRegistry = meterRegistry;
+        this.operationLog = Objects.requireNonNullElseGet(operationLog, OperationLog::new);
+        this.parallelism = Objects.isNull(deployProperties) ? 1 : Math.max(1, deployProperties.getSchemaParallelism());
         this.schemaRegistryClient = schemaRegistryClient;
     }
 
@@ -49,7 +66,7 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
 
     public String getCompatibilityMode(final String subject, final boolean resolveDefault) throws IOException, RestClientException {
         try {
-            return schemaRegistryClient.getCompatibility(subject);
+            return getCached("compatibility:" + Objects.toString(subject, ""), () -> schemaRegistryClient.getCompatibility(subject));
         } catch (RestClientException e) {
             if ((e.getErrorCode() == 40401 || e.getErrorCode() == 40403 || e.getErrorCode() == 40408) && resolveDefault) {
                 return getCompatibilityMode(null, false);
@@ -68,18 +85,84 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
 
     @Override
     public Collection<String> listSubjects() throws IOException, RestClientException {
-        return schemaRegistryClient.getAllSubjects();
+        return getCached("subjects", schemaRegistryClient::getAllSubjects);
     }
 
+    /**
+     * Registers the schemas of up to deploy.schema-parallelism subjects at the same time. A failing subject does not
+     * stop the others, all failures are reported together once every subject has been processed. Returns the version
+     * of the schema of each subject, as far as it is known.
+     */
     @Override
-    public void registerSchemas(final Collection<Schema> schemas, final String directory) {
-        final Set<Schema> registeredSchemas = schemas.stream()
+    public Map<String, Integer> registerSchemas(final Collection<Schema> schemas, final String directory) {
+        final List<Schema> subjects = schemas.stream()
                 .filter(Objects::nonNull)
-                .peek(schema -> handleException(() -> updateCompatibility(schema)))
-                .map(schema -> handleException(() -> registerSchema(schema, directory)))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toUnmodifiableSet());
-        printSchemas(registeredSchemas);
+                .collect(Collectors.toUnmodifiableList());
+        final Map<String, Integer> versions = new ConcurrentHashMap<>();
+        if (subjects.isEmpty()) {
+            return versions;
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, subjects.size()), runnable -> {
+            final Thread thread = new Thread(runnable, "schema-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Map<Schema, CompletableFuture<Schema>> futures = new LinkedHashMap<>();
+        try {
+            subjects.forEach(schema -> futures.put(schema, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return registerSubject(schema, directory, versions);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor)));
+            final Set<Schema> registeredSchemas = new LinkedHashSet<>();
+            final Map<String, Throwable> failures = new LinkedHashMap<>();
+            futures.forEach((schema, future) -> {
+                try {
+                    final Schema registeredSchema = future.join();
+                    if (Objects.nonNull(registeredSchema)) {
+                        registeredSchemas.add(registeredSchema);
+                    }
+                } catch (CompletionException e) {
+                    failures.put(schema.getSubject(), Objects.requireNonNullElse(e.getCause(), e));
+                }
+            });
+            printSchemas(registeredSchemas);
+            if (!failures.isEmpty()) {
+                failures.forEach((subject, error) -> LOGGER.error("Failed to register schema for subject '{}': {}", subject, error.getMessage()));
+                throw new IllegalStateException("Failed to register schemas for " + failures.size() + " of " + subjects.size() + " subjects", failures.values().iterator().next());
+            }
+
+            return versions;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Updates the compatibility and registers the schema of a subject and records the time both took together as
+     * timer "kcm.schema.subject". The time of each step is recorded per subject in the operation log.
+     */
+    public Schema registerSubject(final Schema schema, final String directory) throws Exception {
+        return registerSubject(schema, directory, new HashMap<>());
+    }
+
+    public Schema registerSubject(final Schema schema, final String directory, final Map<String, Integer> versions) throws Exception {
+        final long startedAt = System.nanoTime();
+        String outcome = "failure";
+        try {
+            recordOperation("update compatibility", schema.getSubject(), () -> updateCompatibility(schema));
+            final Schema registeredSchema = recordOperation("register schema", schema.getSubject(), () -> registerSchema(schema, directory, versions));
+            outcome = Objects.isNull(registeredSchema) ? "unchanged" : dryRun ? "dry-run" : "success";
+
+            return registeredSchema;
+        } finally {
+            if (Objects.nonNull(meterRegistry)) {
+                meterRegistry.timer("kcm.schema.subject", "outcome", outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
     }
 
     @Override
@@ -88,8 +171,11 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
             LOGGER.info("No subjects to be removed from cluster");
         } else if (dryRun) {
             LOGGER.info("Subjects to be removed from cluster");
+            operationLog.recordAll("delete subject", subjects, Outcome.DRY_RUN, 0, null);
         } else {
-            subjects.forEach(subject -> handleException(() -> schemaRegistryClient.deleteSubject(subject)));
+            subjects.forEach(subject -> handleException(() -> recordOperation("delete subject", subject, () -> schemaRegistryClient.deleteSubject(subject))));
+            subjects.forEach(subject -> evictCached("compatibility:" + subject));
+            evictCached("subjects");
             LOGGER.info("Subjects removed from cluster");
         }
         printSubjects(subjects);
@@ -98,7 +184,7 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
     @Override
     public void downloadSchemas(final Collection<Schema> schemas, final String directory) {
         final Set<Schema> downloadedSchemas = schemas.stream()
-                .map(schema -> handleException(() -> downloadSchema(schema, directory)))
+                .map(schema -> handleException(() -> recordOperation("download schema", Objects.nonNull(schema) ? schema.getSubject() : null, () -> downloadSchema(schema, directory))))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toUnmodifiableSet());
         printSchemas(downloadedSchemas);
@@ -173,24 +259,33 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
             LOGGER.info("Compatibility to be updated to '{}' for subject '{}'", newCompatibility, subject);
         } else {
             final String updatedCompatibility = schemaRegistryClient.updateCompatibility(subject, newCompatibility);
+            evictCached("compatibility:" + subject);
             LOGGER.info("Compatibility updated to '{}' for subject '{}'", updatedCompatibility, subject);
         }
 
         return schema;
     }
 
-    // TODO: Do not return null on an error, but throw an exception instead.
+    /**
+     * Returns the SHA-256 hash of the canonical form of the schema file, which does not change with the formatting.
+     * Parsing the schema does not need the schema registry.
+     */
+    @Override
+    public String getFingerprint(final Schema schema, final String directory) throws IOException, SchemaRegistryException {
+        final ParsedSchema parsedSchema = parseSchema(schema, directory);
+
+        return HashUtils.sha256(parsedSchema.canonicalString().getBytes(StandardCharsets.UTF_8));
+    }
+
     public Schema registerSchema(final Schema schema, final String directory) throws IOException, RestClientException, SchemaRegistryException {
+        return registerSchema(schema, directory, new HashMap<>());
+    }
+
+    // TODO: Do not return null on an error, but throw an exception instead.
+    public Schema registerSchema(final Schema schema, final String directory, final Map<String, Integer> versions) throws IOException, RestClientException, SchemaRegistryException {
         final String subject = schema.getSubject();
         final Schema.Type schemaType = schema.getType();
-        final Path schemaFile = getSchemaPath(schema, directory);
-        if (Objects.isNull(schemaFile)) {
-            throw new SchemaRegistryException("Invalid schema file '%s'", subject);
-        }
-        final ParsedSchema parsedSchema = parseSchema(schemaType.toString(), schemaFile);
-        if (Objects.isNull(parsedSchema)) {
-            throw new SchemaRegistryException("Schema of type %s for subject '%s' could not be parsed", schemaType, subject);
-        }
+        final ParsedSchema parsedSchema = parseSchema(schema, directory);
         final boolean compatible = testCompatibility(subject, parsedSchema);
         if (!compatible) {
             throw new SchemaRegistryException("Schema of type %s for subject '%s' is incompatible to existing schemas", schemaType, subject);
@@ -198,13 +293,19 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
         final int version = getVersion(subject, parsedSchema);
         if (version > 0) {
             LOGGER.debug("Schema of type {} for subject and current schema '{}' already exists and has version {}", schemaType, subject, version);
+            versions.put(subject, version);
             return null;
         }
         if (dryRun) {
             LOGGER.info("Schema of type {} to be registered for subject '{}'", schemaType, subject);
         } else {
             final int schemaId = schemaRegistryClient.register(subject, parsedSchema);
+            evictCached("subjects");
             LOGGER.info("Schema of type {} registered for subject '{}' with schema ID {}", schemaType, subject, schemaId);
+            final SchemaMetadata latestSchemaMetadata = schemaRegistryClient.getLatestSchemaMetadata(subject);
+            if (Objects.nonNull(latestSchemaMetadata) && latestSchemaMetadata.getId() == schemaId) {
+                versions.put(subject, latestSchemaMetadata.getVersion());
+            }
         }
 
         return schema;
@@ -226,6 +327,63 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
         }
     }
 
+    /**
+     * Records the operation in the operation log, unless it returns null because there was nothing to do.
+     */
+    public <T> T recordOperation(final String type, final String resource, final Callable<T> operation) throws Exception {
+        final long startedAt = System.nanoTime();
+        try {
+            final T result = operation.call();
+            if (Objects.nonNull(result)) {
+                operationLog.record(type, resource, dryRun ? Outcome.DRY_RUN : Outcome.SUCCESS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            }
+
+            return result;
+        } catch (Exception e) {
+            operationLog.record(type, resource, Outcome.FAILURE, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 1, e);
+            throw e;
+        }
+    }
+
+    public <T> T getCached(final String key, final Callable<T> valueLoader) throws IOException, RestClientException {
+        try {
+            return Objects.isNull(cache) ? valueLoader.call() : cache.get(key, valueLoader);
+        } catch (Cache.ValueRetrievalException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RestClientException) {
+                throw (RestClientException) cause;
+            }
+            throw e;
+        } catch (IOException | RestClientException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void evictCached(final String key) {
+        if (Objects.nonNull(cache)) {
+            cache.evict(key);
+        }
+    }
+
+    public ParsedSchema parseSchema(final Schema schema, final String directory) throws IOException, SchemaRegistryException {
+        final String subject = schema.getSubject();
+        final Schema.Type schemaType = schema.getType();
+        final Path schemaFile = getSchemaPath(schema, directory);
+        if (Objects.isNull(schemaFile)) {
+            throw new SchemaRegistryException("Invalid schema file '%s'", subject);
+        }
+        final ParsedSchema parsedSchema = parseSchema(schemaType.toString(), schemaFile);
+        if (Objects.isNull(parsedSchema)) {
+            throw new SchemaRegistryException("Schema of type %s for subject '%s' could not be parsed", schemaType, subject);
+        }
+
+        return parsedSchema;
+    }
+
     public ParsedSchema parseSchema(final String type, final Path schemaFile) throws IOException {
         if (schemaFile == null) throw new IllegalArgumentException("Path to schema file must not be null.");
 
@@ -238,7 +396,7 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
         if (Objects.isNull(registeredSchemas) || registeredSchemas.isEmpty()) {
             return;
         }
-        System.out.println(getTable(registeredSchemas, Arrays.asList(
+        operationLog.printTable(registeredSchemas, Arrays.asList(
                 new Column().header("Subject").dataAlign(LEFT).with(Schema::getSubject),
                 new Column().header("Type").dataAlign(LEFT).with(schema -> {
                     final Schema.Type type = schema.getType();
@@ -249,16 +407,16 @@ public class SchemaRegistryRepositoryImpl implements SchemaRegistryRepository {
                     return Objects.nonNull(compatibilityMode) ? compatibilityMode.toString() : "default";
                 })
 
-        )));
+        ));
     }
 
     private void printSubjects(Collection<String> subjects) {
         if (Objects.isNull(subjects) || subjects.isEmpty()) {
             return;
         }
-        System.out.println(getTable(subjects, Collections.singletonList(
+        operationLog.printTable(subjects, Collections.singletonList(
                 new Column().header("Subject").dataAlign(LEFT).with(subject -> subject)
-        )));
+        ));
     }
 
     public boolean testCompatibility(String subject, ParsedSchema parsedSchema) throws IOException, RestClientException {
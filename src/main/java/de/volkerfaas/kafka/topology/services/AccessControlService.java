@@ -14,7 +14,9 @@ public interface AccessControlService {
     Collection<String> findPrincipalsByResourceName(Collection<AclBinding> aclBindings, String resourceName);
     Collection<AclBinding> listAclBindingsInCluster() throws ExecutionException, InterruptedException;
     Collection<AclBinding> listNewAclBindings(Collection<Domain> domains);
+    Collection<AclBinding> listNewAclBindings(Collection<Domain> domains, Collection<Domain> allDomains);
     Collection<AclBinding> deleteAccessControlLists(Collection<AclBindingFilter> aclBindingFilters) throws ExecutionException, InterruptedException;
     Collection<AclBindingFilter> listOrphanedAclBindings(Collection<Domain> domains) throws ExecutionException, InterruptedException;
+    Collection<AclBindingFilter> listOrphanedAclBindings(Collection<Domain> domains, Collection<Domain> allDomains) throws ExecutionException, InterruptedException;
 
 }
@@ -0,0 +1,9 @@
+package de.volkerfaas.kafka.topology.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+public interface ClusterSnapshotService {
+    File createSnapshot(String directory) throws ExecutionException, InterruptedException, IOException;
+}
@@ -0,0 +1,16 @@
+package de.volkerfaas.kafka.topology.services;
+
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.DriftReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+
+public interface DriftService {
+
+    DriftReport detectDrift(Collection<Domain> domains, Collection<Domain> allDomains, String cluster, boolean refresh) throws ExecutionException, InterruptedException;
+    File writeDriftReport(DriftReport report, String directory) throws IOException;
+
+}
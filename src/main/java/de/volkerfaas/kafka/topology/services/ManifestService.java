@@ -0,0 +1,18 @@
+package de.volkerfaas.kafka.topology.services;
+
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.Manifest;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+public interface ManifestService {
+
+    Manifest createManifest(String directory, String cluster, Collection<TopologyFile> topologies) throws IOException;
+    Collection<TopologyFile> filterChangedTopologies(Collection<TopologyFile> topologies, Manifest previous, Manifest current);
+    Manifest readManifest(String directory, String cluster) throws IOException;
+    File updateManifest(String directory, Manifest previous, Manifest current, Collection<Domain> domains) throws IOException;
+
+}
@@ -6,6 +6,7 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 public interface SchemaFileService {
@@ -13,6 +14,7 @@ public interface SchemaFileService {
     void deleteSubjects(Collection<String> subjects);
     void downloadSchemas(final Collection<Schema> schemas, final String directory);
     Schema findSchema(Collection<String> subjects, String domainName, String fullTopicName, String suffix) throws IOException, RestClientException;
+    Map<String, String> listFingerprints(Collection<Schema> schemas, String directory);
     Collection<String> listOrphanedSubjects(Collection<String> topicNames) throws IOException, RestClientException;
     Collection<String> listSubjects() throws IOException, RestClientException;
     void registerSchemas(Collection<Schema> schemaFiles, String directory);
@@ -1,23 +1,32 @@
 package de.volkerfaas.kafka.topology.services;
 
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
 import de.volkerfaas.kafka.topology.model.Domain;
 import de.volkerfaas.kafka.topology.model.TopologyFile;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 
 import javax.validation.Valid;
+import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.concurrent.ExecutionException;
 
 public interface TopologyDeployService {
 
+    void applyDeploymentPlan(DeploymentPlan plan, String directory) throws ExecutionException, InterruptedException;
+    DeploymentPlan createDeploymentPlan(Collection<Domain> domains, Collection<Domain> allDomains, String cluster, String directory, boolean allowDeleteAcl, boolean allowDeleteSubjects, boolean allowDeleteTopics) throws ExecutionException, InterruptedException, IOException, RestClientException;
     void deleteOrphanedAclBindings(Collection<Domain> domains) throws ExecutionException, InterruptedException;
     void deleteOrphanedSubjects(Collection<Domain> domains) throws IOException, RestClientException;
     void deleteOrphanedTopics(Collection<Domain> domains) throws ExecutionException, InterruptedException;
     boolean isTopologyValid(Collection<@Valid TopologyFile> topologies, String directory) throws ExecutionException, InterruptedException;
+    boolean isTopologyValid(Collection<TopologyFile> topologies, Collection<@Valid TopologyFile> topologiesToValidate, String directory) throws ExecutionException, InterruptedException;
+    Collection<String> listChangedSchemas(DeploymentPlan plan, String directory);
     Collection<TopologyFile> listTopologies(String directory);
+    DeploymentPlan readDeploymentPlan(String pathname) throws IOException;
+    TopologyFile readTopology(String pathname);
+    File writeDeploymentPlan(DeploymentPlan plan, String pathname) throws IOException;
     Collection<Domain> filterDomainsForUpdate(Collection<TopologyFile> topologies, Collection<String> domainNames);
     void removeTopicsNotInCluster(final Collection<TopologyFile> topologies, String cluster);
-    void updateTopology(Collection<Domain> domains, String directory) throws ExecutionException, InterruptedException, IOException;
+    void updateTopology(Collection<Domain> domains, Collection<Domain> allDomains, String directory) throws ExecutionException, InterruptedException, IOException, RestClientException;
 
 }
@@ -73,31 +73,45 @@ public class AccessControlServiceImpl implements AccessControlService {
 
     @Override
     public Collection<AclBinding> listNewAclBindings(final Collection<Domain> domains) {
+        return listNewAclBindings(domains, domains);
+    }
+
+    /**
+     * Lists the missing ACLs of the domains. Consumers and producers referencing a domain are resolved to its principal
+     * from all domains, which may include domains that are not updated.
+     */
+    @Override
+    public Collection<AclBinding> listNewAclBindings(final Collection<Domain> domains, final Collection<Domain> allDomains) {
         final Set<AclBinding> newAclBindings = new HashSet<>();
         domains.stream()
                 .peek(domain -> newAclBindings.addAll(listAclBindingsForDomain(domain)))
                 .map(Domain::getVisibilities)
                 .flatMap(List::stream)
-                .peek(visibility -> newAclBindings.addAll(listConsumerAclBindingsForVisibilityOrTopic(visibility, true, domains)))
-                .peek(visibility -> newAclBindings.addAll(listProducerAclBindingsForVisibilityOrTopic(visibility, true, domains)))
+                .peek(visibility -> newAclBindings.addAll(listConsumerAclBindingsForVisibilityOrTopic(visibility, true, allDomains)))
+                .peek(visibility -> newAclBindings.addAll(listProducerAclBindingsForVisibilityOrTopic(visibility, true, allDomains)))
                 .map(Visibility::getTopics)
                 .flatMap(List::stream)
-                .peek(topic -> newAclBindings.addAll(listConsumerAclBindingsForVisibilityOrTopic(topic, false, domains)))
-                .forEach(topic -> newAclBindings.addAll(listProducerAclBindingsForVisibilityOrTopic(topic, false, domains)));
+                .peek(topic -> newAclBindings.addAll(listConsumerAclBindingsForVisibilityOrTopic(topic, false, allDomains)))
+                .forEach(topic -> newAclBindings.addAll(listProducerAclBindingsForVisibilityOrTopic(topic, false, allDomains)));
         return newAclBindings;
     }
 
     @Override
     public Collection<AclBindingFilter> listOrphanedAclBindings(final Collection<Domain> domains) throws ExecutionException, InterruptedException {
+        return listOrphanedAclBindings(domains, domains);
+    }
+
+    @Override
+    public Collection<AclBindingFilter> listOrphanedAclBindings(final Collection<Domain> domains, final Collection<Domain> allDomains) throws ExecutionException, InterruptedException {
         final Set<AclBindingFilter> orphanedAclBindings = new HashSet<>();
         domains.stream()
                 .peek(domain -> orphanedAclBindings.addAll(listOrphanedAclBindingFilters(domain)))
                 .map(Domain::getVisibilities)
                 .flatMap(List::stream)
-                .peek(visibility -> orphanedAclBindings.addAll(listOrphanedAclBindingFilters(visibility, true, domains)))
+                .peek(visibility -> orphanedAclBindings.addAll(listOrphanedAclBindingFilters(visibility, true, allDomains)))
                 .map(Visibility::getTopics)
                 .flatMap(List::stream)
-                .forEach(topic -> orphanedAclBindings.addAll(listOrphanedAclBindingFilters(topic, false, domains)));
+                .forEach(topic -> orphanedAclBindings.addAll(listOrphanedAclBindingFilters(topic, false, allDomains)));
         orphanedAclBindings.addAll(listAclBindingFiltersNotInDomains(domains));
 
         return orphanedAclBindings;
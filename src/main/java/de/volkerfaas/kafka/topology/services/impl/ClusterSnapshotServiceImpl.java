@@ -0,0 +1,36 @@
+package de.volkerfaas.kafka.topology.services.impl;
+
+import de.volkerfaas.kafka.cluster.model.ClusterConfiguration;
+import de.volkerfaas.kafka.cluster.repositories.ClusterSnapshotRepository;
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.services.ClusterSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+@Service
+public class ClusterSnapshotServiceImpl implements ClusterSnapshotService {
+
+    private final String cluster;
+    private final ClusterSnapshotRepository clusterSnapshotRepository;
+    private final KafkaClusterRepository kafkaClusterRepository;
+
+    @Autowired
+    public ClusterSnapshotServiceImpl(final ClusterSnapshotRepository clusterSnapshotRepository, final KafkaClusterRepository kafkaClusterRepository, @Value("${cluster:local}") final String cluster) {
+        this.cluster = cluster;
+        this.clusterSnapshotRepository = clusterSnapshotRepository;
+        this.kafkaClusterRepository = kafkaClusterRepository;
+    }
+
+    @Override
+    public File createSnapshot(final String directory) throws ExecutionException, InterruptedException, IOException {
+        final ClusterConfiguration clusterConfiguration = kafkaClusterRepository.getClusterConfiguration();
+
+        return clusterSnapshotRepository.writeSnapshot(clusterConfiguration, cluster, directory);
+    }
+
+}
@@ -0,0 +1,151 @@
+package de.volkerfaas.kafka.topology.services.impl;
+
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.MetricsWriter;
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.DriftReport;
+import de.volkerfaas.kafka.topology.repositories.DriftReportRepository;
+import de.volkerfaas.kafka.topology.services.AccessControlService;
+import de.volkerfaas.kafka.topology.services.DriftService;
+import de.volkerfaas.kafka.topology.services.TopicService;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.config.ConfigResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class DriftServiceImpl implements DriftService {
+
+    public static final String TYPE_CONFIG = "config";
+    public static final String TYPE_MISSING_ACL = "missing-acl";
+    public static final String TYPE_MISSING_TOPIC = "missing-topic";
+    public static final String TYPE_ORPHANED_ACL = "orphaned-acl";
+    public static final String TYPE_ORPHANED_TOPIC = "orphaned-topic";
+    public static final String TYPE_PARTITIONS = "partitions";
+    public static final List<String> TYPES = List.of(TYPE_CONFIG, TYPE_MISSING_ACL, TYPE_MISSING_TOPIC, TYPE_ORPHANED_ACL, TYPE_ORPHANED_TOPIC, TYPE_PARTITIONS);
+    public static final String UNKNOWN_DOMAIN = "unknown";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriftServiceImpl.class);
+
+    private final AccessControlService accessControlService;
+    private final DriftReportRepository driftReportRepository;
+    private final KafkaClusterRepository kafkaClusterRepository;
+    private final Map<Tags, AtomicLong> driftCounts;
+    private final PrometheusMeterRegistry meterRegistry;
+    private final MetricsWriter metricsWriter;
+    private final TopicService topicService;
+
+    @Autowired
+    public DriftServiceImpl(final KafkaClusterRepository kafkaClusterRepository, final TopicService topicService, final AccessControlService accessControlService, final DriftReportRepository driftReportRepository, final PrometheusMeterRegistry meterRegistry, final MetricsWriter metricsWriter) {
+        this.accessControlService = accessControlService;
+        this.driftReportRepository = driftReportRepository;
+        this.kafkaClusterRepository = kafkaClusterRepository;
+        this.driftCounts = new HashMap<>();
+        this.meterRegistry = meterRegistry;
+        this.metricsWriter = metricsWriter;
+        this.topicService = topicService;
+    }
+
+    /**
+     * Compares the cluster configuration with the domains like a deployment plan would, without changing anything. The
+     * cached cluster configuration is refreshed first if requested, i.e. on every check but the first one. Every drifted resource is assigned to the domain its name or principal belongs to.
+     * Principals of ACLs are resolved with all domains, even if only some of them are checked.
+     */
+    @Override
+    public DriftReport detectDrift(final Collection<Domain> domains, final Collection<Domain> allDomains, final String cluster, final boolean refresh) throws ExecutionException, InterruptedException {
+        if (refresh) {
+            kafkaClusterRepository.refreshClusterConfiguration();
+        }
+        final Map<String, Map<String, Collection<String>>> resources = new TreeMap<>();
+        domains.forEach(domain -> resources.put(domain.getName(), createResourcesOfDomain()));
+        for (final NewTopic newTopic : topicService.createNewTopics(domains)) {
+            addResource(resources, domains, TYPE_MISSING_TOPIC, newTopic.name(), null);
+        }
+        for (final String topicName : topicService.createNewPartitions(domains).keySet()) {
+            addResource(resources, domains, TYPE_PARTITIONS, topicName, null);
+        }
+        for (final ConfigResource configResource : topicService.createAlterConfigOperations(domains).keySet()) {
+            addResource(resources, domains, TYPE_CONFIG, configResource.name(), null);
+        }
+        for (final AclBinding aclBinding : accessControlService.listNewAclBindings(domains, allDomains)) {
+            addResource(resources, domains, TYPE_MISSING_ACL, aclBinding.pattern().name(), aclBinding.entry().principal(), aclBinding.toString());
+        }
+        for (final AclBindingFilter aclBindingFilter : accessControlService.listOrphanedAclBindings(domains, allDomains)) {
+            addResource(resources, domains, TYPE_ORPHANED_ACL, aclBindingFilter.patternFilter().name(), aclBindingFilter.entryFilter().principal(), aclBindingFilter.toString());
+        }
+        for (final String topicName : topicService.listOrphanedTopics(domains)) {
+            addResource(resources, domains, TYPE_ORPHANED_TOPIC, topicName, null);
+        }
+        final DriftReport report = new DriftReport(cluster, Instant.now().toString(), resources);
+        recordMetrics(report);
+        if (report.getTotal() > 0) {
+            LOGGER.warn("Cluster '{}' has drifted from the topology: {}", cluster, report.getCounts());
+        } else {
+            LOGGER.info("Cluster '{}' matches the topology", cluster);
+        }
+
+        return report;
+    }
+
+    @Override
+    public File writeDriftReport(final DriftReport report, final String directory) throws IOException {
+        final File file = driftReportRepository.writeReport(report, new File(directory, "drift-" + report.getCluster() + ".json").getPath());
+        metricsWriter.writeMetrics();
+
+        return file;
+    }
+
+    public String getDomainName(final Collection<Domain> domains, final String resourceName, final String principal) {
+        return domains.stream()
+                .filter(domain -> Objects.nonNull(resourceName) && (Objects.equals(resourceName, domain.getName()) || resourceName.startsWith(domain.getName() + ".")))
+                .findFirst()
+                .or(() -> domains.stream()
+                        .filter(domain -> Objects.nonNull(principal) && Objects.equals(principal, domain.getPrincipal()))
+                        .findFirst())
+                .map(Domain::getName)
+                .orElse(UNKNOWN_DOMAIN);
+    }
+
+    private void addResource(final Map<String, Map<String, Collection<String>>> resources, final Collection<Domain> domains, final String type, final String resourceName, final String principal) {
+        addResource(resources, domains, type, resourceName, principal, resourceName);
+    }
+
+    private void addResource(final Map<String, Map<String, Collection<String>>> resources, final Collection<Domain> domains, final String type, final String resourceName, final String principal, final String description) {
+        final String domainName = getDomainName(domains, resourceName, principal);
+        resources.computeIfAbsent(domainName, name -> createResourcesOfDomain()).get(type).add(description);
+    }
+
+    private Map<String, Collection<String>> createResourcesOfDomain() {
+        final Map<String, Collection<String>> resourcesOfDomain = new TreeMap<>();
+        TYPES.forEach(type -> resourcesOfDomain.put(type, new TreeSet<>()));
+
+        return resourcesOfDomain;
+    }
+
+    private synchronized void recordMetrics(final DriftReport report) {
+        final Set<Tags> tags = new HashSet<>();
+        report.getCounts().forEach((domainName, counts) -> counts.forEach((type, count) -> {
+            final Tags tagsOfCount = Tags.of("cluster", report.getCluster(), "domain", domainName, "type", type);
+            driftCounts.computeIfAbsent(tagsOfCount, key -> meterRegistry.gauge("kcm.drift", key, new AtomicLong())).set(count);
+            tags.add(tagsOfCount);
+        }));
+        driftCounts.entrySet().stream()
+                .filter(entry -> !tags.contains(entry.getKey()))
+                .forEach(entry -> entry.getValue().set(0));
+        meterRegistry.counter("kcm.drift.checks", "cluster", report.getCluster(), "outcome", report.getTotal() > 0 ? "drift" : "clean").increment();
+    }
+
+}
@@ -0,0 +1,169 @@
+package de.volkerfaas.kafka.topology.services.impl;
+
+import de.volkerfaas.kafka.topology.ApplicationConfiguration;
+import de.volkerfaas.kafka.topology.model.AccessControl;
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.ItemWithAccessControl;
+import de.volkerfaas.kafka.topology.model.Manifest;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
+import de.volkerfaas.kafka.topology.model.Visibility;
+import de.volkerfaas.kafka.topology.repositories.ManifestRepository;
+import de.volkerfaas.kafka.topology.services.ManifestService;
+import de.volkerfaas.utils.HashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ManifestServiceImpl implements ManifestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManifestServiceImpl.class);
+    private static final String PRINCIPAL_PREFIX = "principal:";
+
+    private final ManifestRepository manifestRepository;
+    private final boolean dryRun;
+
+    @Autowired
+    public ManifestServiceImpl(final ManifestRepository manifestRepository, @Value("${dry-run:@null}") final String dryRun) {
+        this.manifestRepository = manifestRepository;
+        this.dryRun = Objects.nonNull(dryRun);
+    }
+
+    @Override
+    public Manifest createManifest(final String directory, final String cluster, final Collection<TopologyFile> topologies) throws IOException {
+        final Map<String, String> principals = new HashMap<>();
+        topologies.stream()
+                .map(TopologyFile::getDomain)
+                .filter(Objects::nonNull)
+                .filter(domain -> Objects.nonNull(domain.getPrincipal()))
+                .forEach(domain -> principals.put(domain.getName(), domain.getPrincipal()));
+        final Map<String, Map<String, String>> domains = new TreeMap<>();
+        for (final TopologyFile topology : topologies) {
+            if (Objects.nonNull(topology.getDomain()) && Objects.nonNull(topology.getFile())) {
+                domains.put(topology.getDomain().getName(), hashDomain(directory, topology, principals));
+            }
+        }
+
+        return new Manifest(cluster, domains);
+    }
+
+    @Override
+    public Collection<TopologyFile> filterChangedTopologies(final Collection<TopologyFile> topologies, final Manifest previous, final Manifest current) {
+        return topologies.stream()
+                .filter(topology -> Objects.nonNull(topology.getDomain()))
+                .filter(topology -> {
+                    final String domainName = topology.getDomain().getName();
+                    final Map<String, String> hashes = current.getDomains().get(domainName);
+                    if (Objects.nonNull(previous) && Objects.nonNull(hashes) && Objects.equals(hashes, previous.getDomains().get(domainName))) {
+                        LOGGER.info("Domain '{}' is unchanged since the last deploy", domainName);
+                        return false;
+                    }
+                    return true;
+                })
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public Manifest readManifest(final String directory, final String cluster) throws IOException {
+        final Manifest manifest = manifestRepository.readManifest(getPathname(directory, cluster));
+        if (Objects.nonNull(manifest) && !Objects.equals(cluster, manifest.getCluster())) {
+            LOGGER.warn("Manifest has been written for cluster '{}' and is ignored for cluster '{}'", manifest.getCluster(), cluster);
+            return null;
+        }
+
+        return manifest;
+    }
+
+    @Override
+    public File updateManifest(final String directory, final Manifest previous, final Manifest current, final Collection<Domain> domains) throws IOException {
+        final Set<String> domainNames = domains.stream()
+                .map(Domain::getName)
+                .collect(Collectors.toUnmodifiableSet());
+        final Map<String, Map<String, String>> hashes = new TreeMap<>();
+        current.getDomains().forEach((domainName, hashesOfDomain) -> {
+            if (domainNames.contains(domainName)) {
+                hashes.put(domainName, hashesOfDomain);
+            } else if (Objects.nonNull(previous) && previous.getDomains().containsKey(domainName)) {
+                hashes.put(domainName, previous.getDomains().get(domainName));
+            }
+        });
+        final String pathname = getPathname(directory, current.getCluster());
+        if (dryRun) {
+            LOGGER.info("Manifest to be written to {}", pathname);
+            return new File(pathname);
+        }
+
+        return manifestRepository.writeManifest(new Manifest(current.getCluster(), hashes), pathname);
+    }
+
+    /**
+     * Besides the files of the domain, the principals of the domains it grants access to by name are hashed, because
+     * its ACLs have to be deployed again once one of these principals changes.
+     */
+    public Map<String, String> hashDomain(final String directory, final TopologyFile topology, final Map<String, String> principals) throws IOException {
+        final Path base = Path.of(directory).toAbsolutePath();
+        final Path topologyFile = topology.getFile().toPath().toAbsolutePath();
+        final List<Path> files = new ArrayList<>();
+        files.add(topologyFile);
+        final Path configFile = Path.of(topologyFile.toString().replaceFirst("/topology-", "/config/config-"));
+        if (Files.isRegularFile(configFile)) {
+            files.add(configFile);
+        }
+        final Path eventsDirectory = base.resolve(ApplicationConfiguration.EVENTS_DIRECTORY).resolve(topology.getDomain().getName());
+        if (Files.isDirectory(eventsDirectory)) {
+            try (final Stream<Path> schemaFiles = Files.walk(eventsDirectory)) {
+                schemaFiles.filter(Files::isRegularFile).forEach(files::add);
+            }
+        }
+        final Map<String, String> hashes = new TreeMap<>();
+        for (final Path file : files) {
+            hashes.put(base.relativize(file).toString(), hash(file));
+        }
+        for (final String domainName : listReferencedDomainNames(topology.getDomain())) {
+            final String principal = principals.get(domainName);
+            hashes.put(PRINCIPAL_PREFIX + domainName, HashUtils.sha256(String.valueOf(principal).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        return hashes;
+    }
+
+    public Set<String> listReferencedDomainNames(final Domain domain) {
+        final List<ItemWithAccessControl> items = new ArrayList<>();
+        for (final Visibility visibility : domain.getVisibilities()) {
+            items.add(visibility);
+            if (Objects.nonNull(visibility.getTopics())) {
+                items.addAll(visibility.getTopics());
+            }
+        }
+
+        return items.stream()
+                .flatMap(item -> Stream.of(item.getConsumers(), item.getProducers()))
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(accessControl -> Objects.isNull(accessControl.getPrincipal()) || accessControl.getPrincipal().isEmpty())
+                .map(AccessControl::getDomain)
+                .filter(Objects::nonNull)
+                .filter(domainName -> !Objects.equals(domain.getName(), domainName))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    public String hash(final Path file) throws IOException {
+        return HashUtils.sha256(Files.readAllBytes(file));
+    }
+
+    private String getPathname(final String directory, final String cluster) {
+        return new File(directory, "manifest-" + cluster + ".yaml").getPath();
+    }
+
+}
@@ -1,28 +1,50 @@
 package de.volkerfaas.kafka.topology.services.impl;
 
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
 import de.volkerfaas.kafka.topology.model.Domain;
 import de.volkerfaas.kafka.topology.model.Schema;
+import de.volkerfaas.kafka.topology.model.SchemaFingerprints;
 import de.volkerfaas.kafka.topology.model.Topic;
 import de.volkerfaas.kafka.topology.model.Visibility;
+import de.volkerfaas.kafka.topology.repositories.SchemaFingerprintRepository;
 import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
 import de.volkerfaas.kafka.topology.services.SchemaFileService;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static de.volkerfaas.utils.ExceptionUtils.handleException;
+
 @Service
 public class SchemaFileServiceImpl implements SchemaFileService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaFileServiceImpl.class);
+
+    private final String cluster;
+    private final boolean dryRun;
+    private final SchemaFingerprintRepository schemaFingerprintRepository;
     private final SchemaRegistryRepository schemaRegistryRepository;
+    private final Duration verificationInterval;
 
     @Autowired
-    public SchemaFileServiceImpl(final SchemaRegistryRepository schemaRegistryRepository) {
+    public SchemaFileServiceImpl(final SchemaRegistryRepository schemaRegistryRepository, final SchemaFingerprintRepository schemaFingerprintRepository, final DeployProperties deployProperties, @Value("${cluster:local}") final String cluster, @Value("${dry-run:@null}") final String dryRun) {
+        this.cluster = cluster;
+        this.dryRun = Objects.nonNull(dryRun);
+        this.schemaFingerprintRepository = schemaFingerprintRepository;
         this.schemaRegistryRepository = schemaRegistryRepository;
+        this.verificationInterval = Objects.isNull(deployProperties) ? Duration.ZERO : deployProperties.getSchemaVerificationInterval();
     }
 
     @Override
@@ -50,6 +72,22 @@ public class SchemaFileServiceImpl implements SchemaFileService {
         return new Schema(subject, schemaType, compatibilityMode);
     }
 
+    /**
+     * Canonical fingerprints of the schema files by subject. Subjects whose schema file cannot be read are left out.
+     */
+    @Override
+    public Map<String, String> listFingerprints(final Collection<Schema> schemas, final String directory) {
+        final Map<String, String> fingerprints = new TreeMap<>();
+        for (final Schema schema : schemas) {
+            final String fingerprint = Objects.nonNull(schema) ? getFingerprint(schema, directory) : null;
+            if (Objects.nonNull(fingerprint)) {
+                fingerprints.put(schema.getSubject(), fingerprint);
+            }
+        }
+
+        return fingerprints;
+    }
+
     @Override
     public Collection<String> listOrphanedSubjects(Collection<String> topicNames) throws IOException, RestClientException {
         final Collection<String> subjects = listSubjects();
@@ -63,9 +101,122 @@ public class SchemaFileServiceImpl implements SchemaFileService {
         return schemaRegistryRepository.listSubjects();
     }
 
+    /**
+     * Skips the subjects whose schema fingerprint and compatibility mode equal the ones stored in
+     * "schemas-[cluster].yaml" by the last deploy, as long as the subject still exists. A subject is verified against
+     * the schema registry again once deploy.schema-verification-interval has passed since its last verification. The
+     * fingerprints of subjects that are not part of this deploy are kept as they are.
+     */
     @Override
     public void registerSchemas(final Collection<Schema> schemas, final String directory) {
-        schemaRegistryRepository.registerSchemas(schemas, directory);
+        final Map<String, SchemaFingerprints.Subject> fingerprints = listPreviousFingerprints(handleException(() -> readFingerprints(directory)));
+        final boolean verifyAll = schemas.stream()
+                .filter(Objects::nonNull)
+                .map(schema -> fingerprints.get(schema.getSubject()))
+                .allMatch(this::isVerificationDue);
+        final Collection<String> subjects = verifyAll ? Collections.emptySet() : Set.copyOf(handleException(schemaRegistryRepository::listSubjects));
+        final Map<String, String> changedFingerprints = new HashMap<>();
+        final List<Schema> changedSchemas = new ArrayList<>();
+        for (final Schema schema : schemas) {
+            if (Objects.isNull(schema)) {
+                continue;
+            }
+            final String subject = schema.getSubject();
+            final String fingerprint = getFingerprint(schema, directory);
+            final SchemaFingerprints.Subject previousFingerprint = fingerprints.get(subject);
+            if (!isVerificationDue(previousFingerprint) && previousFingerprint.matches(fingerprint, getCompatibilityMode(schema)) && subjects.contains(subject)) {
+                LOGGER.debug("Schema for subject '{}' is unchanged since the last deploy", subject);
+                continue;
+            }
+            fingerprints.remove(subject);
+            changedFingerprints.put(subject, fingerprint);
+            changedSchemas.add(schema);
+        }
+        final long unchanged = schemas.stream().filter(Objects::nonNull).count() - changedSchemas.size();
+        if (unchanged > 0) {
+            LOGGER.info("Schemas of {} subjects are unchanged since the last deploy and skipped", unchanged);
+        }
+        if (changedSchemas.isEmpty()) {
+            return;
+        }
+        final Map<String, Integer> versions = schemaRegistryRepository.registerSchemas(changedSchemas, directory);
+        final String verifiedAt = Instant.now().toString();
+        for (final Schema schema : changedSchemas) {
+            final String fingerprint = changedFingerprints.get(schema.getSubject());
+            if (Objects.nonNull(fingerprint)) {
+                fingerprints.put(schema.getSubject(), new SchemaFingerprints.Subject(fingerprint, versions.get(schema.getSubject()), getCompatibilityMode(schema), verifiedAt));
+            }
+        }
+        handleException(() -> writeFingerprints(directory, new SchemaFingerprints(cluster, null, fingerprints)));
+    }
+
+    /**
+     * Fingerprints of the last deploy, where subjects without a verification time of their own take the one of the file
+     * written by former versions.
+     */
+    public Map<String, SchemaFingerprints.Subject> listPreviousFingerprints(final SchemaFingerprints previous) {
+        final Map<String, SchemaFingerprints.Subject> fingerprints = new TreeMap<>();
+        if (Objects.isNull(previous)) {
+            return fingerprints;
+        }
+        for (final Map.Entry<String, SchemaFingerprints.Subject> entry : previous.getSubjects().entrySet()) {
+            final SchemaFingerprints.Subject subject = entry.getValue();
+            final String verifiedAt = Objects.nonNull(subject.getVerifiedAt()) ? subject.getVerifiedAt() : previous.getVerifiedAt();
+            fingerprints.put(entry.getKey(), new SchemaFingerprints.Subject(subject.getFingerprint(), subject.getVersion(), subject.getCompatibilityMode(), verifiedAt));
+        }
+
+        return fingerprints;
+    }
+
+    public SchemaFingerprints readFingerprints(final String directory) throws IOException {
+        final SchemaFingerprints fingerprints = schemaFingerprintRepository.readFingerprints(getPathname(directory));
+        if (Objects.nonNull(fingerprints) && !Objects.equals(cluster, fingerprints.getCluster())) {
+            LOGGER.warn("Schema fingerprints have been written for cluster '{}' and are ignored for cluster '{}'", fingerprints.getCluster(), cluster);
+            return null;
+        }
+
+        return fingerprints;
+    }
+
+    public File writeFingerprints(final String directory, final SchemaFingerprints fingerprints) throws IOException {
+        final String pathname = getPathname(directory);
+        if (dryRun) {
+            LOGGER.info("Schema fingerprints to be written to {}", pathname);
+            return new File(pathname);
+        }
+
+        return schemaFingerprintRepository.writeFingerprints(fingerprints, pathname);
+    }
+
+    public boolean isVerificationDue(final SchemaFingerprints.Subject fingerprint) {
+        if (Objects.isNull(fingerprint) || Objects.isNull(fingerprint.getVerifiedAt())) {
+            return true;
+        }
+        try {
+            return !Instant.parse(fingerprint.getVerifiedAt()).plus(verificationInterval).isAfter(Instant.now());
+        } catch (DateTimeParseException e) {
+            LOGGER.warn("Schema fingerprint has an invalid verification time '{}'", fingerprint.getVerifiedAt());
+            return true;
+        }
+    }
+
+    private String getFingerprint(final Schema schema, final String directory) {
+        try {
+            return schemaRegistryRepository.getFingerprint(schema, directory);
+        } catch (Exception e) {
+            LOGGER.debug("No fingerprint for subject '{}': {}", schema.getSubject(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String getCompatibilityMode(final Schema schema) {
+        final Schema.CompatibilityMode compatibilityMode = schema.getCompatibilityMode();
+
+        return Objects.nonNull(compatibilityMode) ? compatibilityMode.toString() : null;
+    }
+
+    private String getPathname(final String directory) {
+        return new File(directory, "schemas-" + cluster + ".yaml").getPath();
     }
 
     @Override
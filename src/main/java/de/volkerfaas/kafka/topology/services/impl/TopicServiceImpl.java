@@ -92,7 +92,7 @@ public class TopicServiceImpl implements TopicService {
 
     @Override
     public Set<NewTopic> createNewTopics(final Collection<Domain> domains) throws ExecutionException, InterruptedException {
-        final Collection<String> topicNames = kafkaClusterRepository.getClusterConfiguration().listTopicNames();
+        final Collection<String> topicNames = kafkaClusterRepository.getClusterConfiguration().getTopicNames();
         return domains.stream()
                 .map(Domain::getVisibilities)
                 .flatMap(List::stream)
@@ -156,10 +156,7 @@ public class TopicServiceImpl implements TopicService {
     }
 
     public Map.Entry<String, NewPartitions> getNewPartitions(final Topic topic, final ClusterConfiguration clusterConfiguration) {
-        final TopicConfiguration topicConfiguration = clusterConfiguration.getTopics().stream()
-                .filter(t -> Objects.equals(t.getName(), topic.getFullName()))
-                .findFirst()
-                .orElse(null);
+        final TopicConfiguration topicConfiguration = clusterConfiguration.findTopic(topic.getFullName());
         if (Objects.nonNull(topicConfiguration) && topic.getNumPartitions() > topicConfiguration.getPartitions().size()) {
             return Map.entry(topic.getFullName(), NewPartitions.increaseTo(topic.getNumPartitions()));
         } else if (Objects.nonNull(topicConfiguration) && topic.getNumPartitions() < topicConfiguration.getPartitions().size()) {
@@ -176,8 +173,7 @@ public class TopicServiceImpl implements TopicService {
     }
 
     public boolean isTopicAvailable(final Topic topic, final Collection<String> existingTopicNames) {
-        return existingTopicNames.stream()
-                .anyMatch(item -> item.equals(topic.getFullName()));
+        return existingTopicNames.contains(topic.getFullName());
     }
 
     public boolean hasNoActiveConsumerGroups(final String topicName) throws ExecutionException, InterruptedException {
@@ -198,16 +194,13 @@ public class TopicServiceImpl implements TopicService {
 
     public Collection<ConsumerGroupConfiguration> listActiveConsumerGroups(final String topicName) throws ExecutionException, InterruptedException {
         return kafkaClusterRepository.getClusterConfiguration().getConsumerGroups().stream()
-                .filter(cg -> cg.getConsumers().stream().anyMatch(c -> Objects.equals(c.getPartition().getTopicName(), topicName)))
+                .filter(cg -> cg.getConsumers().stream().anyMatch(c -> Objects.nonNull(c.getPartition()) && Objects.equals(c.getPartition().getTopicName(), topicName)))
                 .filter(cg -> !Objects.equals(ConsumerGroupConfiguration.State.DEAD, cg.getState()))
                 .collect(Collectors.toList());
     }
 
     public Map.Entry<ConfigResource, Collection<AlterConfigOp>> listAlterConfigOpsByConfigResource(final Topic topic, final ClusterConfiguration clusterConfiguration) {
-        final TopicConfiguration topicConfiguration = clusterConfiguration.getTopics().stream()
-                .filter(t -> Objects.equals(t.getName(), topic.getFullName()))
-                .findFirst()
-                .orElse(null);
+        final TopicConfiguration topicConfiguration = clusterConfiguration.findTopic(topic.getFullName());
         if (Objects.isNull(topicConfiguration)) {
             return null;
         }
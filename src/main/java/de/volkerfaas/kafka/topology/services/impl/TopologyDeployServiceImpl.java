@@ -1,14 +1,22 @@
 package de.volkerfaas.kafka.topology.services.impl;
 
 import de.volkerfaas.kafka.cluster.model.TopicConfiguration;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
 import de.volkerfaas.kafka.topology.model.Domain;
 import de.volkerfaas.kafka.topology.model.Schema;
 import de.volkerfaas.kafka.topology.model.TopologyFile;
 import de.volkerfaas.kafka.topology.model.Visibility;
+import de.volkerfaas.kafka.topology.repositories.DeploymentPlanRepository;
 import de.volkerfaas.kafka.topology.repositories.TopologyFileRepository;
 import de.volkerfaas.kafka.topology.services.*;
 import de.volkerfaas.kafka.topology.validation.impl.ValidatorPayload;
+import de.volkerfaas.utils.MetricsInterceptor;
+import de.volkerfaas.utils.OperationGraph;
+import de.volkerfaas.utils.StageTimings;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.kafka.clients.admin.AlterConfigOp;
 import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -23,9 +31,12 @@ import org.springframework.stereotype.Service;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -35,6 +46,9 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
     private static final Logger LOGGER = LoggerFactory.getLogger(TopologyDeployServiceImpl.class);
 
     private final AccessControlService accessControlService;
+    private final DeployProperties deployProperties;
+    private final DeploymentPlanRepository deploymentPlanRepository;
+    private final MeterRegistry meterRegistry;
     private final SchemaFileService schemaFileService;
     private final TopicService topicService;
     private final TopologyValuesService topologyValuesService;
@@ -42,8 +56,11 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
     private final Validator validator;
 
     @Autowired
-    public TopologyDeployServiceImpl(final AccessControlService accessControlService, final SchemaFileService schemaFileService, final TopicService topicService, final TopologyValuesService topologyValuesService, final TopologyFileRepository topologyFileRepository, final Validator validator) {
+    public TopologyDeployServiceImpl(final AccessControlService accessControlService, final SchemaFileService schemaFileService, final TopicService topicService, final TopologyValuesService topologyValuesService, final TopologyFileRepository topologyFileRepository, final Validator validator, final DeploymentPlanRepository deploymentPlanRepository, final DeployProperties deployProperties, final MeterRegistry meterRegistry) {
         this.accessControlService = accessControlService;
+        this.deployProperties = deployProperties;
+        this.deploymentPlanRepository = deploymentPlanRepository;
+        this.meterRegistry = meterRegistry;
         this.schemaFileService = schemaFileService;
         this.topicService = topicService;
         this.topologyValuesService = topologyValuesService;
@@ -51,6 +68,62 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
         this.validator = validator;
     }
 
+    @Override
+    public void applyDeploymentPlan(final DeploymentPlan plan, final String directory) throws ExecutionException, InterruptedException {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            applyOperations(plan, directory);
+        } finally {
+            stopPhase(sample, "apply");
+        }
+    }
+
+    private void applyOperations(final DeploymentPlan plan, final String directory) throws ExecutionException, InterruptedException {
+        final OperationGraph operations = new OperationGraph()
+                .add("registerSchemas", () -> schemaFileService.registerSchemas(plan.getSchemas(), directory))
+                .add("createTopics", () -> topicService.createTopics(plan.getNewTopics()), "registerSchemas")
+                .add("createAcls", () -> accessControlService.createAccessControlLists(plan.getNewAclBindings()), "registerSchemas")
+                .add("createPartitions", () -> topicService.createPartitions(plan.getNewPartitions()), "registerSchemas")
+                .add("updateConfigs", () -> topicService.updateConfigs(plan.getAlterConfigOperations()), "createTopics");
+        if (!plan.getOrphanedAclBindings().isEmpty()) {
+            operations.add("deleteAcls", () -> accessControlService.deleteAccessControlLists(plan.getOrphanedAclBindings()), "createAcls");
+        }
+        if (!plan.getOrphanedTopics().isEmpty()) {
+            operations.add("deleteTopics", () -> topicService.deleteTopics(plan.getOrphanedTopics()), "createTopics", "createPartitions", "updateConfigs");
+        }
+        if (!plan.getOrphanedSubjects().isEmpty()) {
+            final String[] dependencies = plan.getOrphanedTopics().isEmpty() ? new String[]{"registerSchemas"} : new String[]{"registerSchemas", "deleteTopics"};
+            operations.add("deleteSubjects", () -> schemaFileService.deleteSubjects(plan.getOrphanedSubjects()), dependencies);
+        }
+        final StageTimings timings = operations.execute(getParallelism());
+        LOGGER.info("Deployment plan applied in {} ms", timings.elapsed());
+        LOGGER.debug("Stages of deployment: {}", timings);
+    }
+
+    @Override
+    public DeploymentPlan createDeploymentPlan(final Collection<Domain> domains, final Collection<Domain> allDomains, final String cluster, final String directory, final boolean allowDeleteAcl, final boolean allowDeleteSubjects, final boolean allowDeleteTopics) throws ExecutionException, InterruptedException, IOException, RestClientException {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return planOperations(domains, allDomains, cluster, directory, allowDeleteAcl, allowDeleteSubjects, allowDeleteTopics);
+        } finally {
+            stopPhase(sample, "plan");
+        }
+    }
+
+    private DeploymentPlan planOperations(final Collection<Domain> domains, final Collection<Domain> allDomains, final String cluster, final String directory, final boolean allowDeleteAcl, final boolean allowDeleteSubjects, final boolean allowDeleteTopics) throws ExecutionException, InterruptedException, IOException, RestClientException {
+        final Collection<NewTopic> newTopics = topicService.createNewTopics(domains);
+        final Collection<AclBinding> newAclBindings = accessControlService.listNewAclBindings(domains, allDomains);
+        final Map<String, NewPartitions> newPartitions = topicService.createNewPartitions(domains);
+        final Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOperations = topicService.createAlterConfigOperations(domains);
+        final Collection<Schema> schemas = schemaFileService.listSchemasByDomains(domains);
+        final Map<String, String> schemaFingerprints = Objects.nonNull(directory) ? schemaFileService.listFingerprints(schemas, directory) : Collections.emptyMap();
+        final Collection<AclBindingFilter> orphanedAclBindings = allowDeleteAcl ? accessControlService.listOrphanedAclBindings(domains, allDomains) : Collections.emptyList();
+        final Collection<String> orphanedTopics = allowDeleteTopics ? topicService.listOrphanedTopics(domains) : Collections.emptyList();
+        final Collection<String> orphanedSubjects = allowDeleteSubjects ? schemaFileService.listOrphanedSubjects(topicService.listTopicNames(domains)) : Collections.emptyList();
+
+        return new DeploymentPlan(cluster, Instant.now(), schemas, schemaFingerprints, newTopics, newAclBindings, newPartitions, alterConfigOperations, orphanedAclBindings, orphanedTopics, orphanedSubjects);
+    }
+
     @Override
     public void deleteOrphanedAclBindings(final Collection<Domain> domains) throws ExecutionException, InterruptedException {
         final Collection<AclBindingFilter> orphanedAclBindings = accessControlService.listOrphanedAclBindings(domains);
@@ -72,11 +145,28 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
 
     @Override
     public boolean isTopologyValid(final Collection<TopologyFile> topologies, final String directory) throws ExecutionException, InterruptedException {
+        return isTopologyValid(topologies, topologies, directory);
+    }
+
+    @Override
+    public boolean isTopologyValid(final Collection<TopologyFile> topologies, final Collection<TopologyFile> topologiesToValidate, final String directory) throws ExecutionException, InterruptedException {
+        if (topologiesToValidate.isEmpty()) {
+            return true;
+        }
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return validateTopologies(topologies, topologiesToValidate, directory);
+        } finally {
+            stopPhase(sample, "validate");
+        }
+    }
+
+    private boolean validateTopologies(final Collection<TopologyFile> topologies, final Collection<TopologyFile> topologiesToValidate, final String directory) throws ExecutionException, InterruptedException {
         final Collection<TopicConfiguration> topicConfigurations = topicService.listTopicsInCluster();
         final ValidatorPayload validatorPayload = new ValidatorPayload(directory, topologies, topicConfigurations);
         final HibernateValidatorFactory validatorFactory = this.validator.unwrap(HibernateValidatorFactory.class);
         final Validator hibernateValidator = validatorFactory.usingContext().constraintValidatorPayload(validatorPayload).getValidator();
-        final Set<ConstraintViolation<TopologyFile>> violations = topologies.stream()
+        final Set<ConstraintViolation<TopologyFile>> violations = topologiesToValidate.stream()
                 .peek(topology -> LOGGER.info("Validating topology '{}'", topology.getFile()))
                 .map((Function<TopologyFile, Set<ConstraintViolation<TopologyFile>>>) hibernateValidator::validate)
                 .flatMap(Set::stream)
@@ -90,13 +180,81 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
         }
     }
 
+    /**
+     * Subjects whose schema files have been changed, added or removed since the deployment plan has been created.
+     */
+    @Override
+    public Collection<String> listChangedSchemas(final DeploymentPlan plan, final String directory) {
+        final Map<String, String> fingerprints = schemaFileService.listFingerprints(plan.getSchemas(), directory);
+
+        return plan.getSchemas().stream()
+                .map(Schema::getSubject)
+                .filter(subject -> !Objects.equals(plan.getSchemaFingerprints().get(subject), fingerprints.get(subject)))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Reads and parses the topology files on as many threads as deployments run in parallel.
+     */
     @Override
     public Set<TopologyFile> listTopologies(final String directory) {
-        return topologyFileRepository.listTopologyFiles(directory).stream()
-                .map(topologyFileRepository::readTopology)
-                .filter(Objects::nonNull)
-                .map(topologyValuesService::addAdditionalValues)
-                .collect(Collectors.toUnmodifiableSet());
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return parseTopologies(directory);
+        } finally {
+            stopPhase(sample, "parse");
+        }
+    }
+
+    private Set<TopologyFile> parseTopologies(final String directory) {
+        final Set<String> pathnames = topologyFileRepository.listTopologyFiles(directory);
+        final int parallelism = Math.min(getParallelism(), pathnames.size());
+        if (parallelism < 2) {
+            return pathnames.stream()
+                    .map(this::readTopology)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "parse-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<CompletableFuture<TopologyFile>> topologies = pathnames.stream()
+                    .map(pathname -> CompletableFuture.supplyAsync(() -> readTopology(pathname), executor))
+                    .collect(Collectors.toUnmodifiableList());
+
+            return topologies.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableSet());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public TopologyFile readTopology(final String pathname) {
+        final TopologyFile topology = topologyFileRepository.readTopology(pathname);
+
+        return Objects.isNull(topology) ? null : topologyValuesService.addAdditionalValues(topology);
+    }
+
+    @Override
+    public DeploymentPlan readDeploymentPlan(final String pathname) throws IOException {
+        return deploymentPlanRepository.readPlan(pathname);
+    }
+
+    @Override
+    public File writeDeploymentPlan(final DeploymentPlan plan, final String pathname) throws IOException {
+        return deploymentPlanRepository.writePlan(plan, pathname);
     }
 
     @Override
@@ -109,6 +267,20 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
                 .collect(Collectors.toUnmodifiableList());
     }
 
+    /**
+     * The phases call each other within this bean, so they are timed here instead of by a proxy.
+     */
+    private void stopPhase(final Timer.Sample sample, final String phase) {
+        sample.stop(Timer.builder("kcm.phase")
+                .tag("phase", phase)
+                .serviceLevelObjectives(MetricsInterceptor.TIMER_BUCKETS)
+                .register(meterRegistry));
+    }
+
+    private int getParallelism() {
+        return Objects.isNull(deployProperties) ? 1 : deployProperties.getParallelism();
+    }
+
     public void removeTopicsNotInCluster(final Collection<TopologyFile> topologies, String cluster) {
         topologies.stream()
                 .map(TopologyFile::getDomain)
@@ -119,20 +291,12 @@ public class TopologyDeployServiceImpl implements TopologyDeployService {
     }
 
     @Override
-    public void updateTopology(final Collection<Domain> domains, final String directory) throws ExecutionException, InterruptedException {
+    public void updateTopology(final Collection<Domain> domains, final Collection<Domain> allDomains, final String directory) throws ExecutionException, InterruptedException, IOException, RestClientException {
         if (domains.isEmpty()) {
             return;
         }
-        final Collection<NewTopic> newTopics = topicService.createNewTopics(domains);
-        final Collection<AclBinding> newAclBindings = accessControlService.listNewAclBindings(domains);
-        final Map<String, NewPartitions> newPartitions = topicService.createNewPartitions(domains);
-        final Map<ConfigResource, Collection<AlterConfigOp>> alterConfigOperations = topicService.createAlterConfigOperations(domains);
-        final Collection<Schema> schemas = schemaFileService.listSchemasByDomains(domains);
-        schemaFileService.registerSchemas(schemas, directory);
-        topicService.createTopics(newTopics);
-        accessControlService.createAccessControlLists(newAclBindings);
-        topicService.createPartitions(newPartitions);
-        topicService.updateConfigs(alterConfigOperations);
+        final DeploymentPlan plan = createDeploymentPlan(domains, allDomains, null, null, false, false, false);
+        applyDeploymentPlan(plan, directory);
     }
 
 }
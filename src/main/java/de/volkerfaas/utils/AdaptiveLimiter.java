@@ -0,0 +1,110 @@
+package de.volkerfaas.utils;
+
+import java.time.Duration;
+
+/**
+ * Limits chunk size and requests in flight with additive increase and multiplicative decrease (AIMD). Limits grow by
+ * one step after a full window of healthy requests and are cut by the decrease factor on congestion.
+ */
+public class AdaptiveLimiter implements AdaptiveLimiterMXBean {
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final int chunkSizeIncrement;
+    private final int maxInFlightLimit;
+    private final long latencyTarget;
+    private final double decreaseFactor;
+
+    private int chunkSize;
+    private int maxInFlight;
+    private int inFlight;
+    private int healthySinceIncrease;
+    private long lastDecreaseAt;
+    private long increases;
+    private long decreases;
+
+    public AdaptiveLimiter(int chunkSize, int minChunkSize, int maxChunkSize, int chunkSizeIncrement, int maxInFlight, int maxInFlightLimit, Duration latencyTarget, double decreaseFactor) {
+        if (minChunkSize < 1 || maxChunkSize < minChunkSize) {
+            throw new IllegalArgumentException("Chunk size limits must be greater than zero and ordered.");
+        }
+        if (maxInFlightLimit < 1) {
+            throw new IllegalArgumentException("Limit of requests in flight must be greater than zero.");
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Decrease factor must be between zero and one.");
+        }
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.chunkSizeIncrement = chunkSizeIncrement;
+        this.maxInFlightLimit = maxInFlightLimit;
+        this.latencyTarget = latencyTarget.toNanos();
+        this.decreaseFactor = decreaseFactor;
+        this.chunkSize = Math.max(minChunkSize, Math.min(maxChunkSize, chunkSize));
+        this.maxInFlight = Math.max(1, Math.min(maxInFlightLimit, maxInFlight));
+        this.lastDecreaseAt = System.nanoTime();
+    }
+
+    /**
+     * Waits until another request may be sent and returns the time it was started at, which has to be passed to
+     * {@link #release(long, boolean)} once the request has completed.
+     */
+    public synchronized long acquire() throws InterruptedException {
+        while (inFlight >= maxInFlight) {
+            wait();
+        }
+        inFlight++;
+
+        return System.nanoTime();
+    }
+
+    public synchronized void release(long startedAt, boolean congested) {
+        inFlight--;
+        if (congested || System.nanoTime() - startedAt > latencyTarget) {
+            // requests started before the last decrease have already been accounted for
+            if (startedAt > lastDecreaseAt) {
+                chunkSize = Math.max(minChunkSize, (int) (chunkSize * decreaseFactor));
+                maxInFlight = Math.max(1, (int) (maxInFlight * decreaseFactor));
+                healthySinceIncrease = 0;
+                lastDecreaseAt = System.nanoTime();
+                decreases++;
+            }
+        } else if (++healthySinceIncrease >= maxInFlight) {
+            chunkSize = Math.min(maxChunkSize, chunkSize + chunkSizeIncrement);
+            maxInFlight = Math.min(maxInFlightLimit, maxInFlight + 1);
+            healthySinceIncrease = 0;
+            increases++;
+        }
+        notifyAll();
+    }
+
+    @Override
+    public synchronized int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public synchronized int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public synchronized long getIncreases() {
+        return increases;
+    }
+
+    @Override
+    public synchronized long getDecreases() {
+        return decreases;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "chunkSize=" + chunkSize + ", maxInFlight=" + maxInFlight + ", increases=" + increases + ", decreases=" + decreases;
+    }
+
+}
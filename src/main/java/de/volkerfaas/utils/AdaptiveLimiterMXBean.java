@@ -0,0 +1,15 @@
+package de.volkerfaas.utils;
+
+public interface AdaptiveLimiterMXBean {
+
+    int getChunkSize();
+
+    int getMaxInFlight();
+
+    int getInFlight();
+
+    long getIncreases();
+
+    long getDecreases();
+
+}
@@ -0,0 +1,81 @@
+package de.volkerfaas.utils;
+
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Encoding shared by the binary files of this application, i.e. cluster snapshots and deployment plans. Values that
+ * may be absent are preceded by a presence flag.
+ */
+public class BinaryCodec {
+
+    private BinaryCodec() {
+        throw new AssertionError("No de.volkerfaas.utils.BinaryCodec instances for you!");
+    }
+
+    public static String readNullableUTF(final DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    public static void writeNullableUTF(final DataOutput output, final String value) throws IOException {
+        output.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            output.writeUTF(value);
+        }
+    }
+
+    public static Map<String, String> readStringMap(final DataInput input) throws IOException {
+        final int size = input.readInt();
+        final Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final String key = input.readUTF();
+            map.put(key, readNullableUTF(input));
+        }
+
+        return map;
+    }
+
+    public static void writeStringMap(final DataOutput output, final Map<String, String> map) throws IOException {
+        output.writeInt(map.size());
+        for (final Map.Entry<String, String> entry : map.entrySet()) {
+            output.writeUTF(entry.getKey());
+            writeNullableUTF(output, entry.getValue());
+        }
+    }
+
+    public static List<AclBinding> readAclBindings(final DataInput input) throws IOException {
+        final int size = input.readInt();
+        final List<AclBinding> aclBindings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ResourcePattern resourcePattern = new ResourcePattern(ResourceType.fromCode(input.readByte()), input.readUTF(), PatternType.fromCode(input.readByte()));
+            final AccessControlEntry accessControlEntry = new AccessControlEntry(input.readUTF(), input.readUTF(), AclOperation.fromCode(input.readByte()), AclPermissionType.fromCode(input.readByte()));
+            aclBindings.add(new AclBinding(resourcePattern, accessControlEntry));
+        }
+
+        return aclBindings;
+    }
+
+    public static void writeAclBindings(final DataOutput output, final Collection<AclBinding> aclBindings) throws IOException {
+        output.writeInt(aclBindings.size());
+        for (final AclBinding aclBinding : aclBindings) {
+            output.writeByte(aclBinding.pattern().resourceType().code());
+            output.writeUTF(aclBinding.pattern().name());
+            output.writeByte(aclBinding.pattern().patternType().code());
+            output.writeUTF(aclBinding.entry().principal());
+            output.writeUTF(aclBinding.entry().host());
+            output.writeByte(aclBinding.entry().operation().code());
+            output.writeByte(aclBinding.entry().permissionType().code());
+        }
+    }
+
+}
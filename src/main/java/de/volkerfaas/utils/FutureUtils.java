@@ -0,0 +1,96 @@
+package de.volkerfaas.utils;
+
+import org.apache.kafka.common.KafkaFuture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public final class FutureUtils {
+
+    private FutureUtils() {
+        throw new AssertionError("No de.volkerfaas.utils.FutureUtils instances for you!");
+    }
+
+    public static <T> CompletableFuture<T> toCompletableFuture(final KafkaFuture<T> kafkaFuture) {
+        final CompletableFuture<T> completableFuture = new CompletableFuture<>();
+        kafkaFuture.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                completableFuture.completeExceptionally(throwable);
+            } else {
+                completableFuture.complete(value);
+            }
+        });
+
+        return completableFuture;
+    }
+
+    public static <T> List<List<T>> partition(final Collection<T> items, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be greater than zero.");
+        }
+        final List<T> list = new ArrayList<>(items);
+        final List<List<T>> chunks = new ArrayList<>();
+        for (int index = 0; index < list.size(); index += chunkSize) {
+            chunks.add(List.copyOf(list.subList(index, Math.min(index + chunkSize, list.size()))));
+        }
+
+        return chunks;
+    }
+
+    public static <T, R> CompletableFuture<List<R>> mapChunked(final Collection<T> items, final int chunkSize, final int maxInFlight, final Function<List<T>, CompletableFuture<R>> function) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Maximum of chunks in flight must be greater than zero.");
+        }
+        final List<List<T>> chunks = partition(items, chunkSize);
+        if (chunks.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        final List<R> results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining = new AtomicInteger(chunks.size());
+        final CompletableFuture<List<R>> result = new CompletableFuture<>();
+        final Runnable submitNext = new Runnable() {
+            @Override
+            public void run() {
+                final int index = next.getAndIncrement();
+                if (index >= chunks.size() || result.isDone()) {
+                    return;
+                }
+                final CompletableFuture<R> chunkResult;
+                try {
+                    chunkResult = function.apply(chunks.get(index));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                chunkResult.whenCompleteAsync((value, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                        return;
+                    }
+                    synchronized (results) {
+                        results.set(index, value);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        synchronized (results) {
+                            result.complete(Collections.unmodifiableList(results));
+                        }
+                    } else {
+                        run();
+                    }
+                });
+            }
+        };
+        for (int i = 0; i < Math.min(maxInFlight, chunks.size()); i++) {
+            submitNext.run();
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,26 @@
+package de.volkerfaas.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class HashUtils {
+
+    private HashUtils() {
+        throw new AssertionError("No de.volkerfaas.utils.HashUtils instances for you!");
+    }
+
+    public static String sha256(final byte[] bytes) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            final StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package de.volkerfaas.utils;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InstrumentedCache extends AbstractValueAdaptingCache {
+
+    public static class Statistics {
+
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder loadFailures = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder loadTime = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getLoadFailures() {
+            return loadFailures.sum();
+        }
+
+        public long getLoads() {
+            return loads.sum();
+        }
+
+        public long getLoadTime() {
+            return TimeUnit.NANOSECONDS.toMillis(loadTime.sum());
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public double getHitRate() {
+            final long requests = getHits() + getMisses();
+            return requests == 0 ? 0.0 : (double) getHits() / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, hitRate=%.1f%%, loads=%d, loadFailures=%d, loadTime=%dms, evictions=%d",
+                    getHits(), getMisses(), getHitRate() * 100, getLoads(), getLoadFailures(), getLoadTime(), getEvictions());
+        }
+
+    }
+
+    private static class Entry {
+
+        private final Object value;
+        private final long createdAt;
+
+        private Entry(Object value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+
+    }
+
+    private final String name;
+    private final long maxSize;
+    private final long ttl;
+    private final LinkedHashMap<Object, Entry> entries;
+    private final Map<Object, CompletableFuture<Object>> loadings;
+    private final Statistics statistics;
+
+    public InstrumentedCache(String name, Duration ttl, long maxSize) {
+        super(true);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size of cache '" + name + "' must be greater than zero.");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttl = Objects.isNull(ttl) || ttl.isZero() || ttl.isNegative() ? -1 : ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.loadings = new ConcurrentHashMap<>();
+        this.statistics = new Statistics();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        final Object value;
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (Objects.nonNull(entry) && isExpired(entry)) {
+                entries.remove(key);
+                statistics.evictions.increment();
+                value = null;
+            } else {
+                value = Objects.nonNull(entry) ? entry.value : null;
+            }
+        }
+        if (Objects.isNull(value)) {
+            statistics.misses.increment();
+        } else {
+            statistics.hits.increment();
+        }
+
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        final ValueWrapper cached = get(key);
+        if (Objects.nonNull(cached)) {
+            return (T) cached.get();
+        }
+        final CompletableFuture<Object> loading = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = loadings.putIfAbsent(key, loading);
+        if (Objects.nonNull(existing)) {
+            try {
+                return (T) fromStoreValue(existing.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        // another loading may have completed between the miss and winning the race for the loading
+        final Object loaded = peek(key);
+        if (Objects.nonNull(loaded)) {
+            loading.complete(loaded);
+            loadings.remove(key, loading);
+            return (T) fromStoreValue(loaded);
+        }
+        final long startedAt = System.nanoTime();
+        try {
+            final T value = valueLoader.call();
+            statistics.loads.increment();
+            put(key, value);
+            loading.complete(toStoreValue(value));
+
+            return value;
+        } catch (Exception e) {
+            statistics.loadFailures.increment();
+            loading.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            statistics.loadTime.add(System.nanoTime() - startedAt);
+            loadings.remove(key, loading);
+        }
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        entries.put(key, new Entry(toStoreValue(value), System.nanoTime()));
+        final Iterator<Object> keys = entries.keySet().iterator();
+        while (entries.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            statistics.evictions.increment();
+        }
+    }
+
+    @Override
+    public synchronized ValueWrapper putIfAbsent(Object key, Object value) {
+        final Entry entry = entries.get(key);
+        if (Objects.nonNull(entry) && !isExpired(entry)) {
+            return toValueWrapper(entry.value);
+        }
+        put(key, value);
+
+        return null;
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized Object peek(Object key) {
+        final Entry entry = entries.get(key);
+
+        return Objects.nonNull(entry) && !isExpired(entry) ? entry.value : null;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttl >= 0 && System.nanoTime() - entry.createdAt > ttl;
+    }
+
+}
@@ -0,0 +1,59 @@
+package de.volkerfaas.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class InstrumentedCacheManager implements CacheManager, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentedCacheManager.class);
+
+    private final Map<String, InstrumentedCache> caches;
+
+    public InstrumentedCacheManager(Collection<InstrumentedCache> caches) {
+        this.caches = new LinkedHashMap<>();
+        caches.forEach(cache -> this.caches.put(cache.getName(), cache));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Exposes size and statistics of every cache, tagged with the cache name.
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        caches.values().forEach(cache -> {
+            final String name = cache.getName();
+            Gauge.builder("kcm.cache.size", cache, InstrumentedCache::size).tag("cache", name).register(meterRegistry);
+            FunctionCounter.builder("kcm.cache.gets", cache, c -> c.getStatistics().getHits()).tags("cache", name, "result", "hit").register(meterRegistry);
+            FunctionCounter.builder("kcm.cache.gets", cache, c -> c.getStatistics().getMisses()).tags("cache", name, "result", "miss").register(meterRegistry);
+            FunctionCounter.builder("kcm.cache.loads", cache, c -> c.getStatistics().getLoads()).tags("cache", name, "result", "success").register(meterRegistry);
+            FunctionCounter.builder("kcm.cache.loads", cache, c -> c.getStatistics().getLoadFailures()).tags("cache", name, "result", "failure").register(meterRegistry);
+            FunctionCounter.builder("kcm.cache.load.duration", cache, c -> c.getStatistics().getLoadTime() / 1000.0).tag("cache", name).baseUnit("seconds").register(meterRegistry);
+            FunctionCounter.builder("kcm.cache.evictions", cache, c -> c.getStatistics().getEvictions()).tag("cache", name).register(meterRegistry);
+        });
+    }
+
+    public void logStatistics() {
+        caches.values().forEach(cache -> LOGGER.info("Cache '{}' holds {} entries: {}", cache.getName(), cache.size(), cache.getStatistics()));
+    }
+
+}
@@ -0,0 +1,50 @@
+package de.volkerfaas.utils;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+public class MemoizingSupplier<T> implements Supplier<T> {
+
+    private final Supplier<T> delegate;
+    private volatile boolean initialized;
+    private T value;
+
+    private MemoizingSupplier(final Supplier<T> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    public static <T> MemoizingSupplier<T> of(final Supplier<T> delegate) {
+        return new MemoizingSupplier<>(delegate);
+    }
+
+    public static <T> MemoizingSupplier<T> ofValue(final T value) {
+        final MemoizingSupplier<T> supplier = new MemoizingSupplier<>(() -> value);
+        supplier.get();
+
+        return supplier;
+    }
+
+    @Override
+    public T get() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    value = delegate.get();
+                    initialized = true;
+                }
+            }
+        }
+
+        return value;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public String toString() {
+        return initialized ? String.valueOf(value) : "<not loaded>";
+    }
+
+}
@@ -0,0 +1,110 @@
+package de.volkerfaas.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Records latency, outcome and payload size of every call to the methods declared by the given interfaces. Calls of
+ * a bean to its own methods bypass the proxy and are not recorded.
+ */
+public class MetricsInterceptor implements MethodInterceptor {
+
+    public static final Duration[] TIMER_BUCKETS = Arrays.stream(new long[]{1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000})
+            .mapToObj(Duration::ofMillis)
+            .toArray(Duration[]::new);
+    private static final double[] SUMMARY_BUCKETS = {1, 10, 100, 1000, 10000, 100000};
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String name;
+    private final List<Class<?>> interfaces;
+
+    public MetricsInterceptor(Supplier<MeterRegistry> meterRegistry, String name, Class<?>... interfaces) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.interfaces = List.of(interfaces);
+    }
+
+    public static Advisor advisor(Supplier<MeterRegistry> meterRegistry, String name, Class<?>... interfaces) {
+        final MetricsInterceptor interceptor = new MetricsInterceptor(meterRegistry, name, interfaces);
+        final StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Objects.nonNull(interceptor.getComponent(targetClass, method));
+            }
+
+        };
+
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final Method method = invocation.getMethod();
+        final Class<?> targetClass = Objects.nonNull(invocation.getThis()) ? invocation.getThis().getClass() : method.getDeclaringClass();
+        final Tags tags = Tags.of("component", String.valueOf(getComponent(targetClass, method)), "method", method.getName());
+        final long payloadSize = getPayloadSize(invocation.getArguments());
+        final MeterRegistry meterRegistry = this.meterRegistry.get();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            final Object result = invocation.proceed();
+            outcome = "success";
+            return result;
+        } catch (Throwable e) {
+            meterRegistry.counter(name + ".errors", tags.and("exception", e.getClass().getSimpleName())).increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tags(tags.and("outcome", outcome))
+                    .serviceLevelObjectives(TIMER_BUCKETS)
+                    .register(meterRegistry));
+            if (payloadSize >= 0) {
+                DistributionSummary.builder(name + ".payload")
+                        .tags(tags)
+                        .serviceLevelObjectives(SUMMARY_BUCKETS)
+                        .register(meterRegistry)
+                        .record(payloadSize);
+            }
+        }
+    }
+
+    private String getComponent(Class<?> targetClass, Method method) {
+        return interfaces.stream()
+                .filter(type -> type.isAssignableFrom(targetClass))
+                .filter(type -> Objects.nonNull(ReflectionUtils.findMethod(type, method.getName(), method.getParameterTypes())))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Number of elements of all collection and map arguments, or -1 if there are none.
+     */
+    private static long getPayloadSize(Object[] arguments) {
+        long size = -1;
+        for (final Object argument : arguments) {
+            if (argument instanceof Collection) {
+                size = Math.max(size, 0) + ((Collection<?>) argument).size();
+            } else if (argument instanceof Map) {
+                size = Math.max(size, 0) + ((Map<?, ?>) argument).size();
+            }
+        }
+
+        return size;
+    }
+
+}
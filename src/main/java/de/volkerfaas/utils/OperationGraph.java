@@ -0,0 +1,147 @@
+package de.volkerfaas.utils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs named operations as soon as all of their dependencies have completed. Independent operations run at the same
+ * time on a bounded thread pool; the first failing operation cancels everything that is still pending or running.
+ */
+public class OperationGraph {
+
+    @FunctionalInterface
+    public interface Operation {
+
+        void run() throws Exception;
+
+    }
+
+    private static class Node {
+
+        private final String name;
+        private final Operation operation;
+        private final List<String> dependencies;
+
+        private Node(String name, Operation operation, List<String> dependencies) {
+            this.name = name;
+            this.operation = operation;
+            this.dependencies = dependencies;
+        }
+
+    }
+
+    private final Map<String, Node> nodes;
+
+    public OperationGraph() {
+        this.nodes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds an operation. Dependencies have to be added before, which keeps the graph free of cycles.
+     */
+    public OperationGraph add(final String name, final Operation operation, final String... dependencies) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Operation '" + name + "' has already been added.");
+        }
+        for (final String dependency : dependencies) {
+            if (!nodes.containsKey(dependency)) {
+                throw new IllegalArgumentException("Operation '" + name + "' depends on unknown operation '" + dependency + "'.");
+            }
+        }
+        nodes.put(name, new Node(name, operation, List.of(dependencies)));
+
+        return this;
+    }
+
+    public StageTimings execute(final int parallelism) throws ExecutionException, InterruptedException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be greater than zero.");
+        }
+        final StageTimings timings = new StageTimings();
+        if (nodes.isEmpty()) {
+            return timings;
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, nodes.size()), runnable -> {
+            final Thread thread = new Thread(runnable, "operation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Map<String, CompletableFuture<Void>> futures = new ConcurrentHashMap<>();
+        try {
+            for (final Node node : nodes.values()) {
+                final CompletableFuture<?>[] dependencies = node.dependencies.stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture<?>[]::new);
+                final CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+                        .thenCompose(ignored -> timings.record(node.name, () -> CompletableFuture.runAsync(() -> run(node, failure), executor)))
+                        .whenComplete((value, throwable) -> {
+                            if (Objects.nonNull(throwable) && failure.compareAndSet(null, unwrap(throwable))) {
+                                futures.values().forEach(pending -> pending.cancel(true));
+                                executor.shutdownNow();
+                            }
+                        });
+                futures.put(node.name, future);
+            }
+            try {
+                CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new)).get();
+            } catch (ExecutionException | CancellationException e) {
+                throw toExecutionException(Objects.requireNonNullElse(failure.get(), e));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return timings;
+    }
+
+    private static void run(final Node node, final AtomicReference<Throwable> failure) {
+        if (Objects.nonNull(failure.get())) {
+            throw new CompletionException(new InterruptedException("Operation '" + node.name + "' has been cancelled."));
+        }
+        try {
+            node.operation.run();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && Objects.nonNull(cause.getCause())) {
+            cause = cause.getCause();
+        }
+
+        return cause;
+    }
+
+    private static ExecutionException toExecutionException(final Throwable throwable) throws InterruptedException {
+        if (throwable instanceof ExecutionException) {
+            return (ExecutionException) throwable;
+        }
+        if (throwable instanceof InterruptedException) {
+            throw (InterruptedException) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+
+        return new ExecutionException(throwable);
+    }
+
+}
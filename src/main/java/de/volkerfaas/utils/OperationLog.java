@@ -0,0 +1,140 @@
+package de.volkerfaas.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.freva.asciitable.AsciiTable;
+import com.github.freva.asciitable.ColumnData;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reports operations either as human readable tables, which are capped to a maximum number of rows, or as a stream
+ * of JSON lines with one line per operation, written as soon as the operation has completed.
+ */
+public class OperationLog implements Closeable {
+
+    public enum Format {
+
+        TABLE, JSON;
+
+        public static Format valueOfName(String name) {
+            return Arrays.stream(values())
+                    .filter(format -> format.name().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Output format '" + name + "' is not supported, use one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT) + "."));
+        }
+
+    }
+
+    public enum Outcome {
+
+        SUCCESS, FAILURE, DRY_RUN;
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static PrintStream standardOutput = System.out;
+
+    private final Format format;
+    private final int maxTableRows;
+    private final PrintStream out;
+
+    public OperationLog() {
+        this(Format.TABLE, 100, System.out);
+    }
+
+    public OperationLog(Format format, int maxTableRows, PrintStream out) {
+        this.format = format;
+        this.maxTableRows = maxTableRows;
+        this.out = out;
+    }
+
+    /**
+     * Sends everything else written to System.out, like logging and the banner, to standard error, so that standard
+     * output carries the JSON lines only. Returns the original standard output, also on subsequent calls.
+     */
+    public static synchronized PrintStream reserveStandardOutput() {
+        if (System.out != System.err) {
+            standardOutput = System.out;
+            System.setOut(System.err);
+        }
+
+        return standardOutput;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public boolean isJson() {
+        return format == Format.JSON;
+    }
+
+    public void record(String type, Object resource, Outcome outcome, long latency) {
+        record(type, resource, outcome, latency, 1, null);
+    }
+
+    public void record(String type, Object resource, Outcome outcome, long latency, int attempt, Throwable error) {
+        if (!isJson()) {
+            return;
+        }
+        final Map<String, Object> line = new LinkedHashMap<>();
+        line.put("timestamp", Instant.now().toString());
+        line.put("type", type);
+        line.put("resource", String.valueOf(resource));
+        line.put("outcome", outcome.getName());
+        line.put("latency", latency);
+        line.put("attempt", attempt);
+        if (Objects.nonNull(error)) {
+            line.put("error", error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+        try {
+            final String json = OBJECT_MAPPER.writeValueAsString(line);
+            synchronized (out) {
+                out.println(json);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void recordAll(String type, Collection<?> resources, Outcome outcome, long latency, Throwable error) {
+        if (isJson() && Objects.nonNull(resources)) {
+            resources.forEach(resource -> record(type, resource, outcome, latency, 1, error));
+        }
+    }
+
+    /**
+     * Prints the first rows as table followed by the number of omitted rows. Nothing is printed in JSON format, where
+     * each operation has been recorded already.
+     */
+    public <T> void printTable(Collection<T> rows, List<ColumnData<T>> columns) {
+        if (isJson() || Objects.isNull(rows) || rows.isEmpty()) {
+            return;
+        }
+        final List<T> shownRows = rows.stream()
+                .limit(maxTableRows)
+                .collect(Collectors.toList());
+        final StringBuilder table = new StringBuilder(AsciiTable.getTable(shownRows, columns));
+        if (rows.size() > shownRows.size()) {
+            table.append(System.lineSeparator()).append("... and ").append(rows.size() - shownRows.size()).append(" more");
+        }
+        out.println(table);
+    }
+
+    @Override
+    public void close() {
+        if (out != System.out && out != standardOutput) {
+            out.close();
+        }
+    }
+
+}
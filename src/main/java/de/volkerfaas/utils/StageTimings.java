@@ -0,0 +1,79 @@
+package de.volkerfaas.utils;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class StageTimings {
+
+    public static class Stage {
+
+        private final String name;
+        private final long startedAt;
+        private final long finishedAt;
+
+        public Stage(String name, long startedAt, long finishedAt) {
+            this.name = name;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public long getFinishedAt() {
+            return finishedAt;
+        }
+
+        public long getDuration() {
+            return finishedAt - startedAt;
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + getDuration() + "ms (+" + startedAt + "ms)";
+        }
+
+    }
+
+    private final long start;
+    private final Map<String, Stage> stages;
+
+    public StageTimings() {
+        this.start = System.nanoTime();
+        this.stages = new ConcurrentHashMap<>();
+    }
+
+    public <T> CompletableFuture<T> record(final String name, final Supplier<CompletableFuture<T>> supplier) {
+        final long startedAt = elapsed();
+        return supplier.get().whenComplete((value, throwable) -> stages.merge(name, new Stage(name, startedAt, elapsed()), (previous, current) -> new Stage(name,
+                Math.min(previous.getStartedAt(), current.getStartedAt()),
+                Math.max(previous.getFinishedAt(), current.getFinishedAt()))));
+    }
+
+    public long elapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    public Map<String, Stage> getStages() {
+        return Map.copyOf(stages);
+    }
+
+    @Override
+    public String toString() {
+        return stages.values().stream()
+                .sorted(Comparator.comparingLong(Stage::getFinishedAt))
+                .map(Stage::toString)
+                .collect(Collectors.joining(", "));
+    }
+
+}
@@ -0,0 +1,172 @@
+package de.volkerfaas.kafka.cluster.model;
+
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In the class ClusterConfiguration")
+class ClusterConfigurationTest {
+
+    private final AclBinding aclBinding = new AclBinding(
+            new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.arc.", PatternType.PREFIXED),
+            new AccessControlEntry("User:129849", "*", AclOperation.READ, AclPermissionType.ALLOW)
+    );
+
+    private ClusterConfiguration clusterConfiguration;
+
+    @BeforeEach
+    void init() {
+        this.clusterConfiguration = new ClusterConfiguration("lkc-p5zy2", List.of(
+                createTopic("de.volkerfaas.arc.public.user_created", 4),
+                createTopic("de.volkerfaas.arc.public.user_updated", 2)
+        ), List.of(aclBinding), List.of());
+    }
+
+    private TopicConfiguration createTopic(final String name, final int numPartitions) {
+        final List<PartitionConfiguration> partitions = IntStream.range(0, numPartitions)
+                .mapToObj(index -> new PartitionConfiguration(name, index))
+                .collect(Collectors.toList());
+
+        return new TopicConfiguration(name, partitions, (short) 3, Map.of());
+    }
+
+    private void assertIndexConsistent() {
+        final Set<String> names = clusterConfiguration.getTopics().stream()
+                .map(TopicConfiguration::getName)
+                .collect(Collectors.toSet());
+        assertEquals(names, clusterConfiguration.getTopicNames());
+        assertEquals(names, clusterConfiguration.listTopicNames());
+        assertEquals(clusterConfiguration.getTopics().size(), clusterConfiguration.getTopicNames().size());
+        clusterConfiguration.getTopics().forEach(topic -> {
+            assertSame(topic, clusterConfiguration.findTopic(topic.getName()));
+            assertTrue(clusterConfiguration.containsTopic(topic.getName()));
+        });
+    }
+
+    @Nested
+    @DisplayName("the method putTopic")
+    class PutTopic {
+
+        @Test
+        @DisplayName("should add a new topic to the index and the topics")
+        void testPutTopic() {
+            final TopicConfiguration topic = createTopic("de.volkerfaas.test.public.test_created", 1);
+            clusterConfiguration.putTopic(topic);
+
+            assertSame(topic, clusterConfiguration.findTopic("de.volkerfaas.test.public.test_created"));
+            assertTrue(clusterConfiguration.getTopics().contains(topic));
+            assertEquals(3, clusterConfiguration.getTopics().size());
+            assertIndexConsistent();
+        }
+
+        @Test
+        @DisplayName("should replace a topic of the same name")
+        void testPutTopicReplace() {
+            final TopicConfiguration topic = createTopic("de.volkerfaas.arc.public.user_created", 6);
+            clusterConfiguration.putTopic(topic);
+
+            assertSame(topic, clusterConfiguration.findTopic("de.volkerfaas.arc.public.user_created"));
+            assertEquals(6, clusterConfiguration.findTopic("de.volkerfaas.arc.public.user_created").getPartitions().size());
+            assertEquals(2, clusterConfiguration.getTopics().size());
+            assertEquals(1, clusterConfiguration.getTopics().stream().filter(t -> t.getName().equals("de.volkerfaas.arc.public.user_created")).count());
+            assertIndexConsistent();
+        }
+
+        @Test
+        @DisplayName("should keep the index consistent when topics are added to the collection of topics")
+        void testAddTopic() {
+            final TopicConfiguration topic = createTopic("de.volkerfaas.test.public.test_created", 1);
+            assertTrue(clusterConfiguration.getTopics().add(topic));
+            assertFalse(clusterConfiguration.getTopics().add(topic));
+
+            assertSame(topic, clusterConfiguration.findTopic("de.volkerfaas.test.public.test_created"));
+            assertTrue(clusterConfiguration.getTopicsWithOffsets().contains(topic));
+            assertIndexConsistent();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method removeTopics")
+    class RemoveTopics {
+
+        @Test
+        @DisplayName("should remove the topics from the index and the topics and ignore unknown names")
+        void testRemoveTopics() {
+            clusterConfiguration.removeTopics(List.of("de.volkerfaas.arc.public.user_created", "de.volkerfaas.test.public.unknown"));
+
+            assertNull(clusterConfiguration.findTopic("de.volkerfaas.arc.public.user_created"));
+            assertFalse(clusterConfiguration.containsTopic("de.volkerfaas.arc.public.user_created"));
+            assertEquals(Set.of("de.volkerfaas.arc.public.user_updated"), clusterConfiguration.getTopicNames());
+            assertEquals(1, clusterConfiguration.getTopics().size());
+            assertIndexConsistent();
+        }
+
+        @Test
+        @DisplayName("should keep the index consistent when topics are removed from the collection of topics")
+        void testRemoveTopicsOfCollection() {
+            clusterConfiguration.getTopics().removeIf(topic -> topic.getName().endsWith("user_updated"));
+
+            assertNull(clusterConfiguration.findTopic("de.volkerfaas.arc.public.user_updated"));
+            assertEquals(Set.of("de.volkerfaas.arc.public.user_created"), clusterConfiguration.getTopicNames());
+            assertIndexConsistent();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method getTopicNames")
+    class GetTopicNames {
+
+        @Test
+        @DisplayName("should return the names in the order the topics have been added and reject changes")
+        void testGetTopicNames() {
+            clusterConfiguration.putTopic(createTopic("de.volkerfaas.test.public.test_created", 1));
+
+            assertEquals(List.of("de.volkerfaas.arc.public.user_created", "de.volkerfaas.arc.public.user_updated", "de.volkerfaas.test.public.test_created"), List.copyOf(clusterConfiguration.getTopicNames()));
+            assertThrows(UnsupportedOperationException.class, () -> clusterConfiguration.getTopicNames().remove("de.volkerfaas.arc.public.user_created"));
+            assertIndexConsistent();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the methods addAclBindings and removeAclBindings")
+    class UpdateAclBindings {
+
+        @Test
+        @DisplayName("should add ACLs only once and leave the topics untouched")
+        void testUpdateAclBindings() {
+            final AclBinding otherAclBinding = new AclBinding(
+                    new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.test.", PatternType.PREFIXED),
+                    new AccessControlEntry("User:138166", "*", AclOperation.WRITE, AclPermissionType.ALLOW)
+            );
+            clusterConfiguration.addAclBindings(List.of(aclBinding, otherAclBinding));
+            assertEquals(List.of(aclBinding, otherAclBinding), List.copyOf(clusterConfiguration.getAclBindings()));
+            assertIndexConsistent();
+
+            clusterConfiguration.removeAclBindings(List.of(aclBinding));
+            assertEquals(List.of(otherAclBinding), List.copyOf(clusterConfiguration.getAclBindings()));
+            assertEquals(Set.of("de.volkerfaas.arc.public.user_created", "de.volkerfaas.arc.public.user_updated"), clusterConfiguration.getTopicNames());
+            assertIndexConsistent();
+        }
+
+    }
+
+}
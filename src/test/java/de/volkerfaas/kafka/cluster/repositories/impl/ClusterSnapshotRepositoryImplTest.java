@@ -0,0 +1,134 @@
+package de.volkerfaas.kafka.cluster.repositories.impl;
+
+import de.volkerfaas.kafka.cluster.model.ClusterConfiguration;
+import de.volkerfaas.kafka.cluster.model.ConsumerConfiguration;
+import de.volkerfaas.kafka.cluster.model.ConsumerGroupConfiguration;
+import de.volkerfaas.kafka.cluster.model.PartitionConfiguration;
+import de.volkerfaas.kafka.cluster.model.TopicConfiguration;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In the class ClusterSnapshotRepositoryImpl")
+class ClusterSnapshotRepositoryImplTest {
+
+    private ClusterSnapshotRepositoryImpl clusterSnapshotRepository;
+
+    @BeforeEach
+    void init() {
+        this.clusterSnapshotRepository = new ClusterSnapshotRepositoryImpl();
+    }
+
+    @Nested
+    @DisplayName("the method writeSnapshot")
+    class WriteSnapshot {
+
+        @Test
+        @DisplayName("should write a snapshot that is read back with topics, acls and consumer groups")
+        void testWriteAndReadSnapshot(@TempDir Path directory) throws IOException {
+            final PartitionConfiguration partition = new PartitionConfiguration("de.volkerfaas.arc.public.user_updated", 0);
+            partition.setOffset(42L);
+            partition.setTimestamp(1000L);
+            final TopicConfiguration topic = new TopicConfiguration("de.volkerfaas.arc.public.user_updated", List.of(partition), (short) 3, Map.of("cleanup.policy", "compact"));
+            final AclBinding aclBinding = new AclBinding(
+                    new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.arc.", PatternType.PREFIXED),
+                    new AccessControlEntry("User:129849", "*", AclOperation.READ, AclPermissionType.ALLOW)
+            );
+            final ConsumerGroupConfiguration consumerGroup = new ConsumerGroupConfiguration("consumer-group", ConsumerGroupConfiguration.State.STABLE);
+            consumerGroup.getConsumers().add(new ConsumerConfiguration(partition, 21L));
+            final ClusterConfiguration clusterConfiguration = new ClusterConfiguration("lkc-p5zy2", List.of(topic), List.of(aclBinding), List.of(consumerGroup));
+
+            final File file = clusterSnapshotRepository.writeSnapshot(clusterConfiguration, "test", directory.toString());
+            assertEquals("snapshot-lkc-p5zy2.bin", file.getName());
+
+            final ClusterConfiguration snapshot = clusterSnapshotRepository.readSnapshot(file.getPath(), "test", Duration.ofMinutes(5));
+            assertEquals("lkc-p5zy2", snapshot.getClusterId());
+            final TopicConfiguration topicOfSnapshot = snapshot.findTopic("de.volkerfaas.arc.public.user_updated");
+            assertNotNull(topicOfSnapshot);
+            assertEquals(3, topicOfSnapshot.getReplicationFactor());
+            assertEquals(Map.of("cleanup.policy", "compact"), topicOfSnapshot.getConfig());
+            assertEquals(42L, topicOfSnapshot.getPartitions().get(0).getOffset());
+            assertEquals(List.of(aclBinding), snapshot.getAclBindings());
+            final List<ConsumerGroupConfiguration> consumerGroups = List.copyOf(snapshot.getConsumerGroups());
+            assertEquals(1, consumerGroups.size());
+            assertEquals(ConsumerGroupConfiguration.State.STABLE, consumerGroups.get(0).getState());
+            final ConsumerConfiguration consumer = consumerGroups.get(0).getConsumers().get(0);
+            assertEquals(21L, consumer.getOffset());
+            assertSame(topicOfSnapshot.getPartitions().get(0), consumer.getPartition());
+        }
+
+        @Test
+        @DisplayName("should write a snapshot with topic configs without value")
+        void testWriteAndReadSnapshotWithNullConfigValue(@TempDir Path directory) throws IOException {
+            final Map<String, String> config = new HashMap<>();
+            config.put("cleanup.policy", "compact");
+            config.put("min.compaction.lag.ms", null);
+            final TopicConfiguration topic = new TopicConfiguration("de.volkerfaas.arc.public.user_updated", List.of(new PartitionConfiguration("de.volkerfaas.arc.public.user_updated", 0)), (short) 3, config);
+            final ClusterConfiguration clusterConfiguration = new ClusterConfiguration("lkc-p5zy2", List.of(topic), List.of(), List.of());
+
+            final File file = clusterSnapshotRepository.writeSnapshot(clusterConfiguration, "test", directory.toString());
+
+            final ClusterConfiguration snapshot = clusterSnapshotRepository.readSnapshot(file.getPath(), "test", null);
+            assertEquals(config, snapshot.findTopic("de.volkerfaas.arc.public.user_updated").getConfig());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method readSnapshot")
+    class ReadSnapshot {
+
+        @Test
+        @DisplayName("should reject a snapshot exceeding the maximum age")
+        void testReadSnapshotTooOld(@TempDir Path directory) throws Exception {
+            final File file = clusterSnapshotRepository.writeSnapshot(new ClusterConfiguration("lkc-p5zy2"), "test", directory.toString());
+            Thread.sleep(5);
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> clusterSnapshotRepository.readSnapshot(file.getPath(), "test", Duration.ofMillis(1)));
+            assertTrue(exception.getMessage().contains("exceeds the maximum age"));
+        }
+
+        @Test
+        @DisplayName("should reject a snapshot of another cluster")
+        void testReadSnapshotOfOtherCluster(@TempDir Path directory) throws IOException {
+            final File file = clusterSnapshotRepository.writeSnapshot(new ClusterConfiguration("lkc-p5zy2"), "prod", directory.toString());
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> clusterSnapshotRepository.readSnapshot(file.getPath(), "test", null));
+            assertTrue(exception.getMessage().contains("cannot be used for cluster 'test'"));
+        }
+
+        @Test
+        @DisplayName("should reject a file that is not a snapshot")
+        void testReadSnapshotInvalidFile(@TempDir Path directory) throws IOException {
+            final Path file = directory.resolve("snapshot.bin");
+            try (final GZIPOutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+                output.write(new byte[]{0, 0, 0, 0, 0, 0, 0, 1});
+            }
+
+            assertThrows(IllegalArgumentException.class, () -> clusterSnapshotRepository.readSnapshot(file.toString(), "test", null));
+        }
+
+    }
+
+}
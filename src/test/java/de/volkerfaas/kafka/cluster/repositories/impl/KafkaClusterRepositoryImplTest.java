@@ -1,13 +1,28 @@
 package de.volkerfaas.kafka.cluster.repositories.impl;
 
 import de.volkerfaas.kafka.cluster.model.ClusterConfiguration;
+import de.volkerfaas.kafka.cluster.model.ConsumerConfiguration;
 import de.volkerfaas.kafka.cluster.model.ConsumerGroupConfiguration;
+import de.volkerfaas.kafka.cluster.model.PartitionConfiguration;
 import de.volkerfaas.kafka.cluster.model.TopicConfiguration;
 import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.SnapshotProperties;
+import de.volkerfaas.utils.AdaptiveLimiter;
+import de.volkerfaas.utils.OperationLog;
+import de.volkerfaas.utils.StageTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.admin.*;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.acl.*;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.InvalidConfigurationException;
+import org.apache.kafka.common.errors.InvalidPartitionsException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePattern;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
@@ -16,14 +31,34 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static de.volkerfaas.kafka.topology.utils.MockUtils.*;
 import static de.volkerfaas.kafka.topology.utils.TestUtils.*;
+import static de.volkerfaas.utils.ExceptionUtils.handleException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @DisplayName("In the class KafkaClusterRepositoryImpl")
@@ -35,7 +70,7 @@ class KafkaClusterRepositoryImplTest {
     @BeforeEach
     void init() {
         this.adminClient = mock(AdminClient.class);
-        this.kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null);
+        this.kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, new SnapshotProperties(), new DeployProperties(), null, null, null);
     }
 
     @Nested
@@ -44,7 +79,7 @@ class KafkaClusterRepositoryImplTest {
 
         @BeforeEach
         void init() {
-            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, "");
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, "", null, null, new SnapshotProperties(), new DeployProperties(), null, null, null);
         }
 
         @Test
@@ -110,6 +145,319 @@ class KafkaClusterRepositoryImplTest {
 
     }
 
+    @Nested
+    @DisplayName("when writing to the cluster")
+    class Write {
+
+        @BeforeEach
+        void init() {
+            final DeployProperties deployProperties = new DeployProperties();
+            deployProperties.setChunkSize(2);
+            deployProperties.getLimit().setMinChunkSize(1);
+            deployProperties.getRetry().setMaxAttempts(3);
+            deployProperties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, new SnapshotProperties(), deployProperties, null, null, null);
+        }
+
+        @Test
+        @DisplayName("new topics should be sent in chunks and only retriable failures should be retried")
+        void testCreateTopicsRetryFailed() throws ExecutionException, InterruptedException {
+            final List<NewTopic> newTopics = IntStream.range(0, 3)
+                    .mapToObj(index -> new NewTopic("de.volkerfaas.test.public.topic_" + index, 1, (short) 3))
+                    .collect(Collectors.toList());
+            final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+            doAnswer(invocation -> {
+                final Collection<NewTopic> chunk = invocation.getArgument(0);
+                final Map<String, KafkaFuture<Void>> values = new HashMap<>();
+                chunk.forEach(newTopic -> {
+                    final KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+                    if (attempts.merge(newTopic.name(), 1, Integer::sum) == 1 && newTopic.name().endsWith("_1")) {
+                        future.completeExceptionally(new TimeoutException("Timed out waiting for a node assignment."));
+                    } else {
+                        future.complete(null);
+                    }
+                    values.put(newTopic.name(), future);
+                });
+                final CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+                doReturn(values).when(createTopicsResult).values();
+                return createTopicsResult;
+            }).when(adminClient).createTopics(anyCollection());
+
+            kafkaClusterRepository.createTopics(newTopics);
+            verify(adminClient, times(3)).createTopics(anyCollection());
+            assertEquals(Map.of("de.volkerfaas.test.public.topic_0", 1, "de.volkerfaas.test.public.topic_1", 2, "de.volkerfaas.test.public.topic_2", 1), attempts);
+        }
+
+        @Test
+        @DisplayName("the startup time should be recorded once when the first admin call has completed")
+        void testFirstAdminCallRecorded() throws ExecutionException, InterruptedException {
+            final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, new SnapshotProperties(), new DeployProperties(), null, null, meterRegistry);
+            doAnswer(invocation -> {
+                final KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+                future.complete(null);
+                final CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+                doReturn(Map.of("de.volkerfaas.test.public.topic", future)).when(createTopicsResult).values();
+                return createTopicsResult;
+            }).when(adminClient).createTopics(anyCollection());
+            final List<NewTopic> newTopics = List.of(new NewTopic("de.volkerfaas.test.public.topic", 1, (short) 3));
+            assertNull(meterRegistry.find("kcm.startup.seconds").gauge());
+
+            kafkaClusterRepository.createTopics(newTopics);
+            kafkaClusterRepository.createTopics(newTopics);
+
+            assertEquals(1, meterRegistry.find("kcm.startup.seconds").tag("phase", "first-admin-call").gauges().size());
+        }
+
+        @Test
+        @DisplayName("the limits of admin requests should be registered as meters")
+        void testAdminRequestLimiterMeters() throws InterruptedException {
+            final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            final KafkaClusterRepositoryImpl kafkaClusterRepositoryImpl = new KafkaClusterRepositoryImpl(adminClient, null, "test", null, null, null, new SnapshotProperties(), new DeployProperties(), null, null, meterRegistry);
+            kafkaClusterRepositoryImpl.registerAdminRequestLimiter();
+            final AdaptiveLimiter limiter = kafkaClusterRepositoryImpl.getAdminRequestLimiter();
+            limiter.acquire();
+            limiter.release(limiter.acquire(), true);
+
+            assertEquals(limiter.getChunkSize(), meterRegistry.get("kcm.limiter.chunk.size").tag("limiter", "admin-requests").tag("cluster", "test").gauge().value());
+            assertEquals(limiter.getMaxInFlight(), meterRegistry.get("kcm.limiter.in.flight.max").gauge().value());
+            assertEquals(1, meterRegistry.get("kcm.limiter.in.flight").gauge().value());
+            assertEquals(0, meterRegistry.get("kcm.limiter.increases").functionCounter().count());
+            assertEquals(1, meterRegistry.get("kcm.limiter.decreases").functionCounter().count());
+        }
+
+        @Test
+        @DisplayName("new partitions rejected on retry should succeed if a timed out attempt has created them")
+        void testCreatePartitionsRetryAlreadyCreated() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.topic";
+            mockCreatePartitionsTimedOutOnce();
+            mockDescribeTopics(adminClient, createTopicPartitionInfos(topicName, 6, 3));
+
+            kafkaClusterRepository.createPartitions(Map.of(topicName, NewPartitions.increaseTo(6)));
+            verify(adminClient, times(2)).createPartitions(anyMap());
+            verify(adminClient).describeTopics(Set.of(topicName));
+        }
+
+        @Test
+        @DisplayName("new partitions rejected on retry should fail if the topic has another number of partitions")
+        void testCreatePartitionsRetryOtherPartitionCount() {
+            final String topicName = "de.volkerfaas.test.public.topic";
+            mockCreatePartitionsTimedOutOnce();
+            mockDescribeTopics(adminClient, createTopicPartitionInfos(topicName, 4, 3));
+
+            final ExecutionException thrown = assertThrows(ExecutionException.class, () -> kafkaClusterRepository.createPartitions(Map.of(topicName, NewPartitions.increaseTo(6))));
+            assertTrue(thrown.getCause() instanceof InvalidPartitionsException);
+            verify(adminClient, times(2)).createPartitions(anyMap());
+        }
+
+        private void mockCreatePartitionsTimedOutOnce() {
+            final AtomicBoolean timeout = new AtomicBoolean(true);
+            doAnswer(invocation -> {
+                final Map<String, NewPartitions> chunk = invocation.getArgument(0);
+                final Map<String, KafkaFuture<Void>> values = new HashMap<>();
+                chunk.forEach((name, newPartitions) -> {
+                    final KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+                    if (timeout.getAndSet(false)) {
+                        future.completeExceptionally(new TimeoutException("Timed out waiting for a node assignment."));
+                    } else {
+                        future.completeExceptionally(new InvalidPartitionsException("Topic already has " + newPartitions.totalCount() + " partitions."));
+                    }
+                    values.put(name, future);
+                });
+                final CreatePartitionsResult createPartitionsResult = mock(CreatePartitionsResult.class);
+                doReturn(values).when(createPartitionsResult).values();
+                return createPartitionsResult;
+            }).when(adminClient).createPartitions(anyMap());
+        }
+
+        @Test
+        @DisplayName("each attempt should be streamed as JSON line to the operation log")
+        void testCreateTopicsOperationLog() throws ExecutionException, InterruptedException {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final DeployProperties deployProperties = new DeployProperties();
+            deployProperties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, new SnapshotProperties(), deployProperties, null, new OperationLog(OperationLog.Format.JSON, 100, new PrintStream(out, true, StandardCharsets.UTF_8)), null);
+            final AtomicBoolean timeout = new AtomicBoolean(true);
+            doAnswer(invocation -> {
+                final Collection<NewTopic> chunk = invocation.getArgument(0);
+                final Map<String, KafkaFuture<Void>> values = new HashMap<>();
+                chunk.forEach(newTopic -> {
+                    final KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+                    if (timeout.getAndSet(false)) {
+                        future.completeExceptionally(new TimeoutException("Timed out waiting for a node assignment."));
+                    } else {
+                        future.complete(null);
+                    }
+                    values.put(newTopic.name(), future);
+                });
+                final CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+                doReturn(values).when(createTopicsResult).values();
+                return createTopicsResult;
+            }).when(adminClient).createTopics(anyCollection());
+
+            kafkaClusterRepository.createTopics(List.of(new NewTopic("de.volkerfaas.test.public.topic", 1, (short) 3)));
+            final List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+            assertEquals(2, lines.size());
+            assertThat(lines.get(0), containsString("\"type\":\"create topics\",\"resource\":\"de.volkerfaas.test.public.topic\",\"outcome\":\"failure\""));
+            assertThat(lines.get(0), containsString("\"attempt\":1,\"error\":\"TimeoutException: Timed out waiting for a node assignment.\""));
+            assertThat(lines.get(1), containsString("\"outcome\":\"success\""));
+            assertThat(lines.get(1), containsString("\"attempt\":2"));
+        }
+
+        @Test
+        @DisplayName("the limits of admin requests should be cut on timeouts and grow while requests are healthy")
+        void testCreateTopicsAdaptiveLimits() throws ExecutionException, InterruptedException {
+            final AdaptiveLimiter limiter = ((KafkaClusterRepositoryImpl) kafkaClusterRepository).getAdminRequestLimiter();
+            final AtomicBoolean timeout = new AtomicBoolean(true);
+            doAnswer(invocation -> {
+                final Collection<NewTopic> chunk = invocation.getArgument(0);
+                final Map<String, KafkaFuture<Void>> values = new HashMap<>();
+                chunk.forEach(newTopic -> {
+                    final KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+                    if (timeout.getAndSet(false)) {
+                        future.completeExceptionally(new TimeoutException("Timed out waiting for a node assignment."));
+                    } else {
+                        future.complete(null);
+                    }
+                    values.put(newTopic.name(), future);
+                });
+                final CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+                doReturn(values).when(createTopicsResult).values();
+                return createTopicsResult;
+            }).when(adminClient).createTopics(anyCollection());
+
+            kafkaClusterRepository.createTopics(List.of(new NewTopic("de.volkerfaas.test.public.topic_0", 1, (short) 3)));
+            assertEquals(1, limiter.getDecreases());
+            assertEquals(1, limiter.getChunkSize());
+            assertEquals(2, limiter.getMaxInFlight());
+
+            kafkaClusterRepository.createTopics(List.of(
+                    new NewTopic("de.volkerfaas.test.public.topic_1", 1, (short) 3),
+                    new NewTopic("de.volkerfaas.test.public.topic_2", 1, (short) 3)
+            ));
+            assertEquals(1, limiter.getIncreases());
+            assertEquals(11, limiter.getChunkSize());
+            assertEquals(3, limiter.getMaxInFlight());
+            assertEquals(0, limiter.getInFlight());
+        }
+
+        @Test
+        @DisplayName("non-retriable failures should fail without retry after all other resources have been written")
+        void testUpdateConfigsNonRetriableFailure() {
+            final ConfigResource valid = new ConfigResource(ConfigResource.Type.TOPIC, "de.volkerfaas.test.public.valid");
+            final ConfigResource invalid = new ConfigResource(ConfigResource.Type.TOPIC, "de.volkerfaas.test.public.invalid");
+            final KafkaFutureImpl<Void> failed = new KafkaFutureImpl<>();
+            final InvalidConfigurationException exception = new InvalidConfigurationException("Invalid value for retention.ms");
+            failed.completeExceptionally(exception);
+            final AlterConfigsResult alterConfigsResult = mock(AlterConfigsResult.class);
+            doReturn(Map.of(valid, KafkaFuture.completedFuture(null), invalid, failed)).when(alterConfigsResult).values();
+            doReturn(alterConfigsResult).when(adminClient).incrementalAlterConfigs(anyMap());
+
+            final AlterConfigOp alterConfigOp = new AlterConfigOp(new ConfigEntry("retention.ms", "-2"), AlterConfigOp.OpType.SET);
+            final Map<ConfigResource, Collection<AlterConfigOp>> configs = new LinkedHashMap<>();
+            configs.put(valid, List.of(alterConfigOp));
+            configs.put(invalid, List.of(alterConfigOp));
+            final ExecutionException thrown = assertThrows(ExecutionException.class, () -> kafkaClusterRepository.updateConfigs(configs));
+            assertSame(exception, thrown.getCause());
+            verify(adminClient, times(1)).incrementalAlterConfigs(anyMap());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("when a cluster configuration is cached")
+    class WriteThrough {
+
+        private ClusterConfiguration clusterConfiguration;
+
+        @BeforeEach
+        void init() {
+            final CacheManager cacheManager = new ConcurrentMapCacheManager("cluster");
+            final PartitionConfiguration partition = new PartitionConfiguration("de.volkerfaas.test.public.existing", 0);
+            final TopicConfiguration topic = new TopicConfiguration("de.volkerfaas.test.public.existing", List.of(partition), (short) 3, Map.of("cleanupPolicy", "delete", "retentionMs", "1000"));
+            clusterConfiguration = new ClusterConfiguration("lkc-p5zy2", List.of(topic), Collections.emptyList(), Collections.emptyList());
+            Objects.requireNonNull(cacheManager.getCache("cluster")).put(SimpleKey.EMPTY, clusterConfiguration);
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, new SnapshotProperties(), new DeployProperties(), cacheManager, null, null);
+        }
+
+        @Test
+        @DisplayName("created topics should be added to it")
+        void testCreateTopics() throws ExecutionException, InterruptedException {
+            final CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+            doReturn(Map.of("de.volkerfaas.test.public.created", KafkaFuture.completedFuture(null))).when(createTopicsResult).values();
+            doReturn(createTopicsResult).when(adminClient).createTopics(anyCollection());
+
+            kafkaClusterRepository.createTopics(List.of(new NewTopic("de.volkerfaas.test.public.created", 2, (short) 3).configs(Map.of("cleanup.policy", "compact"))));
+            final TopicConfiguration topic = clusterConfiguration.findTopic("de.volkerfaas.test.public.created");
+            assertNotNull(topic);
+            assertEquals(2, topic.getPartitions().size());
+            assertEquals(3, topic.getReplicationFactor());
+            assertEquals(Map.of("cleanupPolicy", "compact"), topic.getConfig());
+        }
+
+        @Test
+        @DisplayName("created partitions should be added to its topic")
+        void testCreatePartitions() throws ExecutionException, InterruptedException {
+            final CreatePartitionsResult createPartitionsResult = mock(CreatePartitionsResult.class);
+            doReturn(Map.of("de.volkerfaas.test.public.existing", KafkaFuture.completedFuture(null))).when(createPartitionsResult).values();
+            doReturn(createPartitionsResult).when(adminClient).createPartitions(anyMap());
+
+            final PartitionConfiguration partition = clusterConfiguration.findTopic("de.volkerfaas.test.public.existing").getPartitions().get(0);
+            kafkaClusterRepository.createPartitions(Map.of("de.volkerfaas.test.public.existing", NewPartitions.increaseTo(3)));
+            final List<PartitionConfiguration> partitions = clusterConfiguration.findTopic("de.volkerfaas.test.public.existing").getPartitions();
+            assertEquals(3, partitions.size());
+            assertSame(partition, partitions.get(0));
+            assertEquals(2, partitions.get(2).getIndex());
+        }
+
+        @Test
+        @DisplayName("altered configs should be applied to its topic")
+        void testUpdateConfigs() throws ExecutionException, InterruptedException {
+            final AlterConfigsResult alterConfigsResult = mock(AlterConfigsResult.class);
+            final ConfigResource configResource = new ConfigResource(ConfigResource.Type.TOPIC, "de.volkerfaas.test.public.existing");
+            doReturn(Map.of(configResource, KafkaFuture.completedFuture(null))).when(alterConfigsResult).values();
+            doReturn(alterConfigsResult).when(adminClient).incrementalAlterConfigs(anyMap());
+
+            kafkaClusterRepository.updateConfigs(Map.of(configResource, List.of(
+                    new AlterConfigOp(new ConfigEntry("cleanup.policy", "compact"), AlterConfigOp.OpType.SET),
+                    new AlterConfigOp(new ConfigEntry("retention.ms", null), AlterConfigOp.OpType.DELETE)
+            )));
+            assertEquals(Map.of("cleanupPolicy", "compact"), clusterConfiguration.findTopic("de.volkerfaas.test.public.existing").getConfig());
+        }
+
+        @Test
+        @DisplayName("created and deleted acls should be applied to it")
+        void testCreateAndDeleteAccessControlLists() throws ExecutionException, InterruptedException {
+            final AclBinding aclBinding = new AclBinding(
+                    new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.test.public.", PatternType.PREFIXED),
+                    new AccessControlEntry("User:134567", "*", AclOperation.READ, AclPermissionType.ALLOW)
+            );
+            final CreateAclsResult createAclsResult = mock(CreateAclsResult.class);
+            doReturn(Map.of(aclBinding, KafkaFuture.completedFuture(null))).when(createAclsResult).values();
+            doReturn(createAclsResult).when(adminClient).createAcls(anyCollection());
+            kafkaClusterRepository.createAccessControlLists(List.of(aclBinding));
+            assertEquals(List.of(aclBinding), List.copyOf(clusterConfiguration.getAclBindings()));
+
+            final DeleteAclsResult deleteAclsResult = mock(DeleteAclsResult.class);
+            doReturn(KafkaFuture.completedFuture(List.of(aclBinding))).when(deleteAclsResult).all();
+            doReturn(deleteAclsResult).when(adminClient).deleteAcls(anyCollection());
+            kafkaClusterRepository.deleteAccessControlLists(List.of(aclBinding.toFilter()));
+            assertTrue(clusterConfiguration.getAclBindings().isEmpty());
+        }
+
+        @Test
+        @DisplayName("deleted topics should be removed from it")
+        void testDeleteTopics() throws ExecutionException, InterruptedException {
+            final DeleteTopicsResult deleteTopicsResult = mock(DeleteTopicsResult.class);
+            doReturn(KafkaFuture.completedFuture(null)).when(deleteTopicsResult).all();
+            doReturn(deleteTopicsResult).when(adminClient).deleteTopics(anyCollection());
+
+            kafkaClusterRepository.deleteTopics(List.of("de.volkerfaas.test.public.existing"));
+            assertFalse(clusterConfiguration.containsTopic("de.volkerfaas.test.public.existing"));
+        }
+
+    }
+
     @Nested
     @DisplayName("the method getClusterConfiguration")
     class GetClusterConfiguration {
@@ -217,6 +565,309 @@ class KafkaClusterRepositoryImplTest {
             assertEquals(groupId, consumerGroupId);
         }
 
+
+        @Test
+        @DisplayName("should fetch topic configs, acls and consumer groups while topic descriptions are pending")
+        void testGetClusterConfigurationConcurrently() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            final KafkaFutureImpl<Map<String, TopicDescription>> topicDescriptions = new KafkaFutureImpl<>();
+            final DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
+            doReturn(topicDescriptions).when(describeTopicsResult).all();
+            doReturn(describeTopicsResult).when(adminClient).describeTopics(anyCollection());
+
+            mockDescribeCluster(adminClient, "lkc-p5zy2");
+            mockListTopics(adminClient, Set.of(topicName));
+            mockDescribeConfigs(adminClient, createConfig(topicName, Collections.emptySet()));
+            mockListOffsets(adminClient, Collections.emptyMap());
+            mockDescribeAcls(adminClient, Collections.emptySet());
+            mockListConsumerGroups(adminClient, Collections.emptyList());
+
+            final CompletableFuture<ClusterConfiguration> clusterConfiguration = CompletableFuture.supplyAsync(() -> handleException(kafkaClusterRepository::getClusterConfiguration));
+            verify(adminClient, timeout(1000)).describeConfigs(anySet());
+            verify(adminClient, timeout(1000)).describeAcls(any());
+            assertFalse(clusterConfiguration.isDone());
+
+            topicDescriptions.complete(createTopicPartitionInfos(topicName, 4, 9));
+            assertEquals(1, clusterConfiguration.get().getTopics().size());
+        }
+
+        @Test
+        @DisplayName("should load consumer groups and partition offsets only on first access")
+        void testGetClusterConfigurationLazyComponents() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            mockDescribeCluster(adminClient, "lkc-p5zy2");
+            mockListTopics(adminClient, Set.of(topicName));
+            mockDescribeTopics(adminClient, createTopicPartitionInfos(topicName, 4, 9));
+            mockDescribeConfigs(adminClient, createConfig(topicName, Collections.emptySet()));
+            mockDescribeAcls(adminClient, Collections.emptySet());
+            mockListConsumerGroups(adminClient, Collections.emptyList());
+            final Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> offsets = new HashMap<>();
+            final ListOffsetsResult.ListOffsetsResultInfo listOffsetsResultInfo = mock(ListOffsetsResult.ListOffsetsResultInfo.class);
+            doReturn(42L).when(listOffsetsResultInfo).offset();
+            offsets.put(new TopicPartition(topicName, 0), listOffsetsResultInfo);
+            mockListOffsets(adminClient, offsets);
+
+            final ClusterConfiguration clusterConfiguration = kafkaClusterRepository.getClusterConfiguration();
+            verify(adminClient, never()).listConsumerGroups();
+            verify(adminClient, never()).listOffsets(anyMap());
+
+            assertTrue(clusterConfiguration.getConsumerGroups().isEmpty());
+            assertTrue(clusterConfiguration.getConsumerGroups().isEmpty());
+            verify(adminClient, times(1)).listConsumerGroups();
+
+            final TopicConfiguration topicConfiguration = clusterConfiguration.getTopicsWithOffsets().iterator().next();
+            clusterConfiguration.getTopicsWithOffsets();
+            verify(adminClient, times(1)).listOffsets(anyMap());
+            assertEquals(42L, topicConfiguration.getPartitions().get(0).getOffset());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("when a domain is given")
+    class DomainScope {
+
+        @BeforeEach
+        void init() {
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, "de.volkerfaas.test", null, new SnapshotProperties(), new DeployProperties(), null, null, null);
+        }
+
+        @Test
+        @DisplayName("the cluster configuration should only contain topics, acls and consumer groups of that domain")
+        void testGetClusterConfigurationInScope() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            final String otherTopicName = "de.volkerfaas.other.public.user_updated";
+            mockDescribeCluster(adminClient, "lkc-p5zy2");
+            mockListTopics(adminClient, Set.of(topicName, otherTopicName));
+            mockDescribeTopics(adminClient, createTopicPartitionInfos(topicName, 2, 3));
+            mockDescribeConfigs(adminClient, createConfig(topicName, Collections.emptySet()));
+            mockListOffsets(adminClient, Collections.emptyMap());
+
+            final Set<AclBinding> aclBindings = new HashSet<>();
+            aclBindings.add(new AclBinding(new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.test.", PatternType.PREFIXED), new AccessControlEntry("User:138166", "*", AclOperation.READ, AclPermissionType.ALLOW)));
+            aclBindings.add(new AclBinding(new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.other.", PatternType.PREFIXED), new AccessControlEntry("User:933177", "*", AclOperation.READ, AclPermissionType.ALLOW)));
+            mockDescribeAcls(adminClient, aclBindings);
+
+            final String groupId = "de.volkerfaas.test.my-service";
+            final String otherGroupId = "de.volkerfaas.other.my-service";
+            mockListConsumerGroups(adminClient, List.of(new ConsumerGroupListing(groupId, false), new ConsumerGroupListing(otherGroupId, false)));
+            final Map<String, ConsumerGroupDescription> consumerGroupDescriptions = new HashMap<>();
+            consumerGroupDescriptions.put(groupId, createConsumerGroupDescription(groupId, topicName));
+            consumerGroupDescriptions.put(otherGroupId, createConsumerGroupDescription(otherGroupId, otherTopicName));
+            mockDescribeConsumerGroupsByIds(consumerGroupDescriptions);
+            mockListConsumerGroupOffsetsByIds(Map.of(groupId, createTopicPartitionOffsetAndMetadata(topicName, 2), otherGroupId, createTopicPartitionOffsetAndMetadata(otherTopicName, 1)));
+
+            final ClusterConfiguration clusterConfiguration = kafkaClusterRepository.getClusterConfiguration();
+            verify(adminClient).describeTopics(Set.of(topicName));
+            verify(adminClient).describeAcls(new AclBindingFilter(new ResourcePatternFilter(ResourceType.ANY, "de.volkerfaas.test.", PatternType.PREFIXED), AccessControlEntryFilter.ANY));
+            verify(adminClient).describeAcls(new AclBindingFilter(new ResourcePatternFilter(ResourceType.ANY, null, PatternType.LITERAL), AccessControlEntryFilter.ANY));
+            verify(adminClient, never()).describeAcls(new AclBindingFilter(new ResourcePatternFilter(ResourceType.ANY, null, PatternType.ANY), AccessControlEntryFilter.ANY));
+            verify(adminClient, times(5)).describeAcls(any(AclBindingFilter.class));
+
+            assertEquals(Set.of(topicName), clusterConfiguration.listTopicNames());
+            assertEquals(1, clusterConfiguration.getAclBindings().size());
+            assertEquals("de.volkerfaas.test.", clusterConfiguration.getAclBindings().iterator().next().pattern().name());
+            assertEquals(Set.of(groupId), clusterConfiguration.getConsumerGroups().stream().map(ConsumerGroupConfiguration::getGroupId).collect(Collectors.toSet()));
+            verify(adminClient).describeConsumerGroups(List.of(groupId));
+        }
+
+        @Test
+        @DisplayName("the consumer groups should be selected by their committed offsets and only hold the offsets of that domain")
+        void testGetClusterConfigurationInScopeConsumerGroups() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            final String otherTopicName = "de.volkerfaas.other.public.user_updated";
+            mockDescribeCluster(adminClient, "lkc-p5zy2");
+            mockListTopics(adminClient, Set.of(topicName, otherTopicName));
+            mockDescribeTopics(adminClient, createTopicPartitionInfos(topicName, 2, 3));
+            mockDescribeConfigs(adminClient, createConfig(topicName, Collections.emptySet()));
+            mockListOffsets(adminClient, Collections.emptyMap());
+            mockDescribeAcls(adminClient, Collections.emptySet());
+
+            final String spanningGroupId = "de.volkerfaas.arc.spanning-service";
+            final String emptyGroupId = "de.volkerfaas.arc.stopped-service";
+            final String otherGroupId = "de.volkerfaas.other.my-service";
+            mockListConsumerGroups(adminClient, List.of(new ConsumerGroupListing(spanningGroupId, false), new ConsumerGroupListing(emptyGroupId, false), new ConsumerGroupListing(otherGroupId, false)));
+            final Map<String, ConsumerGroupDescription> consumerGroupDescriptions = new HashMap<>();
+            consumerGroupDescriptions.put(spanningGroupId, createConsumerGroupDescription(spanningGroupId, otherTopicName));
+            consumerGroupDescriptions.put(emptyGroupId, new ConsumerGroupDescription(emptyGroupId, false, Collections.emptyList(), "", ConsumerGroupState.EMPTY, null));
+            consumerGroupDescriptions.put(otherGroupId, createConsumerGroupDescription(otherGroupId, otherTopicName));
+            mockDescribeConsumerGroupsByIds(consumerGroupDescriptions);
+            final Map<TopicPartition, OffsetAndMetadata> spanningOffsets = new HashMap<>(createTopicPartitionOffsetAndMetadata(topicName, 2));
+            spanningOffsets.putAll(createTopicPartitionOffsetAndMetadata(otherTopicName, 2));
+            mockListConsumerGroupOffsetsByIds(Map.of(
+                    spanningGroupId, spanningOffsets,
+                    emptyGroupId, createTopicPartitionOffsetAndMetadata(topicName, 1),
+                    otherGroupId, createTopicPartitionOffsetAndMetadata(otherTopicName, 2)));
+
+            final ClusterConfiguration clusterConfiguration = kafkaClusterRepository.getClusterConfiguration();
+            final Map<String, ConsumerGroupConfiguration> consumerGroups = clusterConfiguration.getConsumerGroups().stream()
+                    .collect(Collectors.toMap(ConsumerGroupConfiguration::getGroupId, consumerGroup -> consumerGroup));
+            assertEquals(Set.of(spanningGroupId, emptyGroupId), consumerGroups.keySet());
+            assertEquals(ConsumerGroupConfiguration.State.EMPTY, consumerGroups.get(emptyGroupId).getState());
+            assertEquals(2, consumerGroups.get(spanningGroupId).getConsumers().size());
+            assertTrue(consumerGroups.get(spanningGroupId).getConsumers().stream().allMatch(consumer -> Objects.equals(topicName, consumer.getPartition().getTopicName())));
+            verify(adminClient, never()).describeConsumerGroups(argThat((Collection<String> groupIds) -> groupIds.contains(otherGroupId)));
+        }
+
+        private ConsumerGroupDescription createConsumerGroupDescription(String groupId, String topicName) {
+            final MemberAssignment memberAssignment = new MemberAssignment(Set.of(new TopicPartition(topicName, 0)));
+            final MemberDescription memberDescription = new MemberDescription("consumer-1", "client-1", "localhost", memberAssignment);
+
+            return new ConsumerGroupDescription(groupId, false, List.of(memberDescription), "", ConsumerGroupState.STABLE, null);
+        }
+
+        private void mockDescribeConsumerGroupsByIds(Map<String, ConsumerGroupDescription> consumerGroupDescriptions) {
+            doAnswer(invocation -> {
+                final Collection<String> groupIds = invocation.getArgument(0);
+                final Map<String, ConsumerGroupDescription> descriptions = groupIds.stream()
+                        .collect(Collectors.toMap(groupId -> groupId, consumerGroupDescriptions::get));
+                final DescribeConsumerGroupsResult describeConsumerGroupsResult = mock(DescribeConsumerGroupsResult.class);
+                doReturn(KafkaFuture.completedFuture(descriptions)).when(describeConsumerGroupsResult).all();
+                return describeConsumerGroupsResult;
+            }).when(adminClient).describeConsumerGroups(anyCollection());
+        }
+
+        private void mockListConsumerGroupOffsetsByIds(Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets) {
+            doAnswer(invocation -> {
+                final ListConsumerGroupOffsetsResult listConsumerGroupOffsetsResult = mock(ListConsumerGroupOffsetsResult.class);
+                doReturn(KafkaFuture.completedFuture(offsets.get(invocation.<String>getArgument(0)))).when(listConsumerGroupOffsetsResult).partitionsToOffsetAndMetadata();
+                return listConsumerGroupOffsetsResult;
+            }).when(adminClient).listConsumerGroupOffsets(anyString());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method getConsumer")
+    class GetConsumer {
+
+        @Test
+        @DisplayName("should resolve the partition of the committed offset from the partition index")
+        void testGetConsumer() {
+            final KafkaClusterRepositoryImpl kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, new SnapshotProperties(), new DeployProperties(), null, null, null);
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            final List<PartitionConfiguration> partitions = List.of(new PartitionConfiguration(topicName, 0), new PartitionConfiguration(topicName, 1));
+            final TopicConfiguration topic = new TopicConfiguration(topicName, partitions, (short) 3, Collections.emptyMap());
+            final Map<TopicPartition, PartitionConfiguration> index = kafkaClusterRepository.indexPartitions(List.of(topic));
+
+            final ConsumerConfiguration consumer = kafkaClusterRepository.getConsumer(Map.entry(new TopicPartition(topicName, 1), new OffsetAndMetadata(17L)), index);
+            assertEquals(partitions.get(1), consumer.getPartition());
+            assertEquals(17L, consumer.getOffset());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method listTopicsByNames")
+    class ListTopicsByNames {
+
+        private KafkaClusterRepositoryImpl kafkaClusterRepository;
+
+        @BeforeEach
+        void init() {
+            final SnapshotProperties snapshotProperties = new SnapshotProperties();
+            snapshotProperties.setTopics(new SnapshotProperties.Batch(2, 1));
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, snapshotProperties, new DeployProperties(), null, null, null);
+        }
+
+        @Test
+        @DisplayName("should describe topics, configs and offsets in pages")
+        void testListTopicsByNamesPaged() throws ExecutionException, InterruptedException {
+            final Set<String> topicNames = IntStream.range(0, 5)
+                    .mapToObj(i -> "de.volkerfaas.test.public.topic_" + (char) ('a' + i))
+                    .collect(Collectors.toSet());
+            doAnswer(invocation -> {
+                final Collection<String> page = invocation.getArgument(0);
+                assertTrue(page.size() <= 2);
+                final Map<String, TopicDescription> topicDescriptions = new HashMap<>();
+                page.forEach(topicName -> topicDescriptions.putAll(createTopicPartitionInfos(topicName, 3, 2)));
+                final DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
+                doReturn(KafkaFuture.completedFuture(topicDescriptions)).when(describeTopicsResult).all();
+                return describeTopicsResult;
+            }).when(adminClient).describeTopics(anyCollection());
+            doAnswer(invocation -> {
+                final Collection<ConfigResource> resources = invocation.getArgument(0);
+                assertTrue(resources.size() <= 2);
+                final Map<ConfigResource, Config> configs = new HashMap<>();
+                resources.forEach(resource -> configs.putAll(createConfig(resource.name(), Collections.emptySet())));
+                final DescribeConfigsResult describeConfigsResult = mock(DescribeConfigsResult.class);
+                doReturn(KafkaFuture.completedFuture(configs)).when(describeConfigsResult).all();
+                return describeConfigsResult;
+            }).when(adminClient).describeConfigs(anySet());
+            mockListOffsets(adminClient, Collections.emptyMap());
+
+            final List<TopicConfiguration> topics = kafkaClusterRepository.listTopicsByNames(topicNames, new StageTimings()).get();
+            verify(adminClient, times(3)).describeTopics(anyCollection());
+            verify(adminClient, times(3)).describeConfigs(anySet());
+            verify(adminClient, never()).listOffsets(anyMap());
+            assertEquals(topicNames, topics.stream().map(TopicConfiguration::getName).collect(Collectors.toSet()));
+            assertTrue(topics.stream().allMatch(topic -> topic.getPartitions().size() == 3));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method listConsumerGroupOffsets")
+    class ListConsumerGroupOffsets {
+
+        private KafkaClusterRepositoryImpl kafkaClusterRepository;
+
+        @BeforeEach
+        void init() {
+            final SnapshotProperties snapshotProperties = new SnapshotProperties();
+            snapshotProperties.setConsumerGroups(new SnapshotProperties.Batch(2, 2));
+            kafkaClusterRepository = new KafkaClusterRepositoryImpl(adminClient, null, null, null, null, null, snapshotProperties, new DeployProperties(), null, null, null);
+        }
+
+        @Test
+        @DisplayName("should not request more consumer groups at once than chunk size times in-flight limit")
+        void testListConsumerGroupOffsetsInFlightLimit() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            final List<String> groupIds = IntStream.range(0, 7)
+                    .mapToObj(i -> "de.volkerfaas.test.service_" + i)
+                    .collect(Collectors.toList());
+            final Map<String, KafkaFutureImpl<Map<TopicPartition, OffsetAndMetadata>>> futures = new HashMap<>();
+            groupIds.forEach(groupId -> {
+                final KafkaFutureImpl<Map<TopicPartition, OffsetAndMetadata>> future = new KafkaFutureImpl<>();
+                final ListConsumerGroupOffsetsResult listConsumerGroupOffsetsResult = mock(ListConsumerGroupOffsetsResult.class);
+                doReturn(future).when(listConsumerGroupOffsetsResult).partitionsToOffsetAndMetadata();
+                doReturn(listConsumerGroupOffsetsResult).when(adminClient).listConsumerGroupOffsets(groupId);
+                futures.put(groupId, future);
+            });
+
+            final CompletableFuture<Map<String, Map<TopicPartition, OffsetAndMetadata>>> offsets = kafkaClusterRepository.listConsumerGroupOffsets(groupIds);
+            verify(adminClient, times(4)).listConsumerGroupOffsets(anyString());
+
+            groupIds.subList(0, 2).forEach(groupId -> futures.get(groupId).complete(createTopicPartitionOffsetAndMetadata(topicName, 1)));
+            verify(adminClient, timeout(1000).times(6)).listConsumerGroupOffsets(anyString());
+            assertFalse(offsets.isDone());
+
+            groupIds.forEach(groupId -> futures.get(groupId).complete(createTopicPartitionOffsetAndMetadata(topicName, 1)));
+            verify(adminClient, timeout(1000).times(7)).listConsumerGroupOffsets(anyString());
+            assertEquals(7, offsets.get().size());
+        }
+
+        @Test
+        @DisplayName("should describe consumer groups in chunks")
+        void testListConsumerGroupDescriptionsChunked() throws ExecutionException, InterruptedException {
+            final List<String> groupIds = IntStream.range(0, 5)
+                    .mapToObj(i -> "de.volkerfaas.test.service_" + i)
+                    .collect(Collectors.toList());
+            doAnswer(invocation -> {
+                final Collection<String> chunk = invocation.getArgument(0);
+                assertTrue(chunk.size() <= 2);
+                final Map<String, ConsumerGroupDescription> descriptions = chunk.stream()
+                        .collect(Collectors.toMap(groupId -> groupId, groupId -> new ConsumerGroupDescription(groupId, true, Collections.emptyList(), "", ConsumerGroupState.EMPTY, null)));
+                final DescribeConsumerGroupsResult describeConsumerGroupsResult = mock(DescribeConsumerGroupsResult.class);
+                doReturn(KafkaFuture.completedFuture(descriptions)).when(describeConsumerGroupsResult).all();
+                return describeConsumerGroupsResult;
+            }).when(adminClient).describeConsumerGroups(anyCollection());
+
+            final Map<String, ConsumerGroupDescription> descriptions = kafkaClusterRepository.listConsumerGroupDescriptions(groupIds).get();
+            verify(adminClient, times(3)).describeConsumerGroups(anyCollection());
+            assertEquals(Set.copyOf(groupIds), descriptions.keySet());
+        }
+
     }
 
 }
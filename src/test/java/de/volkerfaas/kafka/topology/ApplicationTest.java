@@ -0,0 +1,127 @@
+package de.volkerfaas.kafka.topology;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.volkerfaas.kafka.cluster.model.ClusterConfiguration;
+import de.volkerfaas.kafka.cluster.repositories.impl.ClusterSnapshotRepositoryImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.org.webcompere.systemstubs.security.SystemExit;
+import uk.org.webcompere.systemstubs.stream.SystemErr;
+import uk.org.webcompere.systemstubs.stream.SystemOut;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In the class Application")
+public class ApplicationTest {
+
+    @Nested
+    @DisplayName("the method getClusters")
+    class GetClusters {
+
+        @Test
+        @DisplayName("should split the comma separated clusters")
+        void testGetClusters() {
+            final String[] args = new String[] { "deploy", "--cluster=development, staging,,production,staging" };
+            assertEquals(List.of("development", "staging", "production"), Application.getClusters(args));
+        }
+
+        @Test
+        @DisplayName("should return the local cluster when flag cluster is not given")
+        void testGetClustersNotGiven() {
+            final String[] args = new String[] { "deploy" };
+            assertEquals(List.of("local"), Application.getClusters(args));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method getClusterArgs")
+    class GetClusterArgs {
+
+        @Test
+        @DisplayName("should replace the clusters by the given cluster only")
+        void testGetClusterArgs() {
+            final String[] args = new String[] { "deploy", "--cluster=development,production", "--dry-run" };
+            assertArrayEquals(new String[] { "deploy", "--cluster=production", "--dry-run" }, Application.getClusterArgs(args, "production"));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method runClusterGroup")
+    class RunClusterGroup {
+
+        @Test
+        @DisplayName("should return exit code 3 for commands other than deploy and plan")
+        void testRunClusterGroupUnsupportedCommand() throws Exception {
+            final String[] args = new String[] { "restore", "--cluster=development,production" };
+            assertEquals(3, Application.runClusterGroup(args, Application.getClusters(args)));
+        }
+
+        @Test
+        @DisplayName("should finish the other clusters when the first cluster fails")
+        void testRunClusterGroupFirstClusterFails(@TempDir Path directory) throws Exception {
+            final String[] args = new String[] { "deploy", "--cluster=test,local", "--directory=" + directory, "--from-snapshot=snapshot-lkc-p5zy2.bin" };
+            final SystemExit systemExit = new SystemExit();
+            final int exitCode = systemExit.execute(() -> Application.runClusterGroup(args, Application.getClusters(args)));
+            assertNull(systemExit.getExitCode());
+            assertEquals(3, exitCode);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method main")
+    class Main {
+
+        @Test
+        @DisplayName("should write nothing but JSON lines to standard output with flag --output=json")
+        void testMainWithJsonOutput(@TempDir Path directory) throws Exception {
+            Files.writeString(directory.resolve("topology-de.volkerfaas.json.yaml"), String.join(System.lineSeparator(),
+                    "domain:",
+                    "  name: \"de.volkerfaas.json\"",
+                    "  description: \"Test domain for JSON output\"",
+                    "  principal: \"User:111111\"",
+                    "  maintainer:",
+                    "    name: \"Volker Faas\"",
+                    "    email: \"bluezdrive@volkerfaas.de\"",
+                    "  visibilities:",
+                    "    - type: \"private\"",
+                    "      topics:",
+                    "        - name: \"json_created\"",
+                    "          description: \"Dummy topic for JSON output.\"",
+                    "          clusters: [local]",
+                    "          numPartitions: 1",
+                    "          replicationFactor: 1"));
+            final String snapshot = new ClusterSnapshotRepositoryImpl().writeSnapshot(new ClusterConfiguration("lkc-json", List.of(), List.of(), List.of()), "local", directory.toString()).getPath();
+            final String[] args = new String[] { "deploy", "--cluster=local", "--directory=" + directory, "--from-snapshot=" + snapshot, "--dry-run", "--output=json" };
+            final SystemOut systemOut = new SystemOut();
+            final SystemErr systemErr = new SystemErr();
+            final SystemExit systemExit = new SystemExit();
+            systemOut.execute(() -> systemErr.execute(() -> systemExit.execute(() -> Application.main(args))));
+            assertNull(systemExit.getExitCode());
+
+            final List<String> lines = systemOut.getText().lines().collect(Collectors.toList());
+            assertFalse(lines.isEmpty());
+            final ObjectMapper objectMapper = new ObjectMapper();
+            for (final String line : lines) {
+                final JsonNode json = objectMapper.readTree(line);
+                assertTrue(json.isObject(), line);
+            }
+            assertThat(systemOut.getText(), containsString("\"resource\":\"de.volkerfaas.json.private.json_created\",\"outcome\":\"dry-run\""));
+            assertThat(systemErr.getText(), containsString("New topics to be created in cluster"));
+        }
+
+    }
+
+}
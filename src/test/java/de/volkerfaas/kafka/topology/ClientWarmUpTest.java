@@ -0,0 +1,81 @@
+package de.volkerfaas.kafka.topology;
+
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In the class ClientWarmUp")
+public class ClientWarmUpTest {
+
+    private ClientWarmUp clientWarmUp;
+    private KafkaClusterRepository kafkaClusterRepository;
+    private SchemaRegistryRepository schemaRegistryRepository;
+
+    @BeforeEach
+    void init() {
+        this.kafkaClusterRepository = mock(KafkaClusterRepository.class);
+        this.schemaRegistryRepository = mock(SchemaRegistryRepository.class);
+        this.clientWarmUp = new ClientWarmUp(kafkaClusterRepository, schemaRegistryRepository);
+    }
+
+    @Nested
+    @DisplayName("the method warmUpAsync")
+    class WarmUpAsync {
+
+        @Test
+        @DisplayName("should load the cluster configuration and the subjects concurrently")
+        void testWarmUpAsync() throws Exception {
+            final CountDownLatch started = new CountDownLatch(2);
+            doAnswer(invocation -> {
+                started.countDown();
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                return null;
+            }).when(kafkaClusterRepository).getClusterConfiguration();
+            doAnswer(invocation -> {
+                started.countDown();
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                return null;
+            }).when(schemaRegistryRepository).listSubjects();
+
+            clientWarmUp.warmUpAsync().get(10, TimeUnit.SECONDS);
+            verify(kafkaClusterRepository, times(1)).getClusterConfiguration();
+            verify(schemaRegistryRepository, times(1)).listSubjects();
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when a client cannot connect")
+        void testWarmUpAsyncFailure() throws Exception {
+            doThrow(new IOException("Connection refused")).when(schemaRegistryRepository).listSubjects();
+
+            assertThrows(CompletionException.class, () -> clientWarmUp.warmUpAsync().join());
+            verify(kafkaClusterRepository, times(1)).getClusterConfiguration();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method warmUp")
+    class WarmUp {
+
+        @Test
+        @DisplayName("should not throw an exception when a client cannot connect")
+        void testWarmUpFailure() throws Exception {
+            doThrow(new IOException("Connection refused")).when(schemaRegistryRepository).listSubjects();
+
+            assertDoesNotThrow(() -> clientWarmUp.warmUp());
+        }
+
+    }
+
+}
@@ -1,13 +1,21 @@
 package de.volkerfaas.kafka.topology;
 
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.Manifest;
+import de.volkerfaas.kafka.topology.model.Schema;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
 import de.volkerfaas.kafka.topology.services.*;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import org.apache.kafka.clients.admin.*;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.resource.ResourceType;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.invocation.InvocationOnMock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,6 +24,9 @@ import org.springframework.cache.CacheManager;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
@@ -28,6 +39,8 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static uk.org.webcompere.systemstubs.SystemStubs.catchSystemExit;
 
@@ -53,9 +66,27 @@ public class DeployTopologyIntegrationTest {
     @Autowired
     private TopologyDeleteService topologyDeleteService;
 
+    @Autowired
+    private ClusterSnapshotService clusterSnapshotService;
+
+    @Autowired
+    private ManifestService manifestService;
+
     @Autowired
     private TopologyRestoreService topologyRestoreService;
 
+    @Autowired
+    private KafkaClusterManagerServer kafkaClusterManagerServer;
+
+    @Autowired
+    private TopologyWatcher topologyWatcher;
+
+    @Autowired
+    private DriftService driftService;
+
+    @Autowired
+    private SchemaFileService schemaFileService;
+
     @MockBean
     private KafkaClusterManager kafkaClusterManager;
 
@@ -82,7 +113,7 @@ public class DeployTopologyIntegrationTest {
         final URL resource = getClass().getClassLoader().getResource("topology-de.volkerfaas.arc.yaml");
         assertNotNull(resource);
         this.topologyDirectory = new File(resource.getPath()).getParent();
-        this.kafkaClusterManager = new KafkaClusterManager(documentationService, topologyDeployService, topologyCreateService, topologyRestoreService, topologyDeleteService);
+        this.kafkaClusterManager = new KafkaClusterManager(documentationService, topologyDeployService, topologyCreateService, topologyRestoreService, topologyDeleteService, clusterSnapshotService, manifestService, kafkaClusterManagerServer, topologyWatcher, driftService, mock(ClientWarmUp.class), null);
     }
 
     @AfterEach
@@ -621,6 +652,144 @@ public class DeployTopologyIntegrationTest {
 
     }
 
+    @Nested
+    @DisplayName("should build the changed domains only")
+    class BuildChangedTopology {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("with the consumer acl of a changed domain being created when the consumer domain is unchanged")
+        void testConsumerOfUnchangedDomain() throws Exception {
+            final String topicNameUserUpdated = "de.volkerfaas.arc.public.user_updated";
+            final String topicNameTestCreated = "de.volkerfaas.test.public.test_created";
+            final Path base = Path.of(topologyDirectory);
+            for (final String pathname : List.of("topology-de.volkerfaas.arc.yaml", "topology-de.volkerfaas.test.yaml", "events/de.volkerfaas.arc/de.volkerfaas.arc.public.user_updated-value.avsc", "events/de.volkerfaas.test/de.volkerfaas.test.public.test_created-value.avsc")) {
+                Files.createDirectories(directory.resolve(pathname).getParent());
+                Files.copy(base.resolve(pathname), directory.resolve(pathname));
+            }
+            final Path topologyArc = directory.resolve("topology-de.volkerfaas.arc.yaml");
+            Files.writeString(topologyArc, Files.readString(topologyArc).replace("- principal: \"User:138166\"", "- domain: \"de.volkerfaas.test\""));
+            final Collection<TopologyFile> topologies = topologyDeployService.listTopologies(directory.toString());
+            final Manifest manifest = manifestService.createManifest(directory.toString(), "test", topologies);
+            final List<Domain> domains = topologies.stream().map(TopologyFile::getDomain).collect(Collectors.toList());
+            manifestService.updateManifest(directory.toString(), null, manifest, domains);
+            Files.writeString(topologyArc, Files.readString(topologyArc).replace("Test domain for architecture stuff", "Changed domain for architecture stuff"));
+
+            final Set<AclBinding> aclBindings = createDomainAclBindings("de.volkerfaas.arc.", "User:129849");
+            aclBindings.addAll(createDomainAclBindings("de.volkerfaas.test.", "User:138166"));
+
+            final Map<String, TopicDescription> topicDescriptions = new HashMap<>();
+            topicDescriptions.putAll(createTopicPartitionInfos(topicNameUserUpdated, 5, 9));
+            topicDescriptions.putAll(createTopicPartitionInfos(topicNameTestCreated, 3, 9));
+
+            final Map<ConfigResource, Config> configs = new HashMap<>();
+            configs.putAll(createConfig(topicNameUserUpdated, Set.of(
+                    ConfigEntryUtils.createDynamicTopicConfigEntry("cleanup.policy", "compact"),
+                    ConfigEntryUtils.createDynamicTopicConfigEntry("min.compaction.lag.ms", "100")
+            )));
+            configs.putAll(createConfig(topicNameTestCreated, Collections.emptySet()));
+
+            mockDescribeAcls(adminClient, aclBindings);
+            mockDescribeCluster(adminClient, "lkc-p5zy2");
+            mockDescribeConfigs(adminClient, configs);
+            mockDescribeTopics(adminClient, topicDescriptions);
+            mockListTopics(adminClient, Set.of(topicNameUserUpdated, topicNameTestCreated));
+            mockParseSchema(schemaRegistryClient, "{ \"type\": \"string\" }");
+            mockTestCompatibility(schemaRegistryClient);
+            mockListOffsets(adminClient, Collections.emptyMap());
+            mockListConsumerGroups(adminClient, Collections.emptyList());
+            mockDescribeConsumerGroups(adminClient, Collections.emptyMap());
+
+            final Set<AclBinding> createdAclBindings = new HashSet<>();
+            doAnswer(invocation -> {
+                final Collection<AclBinding> acls = invocation.getArgument(0);
+                createdAclBindings.addAll(acls);
+                final CreateAclsResult createAclsResult = mock(CreateAclsResult.class);
+                doReturn(acls.stream().collect(Collectors.toMap(acl -> acl, acl -> KafkaFuture.completedFuture(null)))).when(createAclsResult).values();
+
+                return createAclsResult;
+            }).when(adminClient).createAcls(anyCollection());
+
+            kafkaClusterManager.deployTopology(directory.toString(), Collections.emptyList(), false, false, false, "test", false);
+            final Set<AclBinding> expectedAclBindings = createConsumerAclBindings("de.volkerfaas.arc.public.", "User:138166").stream()
+                    .filter(aclBinding -> aclBinding.pattern().resourceType() == ResourceType.TOPIC)
+                    .collect(Collectors.toSet());
+            assertEquals(expectedAclBindings, createdAclBindings);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("should not build the topology from a snapshot")
+    class BuildTopologyFromSnapshot {
+
+        @Test
+        @DisplayName("without flag --dry-run")
+        void testDeployFromSnapshot() throws Exception {
+            String[] args = new String[]{"deploy", "--cluster=test", "--directory=" + topologyDirectory, "--from-snapshot=snapshot-lkc-p5zy2.bin"};
+            final int exitCode = catchSystemExit(() -> kafkaClusterManager.run(args));
+            assertEquals(3, exitCode);
+            verify(adminClient, never()).createTopics(any());
+            verify(adminClient, never()).createPartitions(any());
+            verify(adminClient, never()).createAcls(any());
+            verify(adminClient, never()).incrementalAlterConfigs(any());
+        }
+
+        @Test
+        @DisplayName("when detecting drift again after each interval")
+        void testDriftFromSnapshotWithInterval() throws Exception {
+            String[] args = new String[]{"drift", "--cluster=test", "--directory=" + topologyDirectory, "--from-snapshot=snapshot-lkc-p5zy2.bin", "--interval=5m"};
+            final int exitCode = catchSystemExit(() -> kafkaClusterManager.run(args));
+            assertEquals(3, exitCode);
+            verify(adminClient, never()).describeTopics(anyCollection());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("should not apply a deployment plan")
+    class ApplyDeploymentPlan {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("that has been created for another cluster")
+        void testApplyDeploymentPlanOfOtherCluster() throws Exception {
+            final DeploymentPlan plan = new DeploymentPlan("staging", Instant.now(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+            final String planFile = topologyDeployService.writeDeploymentPlan(plan, directory.resolve("plan-staging.bin").toString()).getPath();
+
+            assertThrows(IllegalCommandLineArgumentException.class, () -> kafkaClusterManager.applyDeploymentPlan(directory.toString(), "test", planFile));
+            verify(adminClient, never()).createTopics(any());
+            verify(adminClient, never()).createAcls(any());
+        }
+
+        @Test
+        @DisplayName("whose schema files have been changed after it has been created")
+        void testApplyDeploymentPlanWithChangedSchema() throws Exception {
+            final String pathname = "events/de.volkerfaas.arc/de.volkerfaas.arc.public.user_updated-value.avsc";
+            final Path schemaFile = directory.resolve(pathname);
+            Files.createDirectories(schemaFile.getParent());
+            Files.copy(Path.of(topologyDirectory).resolve(pathname), schemaFile);
+            doAnswer(invocation -> Optional.of(new AvroSchema(invocation.getArgument(1, String.class))))
+                    .when(schemaRegistryClient).parseSchema(eq(AvroSchema.TYPE), anyString(), eq(Collections.emptyList()));
+            final List<Schema> schemas = List.of(new Schema("de.volkerfaas.arc.public.user_updated-value", Schema.Type.AVRO, null));
+            final DeploymentPlan plan = new DeploymentPlan("test", Instant.now(), schemas, schemaFileService.listFingerprints(schemas, directory.toString()), Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+            final String planFile = topologyDeployService.writeDeploymentPlan(plan, directory.resolve("plan-test.bin").toString()).getPath();
+            assertTrue(topologyDeployService.listChangedSchemas(topologyDeployService.readDeploymentPlan(planFile), directory.toString()).isEmpty());
+            Files.writeString(schemaFile, "{ \"type\": \"long\" }");
+
+            assertThrows(IllegalTopologyException.class, () -> kafkaClusterManager.applyDeploymentPlan(directory.toString(), "test", planFile));
+            verify(schemaRegistryClient, never()).testCompatibility(anyString(), any());
+            verify(adminClient, never()).createTopics(any());
+        }
+
+    }
+
     private void verifyConfig(String topicName, InvocationOnMock invocation) {
         final Map<ConfigResource, Collection<AlterConfigOp>> configs = invocation.getArgument(0);
         assertNotNull(configs);
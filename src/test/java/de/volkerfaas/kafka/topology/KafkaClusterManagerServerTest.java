@@ -0,0 +1,180 @@
+package de.volkerfaas.kafka.topology;
+
+import de.volkerfaas.kafka.cluster.model.ClusterConfiguration;
+import de.volkerfaas.kafka.cluster.model.TopicConfiguration;
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.ServeProperties;
+import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
+import de.volkerfaas.utils.CommandLineArguments;
+import de.volkerfaas.utils.DefaultCommandLineArguments;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In the class KafkaClusterManagerServer")
+public class KafkaClusterManagerServerTest {
+
+    private KafkaClusterRepository kafkaClusterRepository;
+    private SchemaRegistryRepository schemaRegistryRepository;
+    private KafkaClusterManagerServer server;
+    private CommandLineArguments serverArguments;
+
+    @BeforeEach
+    void init() {
+        this.kafkaClusterRepository = mock(KafkaClusterRepository.class);
+        this.schemaRegistryRepository = mock(SchemaRegistryRepository.class);
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.counter("kcm.test").increment();
+        this.server = new KafkaClusterManagerServer(new ClientWarmUp(kafkaClusterRepository, schemaRegistryRepository), kafkaClusterRepository, meterRegistry, new ServeProperties());
+        this.serverArguments = new DefaultCommandLineArguments("serve", "--cluster=test", "--dry-run", "--port=0");
+    }
+
+    @Nested
+    @DisplayName("the method createArguments")
+    class CreateArguments {
+
+        @Test
+        @DisplayName("should map the query parameters to flags and add the flags of the server")
+        void testCreateArguments() throws Exception {
+            final List<String> args = server.createArguments("deploy", "domain=de.volkerfaas.arc&full", serverArguments);
+            assertEquals(List.of("deploy", "--domain=de.volkerfaas.arc", "--full", "--cluster=test", "--directory=topology", "--dry-run", "--output=table"), args);
+        }
+
+        @Test
+        @DisplayName("should accept the cluster of the server")
+        void testCreateArgumentsSameCluster() throws Exception {
+            final List<String> args = server.createArguments("restore", "cluster=test&domain=de.volkerfaas.arc", serverArguments);
+            assertEquals(List.of("restore", "--domain=de.volkerfaas.arc", "--cluster=test", "--directory=topology", "--dry-run", "--output=table"), args);
+        }
+
+        @Test
+        @DisplayName("should throw an exception when a flag of the server is changed")
+        void testCreateArgumentsServerProperty() {
+            assertThrows(IllegalCommandLineArgumentException.class, () -> server.createArguments("deploy", "cluster=production", serverArguments));
+            assertThrows(IllegalCommandLineArgumentException.class, () -> server.createArguments("deploy", "dry-run", serverArguments));
+        }
+
+        @Test
+        @DisplayName("should throw an exception when a flag is unknown or not allowed for the command")
+        void testCreateArgumentsInvalid() {
+            assertThrows(IllegalCommandLineArgumentException.class, () -> server.createArguments("deploy", "foo=bar", serverArguments));
+            assertThrows(IllegalCommandLineArgumentException.class, () -> server.createArguments("restore", "full", serverArguments));
+            assertThrows(IllegalCommandLineArgumentException.class, () -> server.createArguments("deploy", "domain=de.volkerfaas.arc&allow-delete-acl", serverArguments));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method serve")
+    class Serve {
+
+        private final HttpClient client = HttpClient.newHttpClient();
+        private final List<List<String>> executed = new CopyOnWriteArrayList<>();
+        private final List<String> topicNames = new CopyOnWriteArrayList<>();
+        private Thread thread;
+
+        @BeforeEach
+        void start() throws Exception {
+            final AtomicReference<ClusterConfiguration> clusterConfiguration = new AtomicReference<>(new ClusterConfiguration("lkc-p5zy2"));
+            final AtomicInteger refreshes = new AtomicInteger();
+            doAnswer(invocation -> clusterConfiguration.get()).when(kafkaClusterRepository).getClusterConfiguration();
+            doAnswer(invocation -> {
+                clusterConfiguration.set(new ClusterConfiguration("lkc-p5zy2", List.of(new TopicConfiguration("de.volkerfaas.arc.public.user_updated_" + refreshes.incrementAndGet(), List.of(), (short) 3, Map.of())), List.of(), List.of()));
+                return clusterConfiguration.get();
+            }).when(kafkaClusterRepository).refreshClusterConfiguration();
+            this.thread = new Thread(() -> {
+                try {
+                    server.serve(serverArguments, arguments -> {
+                        if (arguments.containsProperty(KafkaClusterManagerCommandLineProperty.FULL)) {
+                            throw new IllegalTopologyException();
+                        }
+                        executed.add(arguments.getPropertyValues(KafkaClusterManagerCommandLineProperty.DOMAIN));
+                        kafkaClusterRepository.getClusterConfiguration().getTopics().forEach(topic -> topicNames.add(topic.getName()));
+                    });
+                } catch (Exception e) {
+                    fail(e);
+                }
+            });
+            thread.start();
+            while (Objects.isNull(server.getAddress())) {
+                Thread.sleep(10);
+            }
+        }
+
+        @AfterEach
+        void stop() throws Exception {
+            server.stop();
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+
+        private HttpResponse<String> send(final String method, final String path) throws Exception {
+            final URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+            final HttpRequest request = HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+
+        @Test
+        @DisplayName("should warm up the clients before accepting requests")
+        void testWarmUp() throws Exception {
+            verify(kafkaClusterRepository, times(1)).getClusterConfiguration();
+            verify(schemaRegistryRepository, times(1)).listSubjects();
+        }
+
+        @Test
+        @DisplayName("should execute a deploy request and respond with success")
+        void testDeploy() throws Exception {
+            final HttpResponse<String> response = send("POST", "/deploy?domain=de.volkerfaas.arc");
+            assertEquals(200, response.statusCode());
+            assertThat(response.body(), containsString("\"status\":\"success\""));
+            assertEquals(List.of(List.of("de.volkerfaas.arc")), executed);
+        }
+
+        @Test
+        @DisplayName("should read the cluster configuration again for each request")
+        void testClusterChangedBetweenRequests() throws Exception {
+            assertEquals(200, send("POST", "/plan").statusCode());
+            assertEquals(200, send("POST", "/plan").statusCode());
+            assertEquals(List.of("de.volkerfaas.arc.public.user_updated_1", "de.volkerfaas.arc.public.user_updated_2"), topicNames);
+            verify(kafkaClusterRepository, times(2)).refreshClusterConfiguration();
+        }
+
+        @Test
+        @DisplayName("should respond with the matching status code when a request fails")
+        void testFailures() throws Exception {
+            assertEquals(400, send("POST", "/deploy?foo=bar").statusCode());
+            assertEquals(422, send("POST", "/deploy?full").statusCode());
+            assertEquals(404, send("POST", "/snapshot").statusCode());
+            assertEquals(405, send("GET", "/deploy").statusCode());
+            assertTrue(executed.isEmpty());
+        }
+
+        @Test
+        @DisplayName("should expose health and metrics")
+        void testHealthAndMetrics() throws Exception {
+            assertEquals(200, send("GET", "/health").statusCode());
+            final HttpResponse<String> response = send("GET", "/metrics");
+            assertEquals(200, response.statusCode());
+            assertThat(response.body(), containsString("kcm_test_total"));
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package de.volkerfaas.kafka.topology;
+
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
+import de.volkerfaas.kafka.topology.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In the class KafkaClusterManager")
+public class KafkaClusterManagerTest {
+
+    private ClientWarmUp clientWarmUp;
+    private DriftService driftService;
+    private KafkaClusterManager kafkaClusterManager;
+    private ManifestService manifestService;
+    private TopologyDeployService topologyDeployService;
+
+    @BeforeEach
+    void init() {
+        this.clientWarmUp = mock(ClientWarmUp.class);
+        this.driftService = mock(DriftService.class);
+        this.manifestService = mock(ManifestService.class);
+        this.topologyDeployService = mock(TopologyDeployService.class);
+        this.kafkaClusterManager = new KafkaClusterManager(mock(DocumentationService.class), topologyDeployService, mock(TopologyCreateService.class), mock(TopologyRestoreService.class), mock(TopologyDeleteService.class), mock(ClusterSnapshotService.class), manifestService, mock(KafkaClusterManagerServer.class), mock(TopologyWatcher.class), driftService, clientWarmUp, null);
+    }
+
+    private TopologyFile createTopology(final Domain domain) {
+        final TopologyFile topology = new TopologyFile();
+        topology.setDomain(domain);
+
+        return topology;
+    }
+
+    @Nested
+    @DisplayName("the method createDeploymentPlan")
+    class CreateDeploymentPlan {
+
+        @Test
+        @DisplayName("should start warming up the clients before the topologies are read")
+        void testCreateDeploymentPlanWarmUp() throws Exception {
+            doReturn(Collections.emptyList()).when(topologyDeployService).listTopologies("topology");
+
+            assertNull(kafkaClusterManager.createDeploymentPlan("topology", Collections.emptyList(), false, false, false, "test", null));
+            final InOrder inOrder = inOrder(clientWarmUp, topologyDeployService);
+            inOrder.verify(clientWarmUp).warmUpAsync();
+            inOrder.verify(topologyDeployService).listTopologies("topology");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method deployTopology")
+    class DeployTopology {
+
+        @Test
+        @DisplayName("should start warming up the clients before the topologies are read")
+        void testDeployTopologyWarmUp() throws Exception {
+            final Domain domain = new Domain("de.volkerfaas.arc", "User:123456");
+            final List<TopologyFile> topologies = List.of(createTopology(domain));
+            doReturn(topologies).when(topologyDeployService).listTopologies("topology");
+            doReturn(topologies).when(manifestService).filterChangedTopologies(eq(topologies), any(), any());
+            doReturn(List.of(domain)).when(topologyDeployService).filterDomainsForUpdate(topologies, Collections.emptyList());
+            doReturn(true).when(topologyDeployService).isTopologyValid(topologies, topologies, "topology");
+
+            kafkaClusterManager.deployTopology("topology", Collections.emptyList(), false, false, false, "test", false);
+            final InOrder inOrder = inOrder(clientWarmUp, topologyDeployService);
+            inOrder.verify(clientWarmUp).warmUpAsync();
+            inOrder.verify(topologyDeployService).listTopologies("topology");
+            inOrder.verify(topologyDeployService).updateTopology(List.of(domain), List.of(domain), "topology");
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method detectDrift")
+    class DetectDrift {
+
+        @Test
+        @DisplayName("should keep detecting drift after each interval when a check fails unexpectedly and refresh the cluster configuration from the second check on")
+        void testDetectDriftAfterRuntimeException() throws Exception {
+            final Domain domain = new Domain("de.volkerfaas.arc", "User:123456");
+            final Domain otherDomain = new Domain("de.volkerfaas.test", "User:654321");
+            doReturn(List.of(createTopology(domain), createTopology(otherDomain))).when(topologyDeployService).listTopologies("topology");
+            doReturn(true).when(topologyDeployService).isTopologyValid(anyCollection(), eq("topology"));
+            doThrow(new IllegalStateException("Cluster configuration couldn't be loaded"))
+                    .doAnswer(invocation -> {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Cluster configuration couldn't be loaded");
+                    })
+                    .when(driftService).detectDrift(anyCollection(), anyCollection(), eq("test"), anyBoolean());
+
+            assertThrows(InterruptedException.class, () -> kafkaClusterManager.detectDrift("topology", List.of(domain.getName()), "test", "1ms"));
+            final InOrder inOrder = inOrder(driftService);
+            inOrder.verify(driftService).detectDrift(List.of(domain), List.of(domain, otherDomain), "test", false);
+            inOrder.verify(driftService).detectDrift(List.of(domain), List.of(domain, otherDomain), "test", true);
+            verify(driftService, never()).writeDriftReport(any(), anyString());
+        }
+
+    }
+
+}
@@ -50,9 +50,24 @@ public class RestoreTopologyIntegrationTest {
     @Autowired
     private TopologyDeleteService topologyDeleteService;
 
+    @Autowired
+    private ClusterSnapshotService clusterSnapshotService;
+
+    @Autowired
+    private ManifestService manifestService;
+
     @Autowired
     private TopologyRestoreService topologyRestoreService;
 
+    @Autowired
+    private KafkaClusterManagerServer kafkaClusterManagerServer;
+
+    @Autowired
+    private TopologyWatcher topologyWatcher;
+
+    @Autowired
+    private DriftService driftService;
+
     @MockBean
     private AdminClient adminClient;
 
@@ -82,7 +97,7 @@ public class RestoreTopologyIntegrationTest {
         final URL resource = getClass().getClassLoader().getResource("topology-de.volkerfaas.arc.yaml");
         assertNotNull(resource);
         this.topologyDirectory = new File(resource.getPath()).getParent();
-        this.kafkaClusterManager = new KafkaClusterManager(documentationService, topologyDeployService, topologyCreateService, topologyRestoreService, topologyDeleteService);
+        this.kafkaClusterManager = new KafkaClusterManager(documentationService, topologyDeployService, topologyCreateService, topologyRestoreService, topologyDeleteService, clusterSnapshotService, manifestService, kafkaClusterManagerServer, topologyWatcher, driftService, mock(ClientWarmUp.class), null);
     }
 
     @AfterEach
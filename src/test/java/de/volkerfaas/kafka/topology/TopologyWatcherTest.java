@@ -0,0 +1,145 @@
+package de.volkerfaas.kafka.topology;
+
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.WatchProperties;
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
+import de.volkerfaas.kafka.topology.services.TopologyDeployService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In the class TopologyWatcher")
+public class TopologyWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    private TopologyDeployService topologyDeployService;
+    private TopologyWatcher topologyWatcher;
+
+    private TopologyFile createTopology(final String pathname) {
+        final String fileName = new File(pathname).getName();
+        final Domain domain = new Domain(fileName.substring("topology-".length(), fileName.length() - ".yaml".length()), "User:123456");
+        final TopologyFile topology = new TopologyFile();
+        topology.setDomain(domain);
+        topology.setFile(new File(pathname));
+
+        return topology;
+    }
+
+    @BeforeEach
+    void init() {
+        this.topologyDeployService = mock(TopologyDeployService.class);
+        doAnswer(invocation -> createTopology(invocation.getArgument(0))).when(topologyDeployService).readTopology(anyString());
+        final WatchProperties properties = new WatchProperties();
+        properties.setDebounce(Duration.ofMillis(200));
+        this.topologyWatcher = new TopologyWatcher(topologyDeployService, properties);
+    }
+
+    @Nested
+    @DisplayName("the method getDomainName")
+    class GetDomainName {
+
+        @Test
+        @DisplayName("should return the domain of topology, configuration and schema files")
+        void testGetDomainName() {
+            assertEquals("de.volkerfaas.arc", topologyWatcher.getDomainName(directory, directory.resolve("topology-de.volkerfaas.arc.yaml")));
+            assertEquals("de.volkerfaas.arc", topologyWatcher.getDomainName(directory, directory.resolve("config/config-de.volkerfaas.arc.yaml")));
+            assertEquals("de.volkerfaas.arc", topologyWatcher.getDomainName(directory, directory.resolve("events/de.volkerfaas.arc/de.volkerfaas.arc.public.user_updated-value.avsc")));
+            assertEquals("de.volkerfaas.arc", topologyWatcher.getDomainName(directory, directory.resolve("events/de.volkerfaas.arc")));
+        }
+
+        @Test
+        @DisplayName("should return null for files written by the deployment itself")
+        void testGetDomainNameOtherFiles() {
+            assertNull(topologyWatcher.getDomainName(directory, directory.resolve("topology-de.volkerfaas.arc.md")));
+            assertNull(topologyWatcher.getDomainName(directory, directory.resolve("manifest-test.yaml")));
+            assertNull(topologyWatcher.getDomainName(directory, directory.resolve("metrics-test.json")));
+            assertNull(topologyWatcher.getDomainName(directory, directory.resolve("config/application.yml")));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method watch")
+    class Watch {
+
+        private final BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Set<String>> deployedDomains = new LinkedBlockingQueue<>();
+        private Thread thread;
+
+        @BeforeEach
+        void start() throws Exception {
+            Files.writeString(directory.resolve("topology-de.volkerfaas.arc.yaml"), "domain: arc");
+            Files.writeString(directory.resolve("topology-de.volkerfaas.test.yaml"), "domain: test");
+            Files.createDirectories(directory.resolve("config"));
+            Files.createDirectories(directory.resolve("events").resolve("de.volkerfaas.arc"));
+            doReturn(Set.of(createTopology(directory.resolve("topology-de.volkerfaas.arc.yaml").toString()), createTopology(directory.resolve("topology-de.volkerfaas.test.yaml").toString())))
+                    .when(topologyDeployService).listTopologies(anyString());
+            this.thread = new Thread(() -> {
+                try {
+                    topologyWatcher.watch(directory.toString(), this::deploy);
+                } catch (Exception e) {
+                    fail(e);
+                }
+            });
+            thread.start();
+            assertEquals(Set.of(), changes.poll(10, TimeUnit.SECONDS));
+            assertEquals(Set.of("de.volkerfaas.arc", "de.volkerfaas.test"), deployedDomains.poll(10, TimeUnit.SECONDS));
+        }
+
+        @AfterEach
+        void stop() throws Exception {
+            topologyWatcher.stop();
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+
+        private void deploy(final Collection<TopologyFile> topologies, final Collection<String> domainNames) {
+            deployedDomains.add(topologies.stream().map(topology -> topology.getDomain().getName()).collect(Collectors.toSet()));
+            changes.add(Set.copyOf(domainNames));
+        }
+
+        @Test
+        @DisplayName("should hand a burst of changes over once with the affected domains only")
+        void testWatchDebounce() throws Exception {
+            Files.writeString(directory.resolve("config").resolve("config-de.volkerfaas.arc.yaml"), "a: b");
+            Files.writeString(directory.resolve("events").resolve("de.volkerfaas.arc").resolve("de.volkerfaas.arc.public.user_updated-value.avsc"), "{}");
+            Files.writeString(directory.resolve("topology-de.volkerfaas.arc.yaml"), "domain: arc2");
+            Files.writeString(directory.resolve("topology-de.volkerfaas.arc.md"), "# arc");
+
+            assertEquals(Set.of("de.volkerfaas.arc"), changes.poll(10, TimeUnit.SECONDS));
+            assertNull(changes.poll(1, TimeUnit.SECONDS));
+            verify(topologyDeployService, times(1)).readTopology(directory.resolve("topology-de.volkerfaas.arc.yaml").toString());
+            verify(topologyDeployService, never()).readTopology(directory.resolve("topology-de.volkerfaas.test.yaml").toString());
+        }
+
+        @Test
+        @DisplayName("should drop the domain from the parsed topologies when its topology file is deleted")
+        void testWatchDelete() throws Exception {
+            Files.delete(directory.resolve("topology-de.volkerfaas.test.yaml"));
+            Files.writeString(directory.resolve("topology-de.volkerfaas.arc.yaml"), "domain: arc2");
+
+            assertEquals(Set.of("de.volkerfaas.arc"), changes.poll(10, TimeUnit.SECONDS));
+            assertEquals(Set.of("de.volkerfaas.arc"), deployedDomains.poll(10, TimeUnit.SECONDS));
+            assertEquals(List.of("de.volkerfaas.arc"), topologyWatcher.getTopologies().stream().map(topology -> topology.getDomain().getName()).collect(Collectors.toList()));
+        }
+
+    }
+
+}
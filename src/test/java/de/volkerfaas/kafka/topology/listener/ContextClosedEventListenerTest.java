@@ -0,0 +1,125 @@
+package de.volkerfaas.kafka.topology.listener;
+
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.MetricsProperties;
+import de.volkerfaas.kafka.topology.MetricsWriter;
+import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
+import de.volkerfaas.utils.InstrumentedCache;
+import de.volkerfaas.utils.InstrumentedCacheManager;
+import de.volkerfaas.utils.MetricsInterceptor;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@DisplayName("When ContextClosedEvent is fired")
+public class ContextClosedEventListenerTest {
+
+    @TempDir
+    Path directory;
+
+    private SchemaRegistryRepository createRepository(final PrometheusMeterRegistry meterRegistry, final SchemaRegistryRepository target) {
+        final ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(SchemaRegistryRepository.class);
+        proxyFactory.addAdvisor(MetricsInterceptor.advisor(() -> meterRegistry, "kcm.repository", SchemaRegistryRepository.class));
+
+        return (SchemaRegistryRepository) proxyFactory.getProxy();
+    }
+
+    private ContextClosedEvent createEvent(final PrometheusMeterRegistry meterRegistry, final MetricsProperties properties) {
+        final ApplicationContext context = mock(ConfigurableApplicationContext.class);
+        doReturn(new MetricsWriter(meterRegistry, properties)).when(context).getBean(MetricsWriter.class);
+
+        return new ContextClosedEvent(context);
+    }
+
+    private MetricsProperties createProperties() {
+        final MetricsProperties properties = new MetricsProperties();
+        properties.setDirectory(directory.toString());
+        properties.setJsonFilename("metrics-test.json");
+        properties.setPrometheusFilename("metrics-test.prom");
+
+        return properties;
+    }
+
+    @Test
+    @DisplayName("the metrics of repository calls should be written as JSON and Prometheus text format")
+    void testWriteMetrics() throws Exception {
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        final SchemaRegistryRepository target = mock(SchemaRegistryRepository.class);
+        doThrow(new IllegalStateException("failed")).when(target).deleteSubjects(List.of("c"));
+        final SchemaRegistryRepository repository = createRepository(meterRegistry, target);
+        repository.deleteSubjects(List.of("a", "b"));
+        assertThrows(IllegalStateException.class, () -> repository.deleteSubjects(List.of("c")));
+
+        new ContextClosedEventListener().onApplicationEvent(createEvent(meterRegistry, createProperties()));
+
+        final String json = Files.readString(directory.resolve("metrics-test.json"));
+        assertThat(json, containsString("\"name\" : \"kcm.repository\""));
+        assertThat(json, containsString("\"name\" : \"kcm.repository.payload\""));
+        final String prometheus = Files.readString(directory.resolve("metrics-test.prom"));
+        assertThat(prometheus, containsString("# TYPE kcm_repository_seconds histogram"));
+        assertThat(prometheus, containsString("kcm_repository_seconds_count{component=\"SchemaRegistryRepository\",method=\"deleteSubjects\",outcome=\"success\",} 1.0"));
+        assertThat(prometheus, containsString("kcm_repository_seconds_count{component=\"SchemaRegistryRepository\",method=\"deleteSubjects\",outcome=\"error\",} 1.0"));
+        assertThat(prometheus, containsString("kcm_repository_payload_bucket{component=\"SchemaRegistryRepository\",method=\"deleteSubjects\",le=\"10.0\",} 2.0"));
+        assertThat(prometheus, containsString("kcm_repository_payload_sum{component=\"SchemaRegistryRepository\",method=\"deleteSubjects\",} 3.0"));
+        assertThat(prometheus, containsString("kcm_repository_errors_total{component=\"SchemaRegistryRepository\",exception=\"IllegalStateException\",method=\"deleteSubjects\",} 1.0"));
+    }
+
+    @Test
+    @DisplayName("the statistics of the caches should be logged and written in Prometheus text format")
+    void testWriteCacheMetrics() throws Exception {
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        final InstrumentedCache cache = new InstrumentedCache("cluster", Duration.ofMinutes(10), 1);
+        final InstrumentedCacheManager cacheManager = spy(new InstrumentedCacheManager(List.of(cache)));
+        cacheManager.bindTo(meterRegistry);
+        cache.get("a", () -> "value");
+        cache.get("a", () -> "value");
+        cache.get("b", () -> "value");
+        final ContextClosedEvent event = createEvent(meterRegistry, createProperties());
+        doReturn(cacheManager).when(event.getApplicationContext()).getBean(CacheManager.class);
+
+        new ContextClosedEventListener().onApplicationEvent(event);
+
+        verify(cacheManager).logStatistics();
+        final String prometheus = Files.readString(directory.resolve("metrics-test.prom"));
+        assertThat(prometheus, containsString("kcm_cache_size{cache=\"cluster\",} 1.0"));
+        assertThat(prometheus, containsString("kcm_cache_gets_total{cache=\"cluster\",result=\"hit\",} 1.0"));
+        assertThat(prometheus, containsString("kcm_cache_gets_total{cache=\"cluster\",result=\"miss\",} 2.0"));
+        assertThat(prometheus, containsString("kcm_cache_loads_total{cache=\"cluster\",result=\"success\",} 2.0"));
+        assertThat(prometheus, containsString("kcm_cache_evictions_total{cache=\"cluster\",} 1.0"));
+    }
+
+    @Test
+    @DisplayName("and metrics are disabled nothing should be written")
+    void testMetricsDisabled() {
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.counter("kcm.test").increment();
+        final MetricsProperties properties = createProperties();
+        properties.setEnabled(false);
+
+        new ContextClosedEventListener().onApplicationEvent(createEvent(meterRegistry, properties));
+
+        assertFalse(Files.exists(directory.resolve("metrics-test.json")));
+        assertFalse(Files.exists(directory.resolve("metrics-test.prom")));
+        assertTrue(Files.isDirectory(directory));
+    }
+
+}
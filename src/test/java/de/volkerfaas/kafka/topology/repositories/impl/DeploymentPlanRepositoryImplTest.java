@@ -0,0 +1,106 @@
+package de.volkerfaas.kafka.topology.repositories.impl;
+
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
+import de.volkerfaas.kafka.topology.model.Schema;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.*;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In the class DeploymentPlanRepositoryImpl")
+class DeploymentPlanRepositoryImplTest {
+
+    private DeploymentPlanRepositoryImpl deploymentPlanRepository;
+
+    @BeforeEach
+    void init() {
+        this.deploymentPlanRepository = new DeploymentPlanRepositoryImpl();
+    }
+
+    @Nested
+    @DisplayName("the method writePlan")
+    class WritePlan {
+
+        @Test
+        @DisplayName("should write a plan that is read back with all changes")
+        void testWriteAndReadPlan(@TempDir Path directory) throws IOException {
+            final Schema schema = new Schema("de.volkerfaas.arc.public.user_updated-value", Schema.Type.AVRO, null);
+            final NewTopic newTopic = new NewTopic("de.volkerfaas.arc.public.user_updated", 4, (short) 3).configs(Map.of("cleanup.policy", "compact"));
+            final AclBinding aclBinding = new AclBinding(
+                    new ResourcePattern(ResourceType.TOPIC, "de.volkerfaas.arc.", PatternType.PREFIXED),
+                    new AccessControlEntry("User:129849", "*", AclOperation.READ, AclPermissionType.ALLOW)
+            );
+            final ConfigResource configResource = new ConfigResource(ConfigResource.Type.TOPIC, "de.volkerfaas.arc.public.user_created");
+            final AlterConfigOp alterConfigOp = new AlterConfigOp(new ConfigEntry("retention.ms", null), AlterConfigOp.OpType.DELETE);
+            final AclBindingFilter aclBindingFilter = new AclBindingFilter(
+                    new ResourcePatternFilter(ResourceType.TOPIC, "de.volkerfaas.foo.", PatternType.PREFIXED),
+                    new AccessControlEntryFilter("User:138166", null, AclOperation.ANY, AclPermissionType.ANY)
+            );
+            final Instant createdAt = Instant.ofEpochMilli(1609459200000L);
+            final DeploymentPlan plan = new DeploymentPlan("staging", createdAt, List.of(schema), Map.of(schema.getSubject(), "3f2a9c"), List.of(newTopic), List.of(aclBinding),
+                    Map.of("de.volkerfaas.arc.public.user_created", NewPartitions.increaseTo(6)),
+                    Map.of(configResource, List.of(alterConfigOp)),
+                    List.of(aclBindingFilter), List.of("de.volkerfaas.foo.public.orphaned"), List.of("de.volkerfaas.foo.public.orphaned-value"));
+
+            final File file = deploymentPlanRepository.writePlan(plan, directory.resolve("plan-staging.bin").toString());
+            final DeploymentPlan planOfFile = deploymentPlanRepository.readPlan(file.getPath());
+
+            assertEquals("staging", planOfFile.getCluster());
+            assertEquals(createdAt, planOfFile.getCreatedAt());
+            final Schema schemaOfFile = planOfFile.getSchemas().iterator().next();
+            assertEquals(schema.getSubject(), schemaOfFile.getSubject());
+            assertEquals(Schema.Type.AVRO, schemaOfFile.getType());
+            assertNull(schemaOfFile.getCompatibilityMode());
+            assertEquals(Map.of(schema.getSubject(), "3f2a9c"), planOfFile.getSchemaFingerprints());
+            assertEquals(List.of(newTopic), planOfFile.getNewTopics());
+            assertEquals(List.of(aclBinding), planOfFile.getNewAclBindings());
+            assertEquals(6, planOfFile.getNewPartitions().get("de.volkerfaas.arc.public.user_created").totalCount());
+            final Collection<AlterConfigOp> alterConfigOps = planOfFile.getAlterConfigOperations().get(configResource);
+            assertEquals(List.of(alterConfigOp), alterConfigOps);
+            assertEquals(List.of(aclBindingFilter), planOfFile.getOrphanedAclBindings());
+            assertEquals(List.of("de.volkerfaas.foo.public.orphaned"), planOfFile.getOrphanedTopics());
+            assertEquals(List.of("de.volkerfaas.foo.public.orphaned-value"), planOfFile.getOrphanedSubjects());
+        }
+
+        @Test
+        @DisplayName("should write a plan with topic configs without value")
+        void testWriteAndReadPlanWithNullConfigValue(@TempDir Path directory) throws IOException {
+            final Map<String, String> config = new HashMap<>();
+            config.put("retention.ms", null);
+            final NewTopic newTopic = new NewTopic("de.volkerfaas.arc.public.user_updated", 4, (short) 3).configs(config);
+            final DeploymentPlan plan = new DeploymentPlan("staging", Instant.now(), List.of(), Map.of(), List.of(newTopic), List.of(),
+                    Map.of(), Map.of(), List.of(), List.of(), List.of());
+
+            final File file = deploymentPlanRepository.writePlan(plan, directory.resolve("plan-staging.bin").toString());
+            final DeploymentPlan planOfFile = deploymentPlanRepository.readPlan(file.getPath());
+
+            final NewTopic newTopicOfFile = planOfFile.getNewTopics().iterator().next();
+            assertTrue(newTopicOfFile.configs().containsKey("retention.ms"));
+            assertNull(newTopicOfFile.configs().get("retention.ms"));
+        }
+
+    }
+
+}
@@ -1,13 +1,19 @@
 package de.volkerfaas.kafka.topology.repositories.impl;
 
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
 import de.volkerfaas.kafka.topology.model.Schema;
 import de.volkerfaas.kafka.topology.repositories.SchemaRegistryException;
+import de.volkerfaas.utils.InstrumentedCache;
+import de.volkerfaas.utils.InstrumentedCacheManager;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -24,9 +30,11 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -48,7 +56,7 @@ class SchemaRegistryRepositoryImplTest {
         final File topologyFile = new File(topologyResource.getPath());
         this.topologyDirectory = topologyFile.getParent();
         this.schemaRegistryClient = mock(CachedSchemaRegistryClient.class);
-        this.schemaRegistryRepository = new SchemaRegistryRepositoryImpl(schemaRegistryClient, null);
+        this.schemaRegistryRepository = new SchemaRegistryRepositoryImpl(schemaRegistryClient, null, null, null, null, null);
         final URL schemaResource = this.getClass()
                 .getClassLoader()
                 .getResource("events/de.volkerfaas.arc/de.volkerfaas.arc.public.user_updated-value.avsc");
@@ -185,6 +193,58 @@ class SchemaRegistryRepositoryImplTest {
 
     }
 
+    @Nested
+    @DisplayName("when a schema registry cache is given")
+    class Cached {
+
+        private InstrumentedCache cache;
+
+        @BeforeEach
+        void init() {
+            cache = new InstrumentedCache("schema-registry", Duration.ofMinutes(10), 2);
+            schemaRegistryRepository = new SchemaRegistryRepositoryImpl(schemaRegistryClient, null, new InstrumentedCacheManager(List.of(cache)), null, null, null);
+        }
+
+        @Test
+        @DisplayName("the default compatibility should be requested once for subjects without own compatibility")
+        void testGetCompatibilityModeDefaultCached() throws IOException, RestClientException {
+            doThrow(new RestClientException("Not found", 0, 40401)).when(schemaRegistryClient).getCompatibility(startsWith("de.volkerfaas.test.public."));
+            doReturn("FORWARD_TRANSITIVE").when(schemaRegistryClient).getCompatibility(isNull());
+            assertEquals("FORWARD_TRANSITIVE", schemaRegistryRepository.getCompatibilityMode("de.volkerfaas.test.public.user_updated-value"));
+            assertEquals("FORWARD_TRANSITIVE", schemaRegistryRepository.getCompatibilityMode("de.volkerfaas.test.public.user_created-value"));
+            verify(schemaRegistryClient, times(1)).getCompatibility(isNull());
+            assertEquals(1, cache.getStatistics().getHits());
+            assertEquals(1, cache.getStatistics().getLoads());
+            assertEquals(2, cache.getStatistics().getLoadFailures());
+        }
+
+        @Test
+        @DisplayName("the compatibility of a subject should be requested again after it was updated")
+        void testUpdateCompatibilityEvictsCache() throws IOException, RestClientException {
+            final String subject = "de.volkerfaas.test.public.user_updated-value";
+            doReturn("FORWARD_TRANSITIVE", "FULL_TRANSITIVE").when(schemaRegistryClient).getCompatibility(eq(subject));
+            doReturn("FULL_TRANSITIVE").when(schemaRegistryClient).updateCompatibility(eq(subject), eq("FULL_TRANSITIVE"));
+            schemaRegistryRepository.updateCompatibility(new Schema(subject, Schema.Type.AVRO, Schema.CompatibilityMode.FULL_TRANSITIVE));
+            assertEquals("FULL_TRANSITIVE", schemaRegistryRepository.getCompatibilityMode(subject));
+            verify(schemaRegistryClient, times(2)).getCompatibility(eq(subject));
+        }
+
+        @Test
+        @DisplayName("the least recently used entry should be evicted when the cache is full")
+        void testEviction() throws IOException, RestClientException {
+            doReturn(List.of("de.volkerfaas.test.public.user_updated-value")).when(schemaRegistryClient).getAllSubjects();
+            doReturn("FULL").when(schemaRegistryClient).getCompatibility(anyString());
+            schemaRegistryRepository.listSubjects();
+            schemaRegistryRepository.getCompatibilityMode("de.volkerfaas.test.public.user_updated-value");
+            schemaRegistryRepository.getCompatibilityMode("de.volkerfaas.test.public.user_created-value");
+            schemaRegistryRepository.listSubjects();
+            verify(schemaRegistryClient, times(2)).getAllSubjects();
+            assertEquals(2, cache.size());
+            assertEquals(2, cache.getStatistics().getEvictions());
+        }
+
+    }
+
     @Nested
     @DisplayName("the method registerSchema")
     class RegisterSchema {
@@ -300,6 +360,65 @@ class SchemaRegistryRepositoryImplTest {
 
 
 
+    }
+
+    @Nested
+    @DisplayName("the method registerSchemas")
+    class RegisterSchemas {
+
+        private MeterRegistry meterRegistry;
+
+        @BeforeEach
+        void init() {
+            final DeployProperties deployProperties = new DeployProperties();
+            deployProperties.setSchemaParallelism(2);
+            this.meterRegistry = new SimpleMeterRegistry();
+            schemaRegistryRepository = new SchemaRegistryRepositoryImpl(schemaRegistryClient, null, null, null, deployProperties, meterRegistry);
+        }
+
+        @Test
+        @DisplayName("should process all subjects concurrently and report the failures together")
+        void testRegisterSchemasFailures() throws Exception {
+            final String incompatibleSubject = "de.volkerfaas.arc.public.user_updated-value";
+            final String subject = "de.volkerfaas.test.public.test_created-value";
+            final CountDownLatch started = new CountDownLatch(2);
+            doReturn(Optional.of(new AvroSchema("{ \"type\": \"string\" }"))).when(schemaRegistryClient).parseSchema(eq(AvroSchema.TYPE), anyString(), anyList());
+            doAnswer(invocation -> {
+                started.countDown();
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                return !Objects.equals(incompatibleSubject, invocation.getArgument(0));
+            }).when(schemaRegistryClient).testCompatibility(anyString(), any(ParsedSchema.class));
+            doReturn(Collections.emptyList()).when(schemaRegistryClient).getAllVersions(anyString());
+            doReturn(1).when(schemaRegistryClient).register(eq(subject), any(ParsedSchema.class));
+
+            final List<Schema> schemas = List.of(new Schema(incompatibleSubject, Schema.Type.AVRO, null), new Schema(subject, Schema.Type.AVRO, null));
+            final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> schemaRegistryRepository.registerSchemas(schemas, topologyDirectory));
+            assertEquals("Failed to register schemas for 1 of 2 subjects", exception.getMessage());
+            assertTrue(exception.getCause() instanceof SchemaRegistryException);
+            verify(schemaRegistryClient, times(1)).register(eq(subject), any(ParsedSchema.class));
+            verify(schemaRegistryClient, never()).register(eq(incompatibleSubject), any(ParsedSchema.class));
+            final Map<String, Long> counts = meterRegistry.get("kcm.schema.subject").timers().stream()
+                    .collect(Collectors.toMap(timer -> timer.getId().getTag("outcome"), Timer::count));
+            assertEquals(Map.of("failure", 1L, "success", 1L), counts);
+        }
+
+        @Test
+        @DisplayName("should return the versions of the existing and the newly registered schemas")
+        void testRegisterSchemasVersions() throws Exception {
+            final String existingSubject = "de.volkerfaas.arc.public.user_updated-value";
+            final String subject = "de.volkerfaas.test.public.test_created-value";
+            doReturn(Optional.of(new AvroSchema("{ \"type\": \"string\" }"))).when(schemaRegistryClient).parseSchema(eq(AvroSchema.TYPE), anyString(), anyList());
+            doReturn(true).when(schemaRegistryClient).testCompatibility(anyString(), any(ParsedSchema.class));
+            doReturn(List.of(1, 2)).when(schemaRegistryClient).getAllVersions(existingSubject);
+            doReturn(2).when(schemaRegistryClient).getVersion(eq(existingSubject), any(ParsedSchema.class));
+            doReturn(Collections.emptyList()).when(schemaRegistryClient).getAllVersions(subject);
+            doReturn(7).when(schemaRegistryClient).register(eq(subject), any(ParsedSchema.class));
+            doReturn(new SchemaMetadata(7, 1, "AVRO", Collections.emptyList(), "{ \"type\": \"string\" }")).when(schemaRegistryClient).getLatestSchemaMetadata(subject);
+
+            final List<Schema> schemas = List.of(new Schema(existingSubject, Schema.Type.AVRO, null), new Schema(subject, Schema.Type.AVRO, null));
+            assertEquals(Map.of(existingSubject, 2, subject, 1), schemaRegistryRepository.registerSchemas(schemas, topologyDirectory));
+        }
+
     }
 
     @Nested
@@ -308,7 +427,7 @@ class SchemaRegistryRepositoryImplTest {
 
         @BeforeEach
         void init() {
-            schemaRegistryRepository = new SchemaRegistryRepositoryImpl(schemaRegistryClient, "");
+            schemaRegistryRepository = new SchemaRegistryRepositoryImpl(schemaRegistryClient, "", null, null, null, null);
         }
 
         @Test
@@ -0,0 +1,138 @@
+package de.volkerfaas.kafka.topology.services.impl;
+
+import de.volkerfaas.kafka.cluster.repositories.KafkaClusterRepository;
+import de.volkerfaas.kafka.topology.MetricsWriter;
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.DriftReport;
+import de.volkerfaas.kafka.topology.repositories.impl.DriftReportRepositoryImpl;
+import de.volkerfaas.kafka.topology.services.AccessControlService;
+import de.volkerfaas.kafka.topology.services.TopicService;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.*;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In the class DriftServiceImpl")
+class DriftServiceImplTest {
+
+    private AccessControlService accessControlService;
+    private DriftServiceImpl driftService;
+    private KafkaClusterRepository kafkaClusterRepository;
+    private PrometheusMeterRegistry meterRegistry;
+    private MetricsWriter metricsWriter;
+    private TopicService topicService;
+
+    private final List<Domain> domains = List.of(new Domain("de.volkerfaas.arc", "User:123456"), new Domain("de.volkerfaas.test", "User:654321"));
+
+    @BeforeEach
+    void init() {
+        this.accessControlService = mock(AccessControlService.class);
+        this.kafkaClusterRepository = mock(KafkaClusterRepository.class);
+        this.meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        this.topicService = mock(TopicService.class);
+        this.metricsWriter = mock(MetricsWriter.class);
+        this.driftService = new DriftServiceImpl(kafkaClusterRepository, topicService, accessControlService, new DriftReportRepositoryImpl(), meterRegistry, metricsWriter);
+    }
+
+    private String writePrometheus() {
+        return meterRegistry.scrape();
+    }
+
+    @Nested
+    @DisplayName("the method detectDrift")
+    class DetectDrift {
+
+        @Test
+        @DisplayName("should count the drifted resources per domain and type after refreshing the cluster configuration")
+        void testDetectDrift() throws Exception {
+            doReturn(List.of(new NewTopic("de.volkerfaas.arc.public.user_updated", 1, (short) 1))).when(topicService).createNewTopics(anyCollection());
+            doReturn(Map.of("de.volkerfaas.test.public.test_created", NewPartitions.increaseTo(4))).when(topicService).createNewPartitions(anyCollection());
+            doReturn(Map.of(new ConfigResource(ConfigResource.Type.TOPIC, "de.volkerfaas.arc.public.user_created"), List.of())).when(topicService).createAlterConfigOperations(anyCollection());
+            doReturn(Set.of("de.volkerfaas.arc.public.manual", "other.domain.name.public.test")).when(topicService).listOrphanedTopics(anyCollection());
+            doReturn(List.of(new AclBinding(new ResourcePattern(ResourceType.GROUP, "consumer-app", PatternType.PREFIXED), new AccessControlEntry("User:654321", "*", AclOperation.READ, AclPermissionType.ALLOW))))
+                    .when(accessControlService).listNewAclBindings(anyCollection(), anyCollection());
+            doReturn(List.of(new AclBindingFilter(new ResourcePatternFilter(ResourceType.TOPIC, "de.volkerfaas.arc.", PatternType.PREFIXED), new AccessControlEntryFilter("User:999999", "*", AclOperation.WRITE, AclPermissionType.ALLOW))))
+                    .when(accessControlService).listOrphanedAclBindings(anyCollection(), anyCollection());
+
+            final DriftReport report = driftService.detectDrift(domains, domains, "test", true);
+            verify(kafkaClusterRepository, times(1)).refreshClusterConfiguration();
+            assertEquals(7, report.getTotal());
+            final Map<String, Map<String, Integer>> counts = report.getCounts();
+            assertEquals(Set.of("de.volkerfaas.arc", "de.volkerfaas.test", DriftServiceImpl.UNKNOWN_DOMAIN), counts.keySet());
+            assertEquals(Map.of("config", 1, "missing-acl", 0, "missing-topic", 1, "orphaned-acl", 1, "orphaned-topic", 1, "partitions", 0), counts.get("de.volkerfaas.arc"));
+            assertEquals(Map.of("config", 0, "missing-acl", 1, "missing-topic", 0, "orphaned-acl", 0, "orphaned-topic", 0, "partitions", 1), counts.get("de.volkerfaas.test"));
+            assertEquals(1, counts.get(DriftServiceImpl.UNKNOWN_DOMAIN).get("orphaned-topic"));
+            assertThat(writePrometheus(), containsString("kcm_drift{cluster=\"test\",domain=\"de.volkerfaas.arc\",type=\"missing-topic\",} 1.0"));
+        }
+
+        @Test
+        @DisplayName("should reset the metrics of resources that no longer drift without refreshing the cluster configuration if not requested")
+        void testDetectDriftResolved() throws Exception {
+            doReturn(Set.of("other.domain.name.public.test")).when(topicService).listOrphanedTopics(anyCollection());
+            driftService.detectDrift(domains, domains, "test", false);
+            verify(kafkaClusterRepository, never()).refreshClusterConfiguration();
+            assertThat(writePrometheus(), containsString("kcm_drift{cluster=\"test\",domain=\"unknown\",type=\"orphaned-topic\",} 1.0"));
+
+            doReturn(Set.of()).when(topicService).listOrphanedTopics(anyCollection());
+            final DriftReport report = driftService.detectDrift(domains, domains, "test", true);
+            assertEquals(0, report.getTotal());
+            final String prometheus = writePrometheus();
+            assertThat(prometheus, containsString("kcm_drift{cluster=\"test\",domain=\"unknown\",type=\"orphaned-topic\",} 0.0"));
+            assertThat(prometheus, containsString("kcm_drift_checks_total{cluster=\"test\",outcome=\"drift\",} 1.0"));
+            assertThat(prometheus, containsString("kcm_drift_checks_total{cluster=\"test\",outcome=\"clean\",} 1.0"));
+        }
+
+        @Test
+        @DisplayName("should resolve the principals of ACLs with all domains when only some domains are checked")
+        void testDetectDriftOfDomain() throws Exception {
+            final List<Domain> domainsToCheck = List.of(domains.get(0));
+            driftService.detectDrift(domainsToCheck, domains, "test", false);
+            verify(accessControlService).listNewAclBindings(domainsToCheck, domains);
+            verify(accessControlService).listOrphanedAclBindings(domainsToCheck, domains);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method writeDriftReport")
+    class WriteDriftReport {
+
+        @Test
+        @DisplayName("should write the report as JSON into the topology directory and the metrics")
+        void testWriteDriftReport(@TempDir Path directory) throws Exception {
+            doReturn(Set.of("de.volkerfaas.arc.public.manual")).when(topicService).listOrphanedTopics(anyCollection());
+            final DriftReport report = driftService.detectDrift(domains, domains, "test", true);
+
+            final File file = driftService.writeDriftReport(report, directory.toString());
+            assertEquals(directory.resolve("drift-test.json").toFile(), file);
+            final String json = Files.readString(file.toPath());
+            assertThat(json, containsString("\"total\" : 1"));
+            assertThat(json, containsString("\"orphaned-topic\" : [ \"de.volkerfaas.arc.public.manual\" ]"));
+            verify(metricsWriter).writeMetrics();
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package de.volkerfaas.kafka.topology.services.impl;
+
+import de.volkerfaas.kafka.topology.model.AccessControl;
+import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.Manifest;
+import de.volkerfaas.kafka.topology.model.TopologyFile;
+import de.volkerfaas.kafka.topology.model.Visibility;
+import de.volkerfaas.kafka.topology.repositories.ManifestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("In the class ManifestServiceImpl")
+class ManifestServiceImplTest {
+
+    private ManifestRepository manifestRepository;
+    private ManifestServiceImpl manifestService;
+
+    @BeforeEach
+    void init() {
+        this.manifestRepository = mock(ManifestRepository.class);
+        this.manifestService = new ManifestServiceImpl(manifestRepository, null);
+    }
+
+    private TopologyFile createTopology(Path directory, String domainName) throws IOException {
+        final Path file = directory.resolve("topology-" + domainName + ".yaml");
+        Files.writeString(file, "domain:\n  name: \"" + domainName + "\"\n");
+        final TopologyFile topology = new TopologyFile();
+        topology.setFile(file.toFile());
+        topology.setDomain(new Domain(domainName));
+
+        return topology;
+    }
+
+    @Nested
+    @DisplayName("the method filterChangedTopologies")
+    class FilterChangedTopologies {
+
+        @Test
+        @DisplayName("should skip domains whose topology, config and schema files are unchanged")
+        void testFilterChangedTopologies(@TempDir Path directory) throws IOException {
+            final TopologyFile topologyArc = createTopology(directory, "de.volkerfaas.arc");
+            final TopologyFile topologyTest = createTopology(directory, "de.volkerfaas.test");
+            final Path events = Files.createDirectories(directory.resolve("events").resolve("de.volkerfaas.test"));
+            Files.writeString(events.resolve("de.volkerfaas.test.public.test_created-value.avsc"), "{ \"type\": \"string\" }");
+            final List<TopologyFile> topologies = List.of(topologyArc, topologyTest);
+            final Manifest previous = manifestService.createManifest(directory.toString(), "test", topologies);
+            assertEquals(Map.of("topology-de.volkerfaas.arc.yaml", manifestService.hash(topologyArc.getFile().toPath())), previous.getDomains().get("de.volkerfaas.arc"));
+
+            Files.writeString(events.resolve("de.volkerfaas.test.public.test_created-value.avsc"), "{ \"type\": \"int\" }");
+            final Manifest current = manifestService.createManifest(directory.toString(), "test", topologies);
+            final Collection<TopologyFile> changedTopologies = manifestService.filterChangedTopologies(topologies, previous, current);
+            assertEquals(List.of(topologyTest), changedTopologies);
+            assertEquals(topologies, manifestService.filterChangedTopologies(topologies, null, current));
+        }
+
+        @Test
+        @DisplayName("should include domains granting access to a domain whose principal has changed")
+        void testFilterChangedTopologiesWithChangedPrincipal(@TempDir Path directory) throws IOException {
+            final TopologyFile topologyArc = createTopology(directory, "de.volkerfaas.arc");
+            topologyArc.getDomain().setPrincipal("User:200000");
+            final TopologyFile topologyTest = createTopology(directory, "de.volkerfaas.test");
+            final AccessControl consumer = new AccessControl();
+            consumer.setDomain("de.volkerfaas.arc");
+            final Visibility visibility = new Visibility(Visibility.Type.PROTECTED);
+            visibility.getConsumers().add(consumer);
+            topologyTest.getDomain().getVisibilities().add(visibility);
+            final List<TopologyFile> topologies = List.of(topologyArc, topologyTest);
+            final Manifest previous = manifestService.createManifest(directory.toString(), "test", topologies);
+            assertEquals(Set.of("topology-de.volkerfaas.test.yaml", "principal:de.volkerfaas.arc"), previous.getDomains().get("de.volkerfaas.test").keySet());
+
+            topologyArc.getDomain().setPrincipal("User:200001");
+            Files.writeString(topologyArc.getFile().toPath(), "domain:\n  name: \"de.volkerfaas.arc\"\n  principal: \"User:200001\"\n");
+            final Manifest current = manifestService.createManifest(directory.toString(), "test", topologies);
+            final Collection<TopologyFile> changedTopologies = manifestService.filterChangedTopologies(topologies, previous, current);
+            assertEquals(List.of(topologyArc, topologyTest), changedTopologies);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method updateManifest")
+    class UpdateManifest {
+
+        @Test
+        @DisplayName("should keep the previous hashes of domains that have not been deployed")
+        void testUpdateManifest() throws IOException {
+            final Manifest previous = new Manifest("test", Map.of(
+                    "de.volkerfaas.arc", Map.of("topology-de.volkerfaas.arc.yaml", "a1"),
+                    "de.volkerfaas.foo", Map.of("topology-de.volkerfaas.foo.yaml", "f1")
+            ));
+            final Manifest current = new Manifest("test", Map.of(
+                    "de.volkerfaas.arc", Map.of("topology-de.volkerfaas.arc.yaml", "a2"),
+                    "de.volkerfaas.test", Map.of("topology-de.volkerfaas.test.yaml", "t2")
+            ));
+            manifestService.updateManifest("topology", previous, current, List.of(new Domain("de.volkerfaas.test")));
+
+            final ArgumentCaptor<Manifest> manifest = ArgumentCaptor.forClass(Manifest.class);
+            verify(manifestRepository).writeManifest(manifest.capture(), anyString());
+            assertEquals("test", manifest.getValue().getCluster());
+            assertEquals(Map.of(
+                    "de.volkerfaas.arc", Map.of("topology-de.volkerfaas.arc.yaml", "a1"),
+                    "de.volkerfaas.test", Map.of("topology-de.volkerfaas.test.yaml", "t2")
+            ), manifest.getValue().getDomains());
+        }
+
+    }
+
+}
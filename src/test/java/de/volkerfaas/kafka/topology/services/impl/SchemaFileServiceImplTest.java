@@ -1,9 +1,12 @@
 package de.volkerfaas.kafka.topology.services.impl;
 
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
 import de.volkerfaas.kafka.topology.model.Domain;
 import de.volkerfaas.kafka.topology.model.Schema;
+import de.volkerfaas.kafka.topology.model.SchemaFingerprints;
 import de.volkerfaas.kafka.topology.model.Topic;
 import de.volkerfaas.kafka.topology.model.Visibility;
+import de.volkerfaas.kafka.topology.repositories.SchemaFingerprintRepository;
 import de.volkerfaas.kafka.topology.repositories.SchemaRegistryRepository;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,30 +16,38 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 
+import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @DisplayName("In the class SchemaFileServiceImpl")
 class SchemaFileServiceImplTest {
 
+    private DeployProperties deployProperties;
     private SchemaFileServiceImpl schemaFileService;
+    private SchemaFingerprintRepository schemaFingerprintRepository;
     private SchemaRegistryRepository schemaRegistryRepository;
 
     @BeforeEach
     void init() {
+        this.deployProperties = new DeployProperties();
+        this.schemaFingerprintRepository = mock(SchemaFingerprintRepository.class);
         this.schemaRegistryRepository = mock(SchemaRegistryRepository.class);
-        this.schemaFileService = new SchemaFileServiceImpl(schemaRegistryRepository);
+        this.schemaFileService = new SchemaFileServiceImpl(schemaRegistryRepository, schemaFingerprintRepository, deployProperties, "test", null);
     }
 
     @Nested
@@ -258,4 +269,123 @@ class SchemaFileServiceImplTest {
 
     }
 
+    @Nested
+    @DisplayName("the method registerSchemas")
+    class RegisterSchemas {
+
+        private final String directory = "topology";
+        private final String pathname = new File(directory, "schemas-test.yaml").getPath();
+        private final Schema keySchema = new Schema("de.volkerfaas.arc.public.user_updated-key", Schema.Type.AVRO, null);
+        private final Schema valueSchema = new Schema("de.volkerfaas.arc.public.user_updated-value", Schema.Type.AVRO, Schema.CompatibilityMode.FORWARD_TRANSITIVE);
+
+        @BeforeEach
+        void init() throws Exception {
+            doReturn("a1").when(schemaRegistryRepository).getFingerprint(eq(keySchema), anyString());
+            doReturn("b2").when(schemaRegistryRepository).getFingerprint(eq(valueSchema), anyString());
+            doReturn(List.of(keySchema.getSubject(), valueSchema.getSubject())).when(schemaRegistryRepository).listSubjects();
+            doReturn(Map.of(keySchema.getSubject(), 1, valueSchema.getSubject(), 3)).when(schemaRegistryRepository).registerSchemas(anyCollection(), anyString());
+        }
+
+        private SchemaFingerprints createFingerprints(final String verifiedAt, final String valueFingerprint, final String valueCompatibilityMode) {
+            return new SchemaFingerprints("test", verifiedAt, Map.of(
+                    keySchema.getSubject(), new SchemaFingerprints.Subject("a1", 1, null),
+                    valueSchema.getSubject(), new SchemaFingerprints.Subject(valueFingerprint, 3, valueCompatibilityMode)
+            ));
+        }
+
+        @Test
+        @DisplayName("should register all schemas and store their fingerprints when there are no fingerprints yet")
+        void testRegisterSchemasWithoutFingerprints() throws Exception {
+            schemaFileService.registerSchemas(List.of(keySchema, valueSchema), directory);
+            verify(schemaRegistryRepository, times(1)).registerSchemas(List.of(keySchema, valueSchema), directory);
+            verify(schemaRegistryRepository, never()).listSubjects();
+
+            final ArgumentCaptor<SchemaFingerprints> captor = ArgumentCaptor.forClass(SchemaFingerprints.class);
+            verify(schemaFingerprintRepository, times(1)).writeFingerprints(captor.capture(), eq(pathname));
+            final SchemaFingerprints fingerprints = captor.getValue();
+            assertEquals("test", fingerprints.getCluster());
+            final SchemaFingerprints.Subject subject = fingerprints.getSubjects().get(valueSchema.getSubject());
+            assertNotNull(subject.getVerifiedAt());
+            assertEquals("b2", subject.getFingerprint());
+            assertEquals(3, subject.getVersion());
+            assertEquals("FORWARD_TRANSITIVE", subject.getCompatibilityMode());
+        }
+
+        @Test
+        @DisplayName("should skip subjects whose fingerprint and compatibility mode are unchanged")
+        void testRegisterSchemasUnchanged() throws Exception {
+            final String verifiedAt = Instant.now().toString();
+            doReturn(createFingerprints(verifiedAt, "b1", "FORWARD_TRANSITIVE")).when(schemaFingerprintRepository).readFingerprints(pathname);
+            schemaFileService.registerSchemas(List.of(keySchema, valueSchema), directory);
+            verify(schemaRegistryRepository, times(1)).registerSchemas(List.of(valueSchema), directory);
+
+            final ArgumentCaptor<SchemaFingerprints> captor = ArgumentCaptor.forClass(SchemaFingerprints.class);
+            verify(schemaFingerprintRepository, times(1)).writeFingerprints(captor.capture(), eq(pathname));
+            assertEquals(verifiedAt, captor.getValue().getSubjects().get(keySchema.getSubject()).getVerifiedAt());
+            assertEquals("b2", captor.getValue().getSubjects().get(valueSchema.getSubject()).getFingerprint());
+        }
+
+        @Test
+        @DisplayName("should register a schema again when its compatibility mode has changed or its subject has been deleted")
+        void testRegisterSchemasCompatibilityModeChanged() throws Exception {
+            doReturn(createFingerprints(Instant.now().toString(), "b2", "BACKWARD")).when(schemaFingerprintRepository).readFingerprints(pathname);
+            doReturn(List.of(valueSchema.getSubject())).when(schemaRegistryRepository).listSubjects();
+            schemaFileService.registerSchemas(List.of(keySchema, valueSchema), directory);
+            verify(schemaRegistryRepository, times(1)).registerSchemas(List.of(keySchema, valueSchema), directory);
+        }
+
+        @Test
+        @DisplayName("should verify all subjects once the verification interval has passed")
+        void testRegisterSchemasVerificationDue() throws Exception {
+            deployProperties.setSchemaVerificationInterval(Duration.ofHours(1));
+            schemaFileService = new SchemaFileServiceImpl(schemaRegistryRepository, schemaFingerprintRepository, deployProperties, "test", null);
+            final String verifiedAt = Instant.now().minus(Duration.ofHours(2)).toString();
+            doReturn(createFingerprints(verifiedAt, "b2", "FORWARD_TRANSITIVE")).when(schemaFingerprintRepository).readFingerprints(pathname);
+            schemaFileService.registerSchemas(List.of(keySchema, valueSchema), directory);
+            verify(schemaRegistryRepository, times(1)).registerSchemas(List.of(keySchema, valueSchema), directory);
+
+            final ArgumentCaptor<SchemaFingerprints> captor = ArgumentCaptor.forClass(SchemaFingerprints.class);
+            verify(schemaFingerprintRepository, times(1)).writeFingerprints(captor.capture(), eq(pathname));
+            assertNotEquals(verifiedAt, captor.getValue().getSubjects().get(keySchema.getSubject()).getVerifiedAt());
+            assertNotEquals(verifiedAt, captor.getValue().getSubjects().get(valueSchema.getSubject()).getVerifiedAt());
+        }
+
+        @Test
+        @DisplayName("should keep the fingerprints and verification times of subjects that are not deployed")
+        void testRegisterSchemasVerificationDueWithOtherSubjects() throws Exception {
+            deployProperties.setSchemaVerificationInterval(Duration.ofHours(1));
+            schemaFileService = new SchemaFileServiceImpl(schemaRegistryRepository, schemaFingerprintRepository, deployProperties, "test", null);
+            final String verifiedAt = Instant.now().minus(Duration.ofHours(2)).toString();
+            final String otherSubject = "de.volkerfaas.test.public.test_created-value";
+            final SchemaFingerprints fingerprints = createFingerprints(verifiedAt, "b2", "FORWARD_TRANSITIVE");
+            fingerprints.getSubjects().put(otherSubject, new SchemaFingerprints.Subject("c1", 2, null, verifiedAt));
+            doReturn(fingerprints).when(schemaFingerprintRepository).readFingerprints(pathname);
+            schemaFileService.registerSchemas(List.of(valueSchema), directory);
+            verify(schemaRegistryRepository, times(1)).registerSchemas(List.of(valueSchema), directory);
+
+            final ArgumentCaptor<SchemaFingerprints> captor = ArgumentCaptor.forClass(SchemaFingerprints.class);
+            verify(schemaFingerprintRepository, times(1)).writeFingerprints(captor.capture(), eq(pathname));
+            final Map<String, SchemaFingerprints.Subject> subjects = captor.getValue().getSubjects();
+            assertEquals(Set.of(keySchema.getSubject(), valueSchema.getSubject(), otherSubject), subjects.keySet());
+            assertEquals("a1", subjects.get(keySchema.getSubject()).getFingerprint());
+            assertEquals(verifiedAt, subjects.get(keySchema.getSubject()).getVerifiedAt());
+            assertEquals("c1", subjects.get(otherSubject).getFingerprint());
+            assertEquals(verifiedAt, subjects.get(otherSubject).getVerifiedAt());
+            assertNotEquals(verifiedAt, subjects.get(valueSchema.getSubject()).getVerifiedAt());
+        }
+
+        @Test
+        @DisplayName("should ignore fingerprints of another cluster and keep the fingerprints when a registration fails")
+        void testRegisterSchemasFailure() throws Exception {
+            final SchemaFingerprints fingerprints = createFingerprints(Instant.now().toString(), "b2", "FORWARD_TRANSITIVE");
+            fingerprints.setCluster("production");
+            doReturn(fingerprints).when(schemaFingerprintRepository).readFingerprints(pathname);
+            doThrow(new IllegalStateException("Failed to register schemas for 1 of 2 subjects")).when(schemaRegistryRepository).registerSchemas(anyCollection(), anyString());
+            assertThrows(IllegalStateException.class, () -> schemaFileService.registerSchemas(List.of(keySchema, valueSchema), directory));
+            verify(schemaRegistryRepository, times(1)).registerSchemas(List.of(keySchema, valueSchema), directory);
+            verify(schemaFingerprintRepository, never()).writeFingerprints(any(), anyString());
+        }
+
+    }
+
 }
@@ -463,6 +463,22 @@ class TopicServiceImplTest {
             assertEquals(1, activeConsumerGroups.size());
         }
 
+        @Test
+        @DisplayName("should skip consumers whose partition is unknown")
+        void testListActiveConsumerGroupsWithUnknownPartition() throws ExecutionException, InterruptedException {
+            final String topicName = "de.volkerfaas.test.public.user_updated";
+            final PartitionConfiguration partitionConfiguration = new PartitionConfiguration(topicName, 0);
+            final ConsumerGroupConfiguration consumerGroupConfiguration = new ConsumerGroupConfiguration("de.volkerfaas.test.myservice", ConsumerGroupConfiguration.State.STABLE);
+            consumerGroupConfiguration.getConsumers().add(new ConsumerConfiguration(null, 3));
+            consumerGroupConfiguration.getConsumers().add(new ConsumerConfiguration(partitionConfiguration, 9));
+            final ClusterConfiguration clusterConfiguration = new ClusterConfiguration("lkc-p5zy2");
+            clusterConfiguration.getTopics().add(new TopicConfiguration(topicName, List.of(partitionConfiguration), (short) 3, new HashMap<>()));
+            clusterConfiguration.getConsumerGroups().add(consumerGroupConfiguration);
+            doReturn(clusterConfiguration).when(kafkaClusterRepository).getClusterConfiguration();
+
+            assertEquals(List.of(consumerGroupConfiguration), topicService.listActiveConsumerGroups(topicName));
+        }
+
         @Test
         @DisplayName("should not return dead consumer groups")
         void testNotListActiveConsumerGroups() throws ExecutionException, InterruptedException {
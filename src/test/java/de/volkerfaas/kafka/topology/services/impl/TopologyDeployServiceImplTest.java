@@ -1,40 +1,60 @@
 package de.volkerfaas.kafka.topology.services.impl;
 
+import de.volkerfaas.kafka.topology.ApplicationConfiguration.DeployProperties;
+import de.volkerfaas.kafka.topology.model.DeploymentPlan;
 import de.volkerfaas.kafka.topology.model.Domain;
+import de.volkerfaas.kafka.topology.model.Schema;
 import de.volkerfaas.kafka.topology.model.TopologyFile;
 import de.volkerfaas.kafka.topology.repositories.TopologyFileRepository;
 import de.volkerfaas.kafka.topology.services.AccessControlService;
 import de.volkerfaas.kafka.topology.services.TopologyValuesService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import javax.validation.Validator;
+import java.io.File;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @DisplayName("In the class TopologyBuildServiceImpl")
 class TopologyDeployServiceImplTest {
 
+    private AccessControlService accessControlService;
+    private SimpleMeterRegistry meterRegistry;
+    private SchemaFileServiceImpl schemaFileService;
+    private TopicServiceImpl topicService;
     private TopologyDeployServiceImpl topologyBuildService;
+    private TopologyFileRepository topologyFileRepository;
 
     @BeforeEach
     void init() {
-        final AccessControlService accessControlService = mock(AccessControlService.class);
-        final SchemaFileServiceImpl schemaFileService = mock(SchemaFileServiceImpl.class);
-        final TopicServiceImpl topicService = mock(TopicServiceImpl.class);
-        final TopologyFileRepository topologyFileRepository = mock(TopologyFileRepository.class);
+        this.accessControlService = mock(AccessControlService.class);
+        this.schemaFileService = mock(SchemaFileServiceImpl.class);
+        this.topicService = mock(TopicServiceImpl.class);
+        this.topologyFileRepository = mock(TopologyFileRepository.class);
         final TopologyValuesService topologyValuesService = new TopologyValuesServiceImpl();
         final Validator validator = mock(Validator.class);
-        this.topologyBuildService = new TopologyDeployServiceImpl(accessControlService, schemaFileService, topicService, topologyValuesService, topologyFileRepository, validator);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.topologyBuildService = new TopologyDeployServiceImpl(accessControlService, schemaFileService, topicService, topologyValuesService, topologyFileRepository, validator, null, new DeployProperties(), meterRegistry);
     }
 
     @Nested
@@ -117,4 +137,122 @@ class TopologyDeployServiceImplTest {
 
     }
 
+    @Nested
+    @DisplayName("the method listTopologies")
+    class ListTopologies {
+
+        @Test
+        @DisplayName("should read the topology files on several threads and skip the unreadable ones")
+        void testListTopologies() {
+            final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+            doReturn(Set.of("topology/topology-de.volkerfaas.arc.yaml", "topology/topology-de.volkerfaas.foo.yaml", "topology/topology-de.volkerfaas.bar.yaml")).when(topologyFileRepository).listTopologyFiles("topology");
+            doAnswer(invocation -> {
+                threadNames.add(Thread.currentThread().getName());
+                final String pathname = invocation.getArgument(0);
+                if (pathname.contains("bar")) {
+                    return null;
+                }
+                final TopologyFile topology = new TopologyFile();
+                topology.setFile(new File(pathname));
+                topology.setDomain(new Domain(pathname.substring("topology/topology-".length(), pathname.length() - ".yaml".length()), "User:123456"));
+
+                return topology;
+            }).when(topologyFileRepository).readTopology(anyString());
+
+            final Set<TopologyFile> topologies = topologyBuildService.listTopologies("topology");
+            assertEquals(Set.of("de.volkerfaas.arc", "de.volkerfaas.foo"), topologies.stream().map(topology -> topology.getDomain().getName()).collect(Collectors.toSet()));
+            assertTrue(threadNames.stream().allMatch(name -> name.startsWith("parse-")));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method applyDeploymentPlan")
+    class ApplyDeploymentPlan {
+
+        @Test
+        @DisplayName("should delete orphaned topics and subjects only after the topics have been created and updated")
+        void testApplyDeploymentPlanOrder() throws Exception {
+            final DeploymentPlan plan = new DeploymentPlan("staging", Instant.now(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(),
+                    Collections.emptyList(), List.of("de.volkerfaas.foo.public.orphaned"), List.of("de.volkerfaas.foo.public.orphaned-value"));
+            topologyBuildService.applyDeploymentPlan(plan, "topology");
+
+            final InOrder topicOrder = inOrder(topicService, schemaFileService);
+            topicOrder.verify(topicService).createTopics(any());
+            topicOrder.verify(topicService).updateConfigs(any());
+            topicOrder.verify(topicService).deleteTopics(plan.getOrphanedTopics());
+            topicOrder.verify(schemaFileService).deleteSubjects(plan.getOrphanedSubjects());
+            verify(schemaFileService).registerSchemas(any(), eq("topology"));
+            verify(accessControlService).createAccessControlLists(any());
+            verify(accessControlService, never()).deleteAccessControlLists(any());
+        }
+
+        @Test
+        @DisplayName("should rethrow the first failure and skip all dependent operations")
+        void testApplyDeploymentPlanFailFast() throws Exception {
+            final ExecutionException exception = new ExecutionException(new IllegalStateException("Broker not available"));
+            doThrow(exception).when(topicService).createTopics(any());
+            final DeploymentPlan plan = new DeploymentPlan("staging", Instant.now(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(),
+                    Collections.emptyList(), List.of("de.volkerfaas.foo.public.orphaned"), List.of("de.volkerfaas.foo.public.orphaned-value"));
+
+            final ExecutionException thrown = assertThrows(ExecutionException.class, () -> topologyBuildService.applyDeploymentPlan(plan, "topology"));
+            assertSame(exception, thrown);
+            verify(topicService, never()).updateConfigs(any());
+            verify(topicService, never()).deleteTopics(any());
+            verify(schemaFileService, never()).deleteSubjects(any());
+        }
+
+        @Test
+        @DisplayName("should neither create topics nor ACLs when a schema is incompatible")
+        void testApplyDeploymentPlanIncompatibleSchema() throws Exception {
+            final IllegalStateException exception = new IllegalStateException("Failed to register schemas for 1 of 1 subjects");
+            doThrow(exception).when(schemaFileService).registerSchemas(any(), anyString());
+            final DeploymentPlan plan = new DeploymentPlan("staging", Instant.now(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(),
+                    Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+            final IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> topologyBuildService.applyDeploymentPlan(plan, "topology"));
+            assertSame(exception, thrown);
+            verify(topicService, never()).createTopics(any());
+            verify(topicService, never()).createPartitions(any());
+            verify(accessControlService, never()).createAccessControlLists(any());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method listChangedSchemas")
+    class ListChangedSchemas {
+
+        @Test
+        @DisplayName("should return the subjects whose schema files differ from the fingerprints of the plan")
+        void testListChangedSchemas() {
+            final Schema unchanged = new Schema("de.volkerfaas.arc.public.user_created-value", Schema.Type.AVRO, null);
+            final Schema changed = new Schema("de.volkerfaas.arc.public.user_updated-value", Schema.Type.AVRO, null);
+            final Schema removed = new Schema("de.volkerfaas.arc.public.user_deleted-value", Schema.Type.AVRO, null);
+            final DeploymentPlan plan = new DeploymentPlan("staging", Instant.now(), List.of(unchanged, changed, removed),
+                    Map.of(unchanged.getSubject(), "a1", changed.getSubject(), "b2", removed.getSubject(), "c3"),
+                    Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+            doReturn(Map.of(unchanged.getSubject(), "a1", changed.getSubject(), "b4")).when(schemaFileService).listFingerprints(plan.getSchemas(), "topology");
+
+            final Collection<String> changedSchemas = topologyBuildService.listChangedSchemas(plan, "topology");
+            assertEquals(List.of(removed.getSubject(), changed.getSubject()), List.copyOf(changedSchemas));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method updateTopology")
+    class UpdateTopology {
+
+        @Test
+        @DisplayName("should time the planning and applying of the deployment as phases of their own")
+        void testUpdateTopologyPhases() throws Exception {
+            topologyBuildService.updateTopology(List.of(new Domain("de.volkerfaas.arc", "User:123456")), Collections.emptyList(), "topology");
+
+            assertEquals(1, meterRegistry.get("kcm.phase").tag("phase", "plan").timer().count());
+            assertEquals(1, meterRegistry.get("kcm.phase").tag("phase", "apply").timer().count());
+        }
+
+    }
+
 }
@@ -29,25 +29,22 @@ public final class MockUtils {
         throw new AssertionError("No de.volkerfaas.kafka.topology.utils.MockUtils instances for you!");
     }
 
-    public static void mockListOffsets(AdminClient adminClient, Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> topicPartitionListOffsetsResultInfos) throws ExecutionException, InterruptedException {
-        final KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> kafkaFuture = mock(KafkaFuture.class);
-        doReturn(topicPartitionListOffsetsResultInfos).when(kafkaFuture).get();
+    public static void mockListOffsets(AdminClient adminClient, Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> topicPartitionListOffsetsResultInfos) {
+        final KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> kafkaFuture = KafkaFuture.completedFuture(topicPartitionListOffsetsResultInfos);
         final ListOffsetsResult listOffsetsResult = mock(ListOffsetsResult.class);
         doReturn(kafkaFuture).when(listOffsetsResult).all();
         doReturn(listOffsetsResult).when(adminClient).listOffsets(anyMap());
     }
 
-    public static void mockListConsumerGroups(AdminClient adminClient, Collection<ConsumerGroupListing> consumerGroupListings) throws ExecutionException, InterruptedException {
-        final KafkaFuture<Collection<ConsumerGroupListing>> kafkaFuture = mock(KafkaFuture.class);
-        doReturn(consumerGroupListings).when(kafkaFuture).get();
+    public static void mockListConsumerGroups(AdminClient adminClient, Collection<ConsumerGroupListing> consumerGroupListings) {
+        final KafkaFuture<Collection<ConsumerGroupListing>> kafkaFuture = KafkaFuture.completedFuture(consumerGroupListings);
         final ListConsumerGroupsResult listConsumerGroupsResult = mock(ListConsumerGroupsResult.class);
         doReturn(kafkaFuture).when(listConsumerGroupsResult).all();
         doReturn(listConsumerGroupsResult).when(adminClient).listConsumerGroups();
     }
 
-    public static void mockDescribeConsumerGroups(AdminClient adminClient, Map<String, ConsumerGroupDescription> consumerGroupDescriptions) throws ExecutionException, InterruptedException {
-        final KafkaFuture<Map<String, ConsumerGroupDescription>> kafkaFuture = mock(KafkaFuture.class);
-        doReturn(consumerGroupDescriptions).when(kafkaFuture).get();
+    public static void mockDescribeConsumerGroups(AdminClient adminClient, Map<String, ConsumerGroupDescription> consumerGroupDescriptions) {
+        final KafkaFuture<Map<String, ConsumerGroupDescription>> kafkaFuture = KafkaFuture.completedFuture(consumerGroupDescriptions);
         final DescribeConsumerGroupsResult describeConsumerGroupsResult = mock(DescribeConsumerGroupsResult.class);
         doReturn(kafkaFuture).when(describeConsumerGroupsResult).all();
         doReturn(describeConsumerGroupsResult).when(adminClient).describeConsumerGroups(anyCollection());
@@ -90,49 +87,43 @@ public final class MockUtils {
         doReturn(true).when(schemaRegistryClient).testCompatibility(anyString(), any(ParsedSchema.class));
     }
 
-    public static void mockListTopics(AdminClient adminClient, Set<String> topicNames) throws InterruptedException, ExecutionException {
-        final KafkaFuture<Set<String>> kafkaFutureNames = mock(KafkaFuture.class);
+    public static void mockListTopics(AdminClient adminClient, Set<String> topicNames) {
+        final KafkaFuture<Set<String>> kafkaFutureNames = KafkaFuture.completedFuture(topicNames);
         final ListTopicsResult listTopicsResult = mock(ListTopicsResult.class);
-        doReturn(topicNames).when(kafkaFutureNames).get();
         doReturn(kafkaFutureNames).when(listTopicsResult).names();
         doReturn(listTopicsResult).when(adminClient).listTopics();
     }
 
-    public static void mockDescribeTopics(AdminClient adminClient, Map<String, TopicDescription> topicDescriptions) throws InterruptedException, ExecutionException {
-        final KafkaFuture<Map<String, TopicDescription>> kafkaFutureTopicDescription = mock(KafkaFuture.class);
+    public static void mockDescribeTopics(AdminClient adminClient, Map<String, TopicDescription> topicDescriptions) {
+        final KafkaFuture<Map<String, TopicDescription>> kafkaFutureTopicDescription = KafkaFuture.completedFuture(topicDescriptions);
         final DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
-        doReturn(topicDescriptions).when(kafkaFutureTopicDescription).get();
         doReturn(kafkaFutureTopicDescription).when(describeTopicsResult).all();
         doReturn(describeTopicsResult).when(adminClient).describeTopics(anyCollection());
     }
 
-    public static void mockDescribeConfigs(AdminClient adminClient, Map<ConfigResource, Config> configMap) throws InterruptedException, ExecutionException {
-        final KafkaFuture<Map<ConfigResource, Config>> kafkaFutureConfig = mock(KafkaFuture.class);
+    public static void mockDescribeConfigs(AdminClient adminClient, Map<ConfigResource, Config> configMap) {
+        final KafkaFuture<Map<ConfigResource, Config>> kafkaFutureConfig = KafkaFuture.completedFuture(configMap);
         final DescribeConfigsResult describeConfigsResult = mock(DescribeConfigsResult.class);
-        doReturn(configMap).when(kafkaFutureConfig).get();
         doReturn(kafkaFutureConfig).when(describeConfigsResult).all();
         doReturn(describeConfigsResult).when(adminClient).describeConfigs(anySet());
     }
 
-    public static void mockDescribeAcls(AdminClient adminClient, Set<AclBinding> aclBindings) throws InterruptedException, ExecutionException {
-        final KafkaFuture<Set<AclBinding>> kafkaFutureAclBindings = mock(KafkaFuture.class);
+    public static void mockDescribeAcls(AdminClient adminClient, Set<AclBinding> aclBindings) {
+        final KafkaFuture<Set<AclBinding>> kafkaFutureAclBindings = KafkaFuture.completedFuture(aclBindings);
         final DescribeAclsResult describeAclsResult = mock(DescribeAclsResult.class);
-        doReturn(aclBindings).when(kafkaFutureAclBindings).get();
         doReturn(kafkaFutureAclBindings).when(describeAclsResult).values();
         doReturn(describeAclsResult).when(adminClient).describeAcls(any());
     }
 
-    public static void mockDescribeCluster(AdminClient adminClient, String clusterId) throws InterruptedException, ExecutionException {
-        final KafkaFuture<String> kafkaFutureClusterId = mock(KafkaFuture.class);
-        doReturn(clusterId).when(kafkaFutureClusterId).get();
+    public static void mockDescribeCluster(AdminClient adminClient, String clusterId) {
+        final KafkaFuture<String> kafkaFutureClusterId = KafkaFuture.completedFuture(clusterId);
         final DescribeClusterResult describeClusterResult = mock(DescribeClusterResult.class);
         doReturn(kafkaFutureClusterId).when(describeClusterResult).clusterId();
         doReturn(describeClusterResult).when(adminClient).describeCluster();
     }
 
-    public static void mockListConsumerGroupOffsets(AdminClient adminClient, Map<TopicPartition, OffsetAndMetadata> topicPartitionOffsetAndMetadata) throws ExecutionException, InterruptedException {
-        final KafkaFuture<Map<TopicPartition, OffsetAndMetadata>> kafkaFuture = mock(KafkaFuture.class);
-        doReturn(topicPartitionOffsetAndMetadata).when(kafkaFuture).get();
+    public static void mockListConsumerGroupOffsets(AdminClient adminClient, Map<TopicPartition, OffsetAndMetadata> topicPartitionOffsetAndMetadata) {
+        final KafkaFuture<Map<TopicPartition, OffsetAndMetadata>> kafkaFuture = KafkaFuture.completedFuture(topicPartitionOffsetAndMetadata);
         final ListConsumerGroupOffsetsResult listConsumerGroupOffsetsResult = mock(ListConsumerGroupOffsetsResult.class);
         doReturn(kafkaFuture).when(listConsumerGroupOffsetsResult).partitionsToOffsetAndMetadata();
         doReturn(listConsumerGroupOffsetsResult).when(adminClient).listConsumerGroupOffsets(anyString());
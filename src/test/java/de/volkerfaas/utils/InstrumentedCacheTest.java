@@ -0,0 +1,60 @@
+package de.volkerfaas.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("In the class InstrumentedCache")
+class InstrumentedCacheTest {
+
+    @Nested
+    @DisplayName("the method get with value loader")
+    class Get {
+
+        @Test
+        @DisplayName("should load a missing value once and return the cached value afterwards")
+        @SuppressWarnings("unchecked")
+        void testGet() throws Exception {
+            final InstrumentedCache cache = new InstrumentedCache("cluster", Duration.ofMinutes(10), 10);
+            final Callable<String> valueLoader = mock(Callable.class);
+            doReturn("value").when(valueLoader).call();
+
+            assertEquals("value", cache.get("a", valueLoader));
+            assertEquals("value", cache.get("a", valueLoader));
+            verify(valueLoader, times(1)).call();
+            assertEquals(1, cache.getStatistics().getLoads());
+            assertEquals(1, cache.getStatistics().getHits());
+            assertEquals(1, cache.getStatistics().getMisses());
+        }
+
+        @Test
+        @DisplayName("should not load a value again that another loading has put after the miss")
+        @SuppressWarnings("unchecked")
+        void testGetLoadedConcurrently() throws Exception {
+            final AtomicBoolean stale = new AtomicBoolean(true);
+            final InstrumentedCache cache = new InstrumentedCache("cluster", Duration.ofMinutes(10), 10) {
+                @Override
+                protected Object lookup(Object key) {
+                    // the value is put by another loading right after this miss
+                    return stale.getAndSet(false) ? null : super.lookup(key);
+                }
+            };
+            cache.put("a", "value");
+            final Callable<String> valueLoader = mock(Callable.class);
+
+            assertEquals("value", cache.get("a", valueLoader));
+            verify(valueLoader, never()).call();
+            assertEquals(0, cache.getStatistics().getLoads());
+            assertEquals("value", cache.get("a", valueLoader));
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+package de.volkerfaas.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In the class OperationGraph")
+class OperationGraphTest {
+
+    @Nested
+    @DisplayName("the method add")
+    class Add {
+
+        @Test
+        @DisplayName("should reject an operation that depends on an unknown operation")
+        void testAddUnknownDependency() {
+            final OperationGraph operations = new OperationGraph().add("createTopics", () -> {});
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> operations.add("updateConfigs", () -> {}, "createPartitions"));
+            assertEquals("Operation 'updateConfigs' depends on unknown operation 'createPartitions'.", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("should reject an operation that has already been added")
+        void testAddDuplicate() {
+            final OperationGraph operations = new OperationGraph().add("createTopics", () -> {});
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> operations.add("createTopics", () -> {}));
+            assertEquals("Operation 'createTopics' has already been added.", exception.getMessage());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("the method execute")
+    class Execute {
+
+        @Test
+        @DisplayName("should run independent operations at the same time and each operation after its dependencies")
+        void testExecuteOrder() throws ExecutionException, InterruptedException {
+            final List<String> events = new CopyOnWriteArrayList<>();
+            final CountDownLatch parallel = new CountDownLatch(2);
+            final OperationGraph.Operation await = () -> {
+                parallel.countDown();
+                assertTrue(parallel.await(5, TimeUnit.SECONDS));
+            };
+            final StageTimings timings = new OperationGraph()
+                    .add("registerSchemas", () -> events.add("registerSchemas"))
+                    .add("createTopics", () -> {
+                        await.run();
+                        events.add("createTopics");
+                    }, "registerSchemas")
+                    .add("createAcls", () -> {
+                        await.run();
+                        events.add("createAcls");
+                    }, "registerSchemas")
+                    .add("deleteTopics", () -> events.add("deleteTopics"), "createTopics", "createAcls")
+                    .execute(2);
+
+            assertEquals(4, events.size());
+            assertEquals("registerSchemas", events.get(0));
+            assertThat(events.subList(1, 3), containsInAnyOrder("createTopics", "createAcls"));
+            assertEquals("deleteTopics", events.get(3));
+            assertEquals(4, timings.getStages().size());
+        }
+
+        @Test
+        @DisplayName("should reject a parallelism less than one")
+        void testExecuteInvalidParallelism() {
+            assertThrows(IllegalArgumentException.class, () -> new OperationGraph().execute(0));
+        }
+
+        @Test
+        @DisplayName("should rethrow an execution exception and a runtime exception of an operation unwrapped")
+        void testExecuteUnwrapsExceptions() {
+            final ExecutionException executionException = new ExecutionException(new IllegalStateException("Broker not available"));
+            final ExecutionException thrownExecutionException = assertThrows(ExecutionException.class, () -> new OperationGraph()
+                    .add("createTopics", () -> {
+                        throw executionException;
+                    })
+                    .execute(1));
+            assertSame(executionException, thrownExecutionException);
+
+            final IllegalStateException runtimeException = new IllegalStateException("Failed to register schemas");
+            final IllegalStateException thrownRuntimeException = assertThrows(IllegalStateException.class, () -> new OperationGraph()
+                    .add("registerSchemas", () -> {
+                        throw runtimeException;
+                    })
+                    .execute(1));
+            assertSame(runtimeException, thrownRuntimeException);
+        }
+
+        @Test
+        @DisplayName("should wrap a checked exception of an operation into an execution exception")
+        void testExecuteWrapsCheckedException() {
+            final IOException exception = new IOException("Schema file not found");
+            final ExecutionException thrown = assertThrows(ExecutionException.class, () -> new OperationGraph()
+                    .add("registerSchemas", () -> {
+                        throw exception;
+                    })
+                    .execute(1));
+            assertSame(exception, thrown.getCause());
+        }
+
+        @Test
+        @DisplayName("should not start pending operations once an operation has failed")
+        void testExecuteCancelsPendingOperations() {
+            final List<String> events = new CopyOnWriteArrayList<>();
+            final IllegalStateException exception = new IllegalStateException("Failed to register schemas");
+            final OperationGraph operations = new OperationGraph()
+                    .add("registerSchemas", () -> {
+                        throw exception;
+                    })
+                    .add("deleteSubjects", () -> events.add("deleteSubjects"))
+                    .add("createTopics", () -> events.add("createTopics"), "registerSchemas");
+
+            assertSame(exception, assertThrows(IllegalStateException.class, () -> operations.execute(1)));
+            assertTrue(events.isEmpty());
+        }
+
+    }
+
+}